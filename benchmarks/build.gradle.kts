@@ -38,6 +38,7 @@ dependencies {
     compile(project(":compiler:frontend"))
     compile(projectTests(":compiler:tests-common"))
     compile(project(":compiler:cli"))
+    compile(project(":compiler:fir:entrypoint"))
     compile(intellijCoreDep()) { includeJars("intellij-core") }
     compile(jpsStandalone()) { includeJars("jps-model") }
     Platform[192].orHigher {
@@ -71,6 +72,11 @@ benchmark {
 
             include("CommonCallsBenchmark")
             include("ControlFlowAnalysisBenchmark")
+            include("ConstEvaluationBenchmark")
+            include("SimpleDataFlowBenchmark")
+            include("ComplexDataFlowBenchmark")
+            include("SmartCastsDataFlowBenchmark")
+            include("FirTreeTraversalBenchmark")
             //include("InferenceBaselineCallsBenchmark")
         }
 
@@ -82,11 +88,30 @@ benchmark {
             param("useNI", true)
             param("isIR", false)
             param("size", 1000)
+            param("useSubtypingCache", false, true)
             include("InferenceBaselineCallsBenchmark")
             include("InferenceExplicitArgumentsCallsBenchmark")
             include("InferenceForInApplicableCandidate")
             include("InferenceFromArgumentCallsBenchmark")
             include("InferenceFromReturnTypeCallsBenchmark")
+            include("InferenceLongCallChainsBenchmark")
+            include("InferenceNestedBuildersBenchmark")
+        }
+
+        // allocation rates are reported with `-PjmhArgs='Backend -prof gc'`, see runBenchmark
+        register("backend") {
+            warmups = 10
+            iterations = 10
+            iterationTime = 1
+            iterationTimeUnit = "sec"
+            param("size", 1000)
+            param("useIR", false, true)
+
+            include("InlineFunctionsBackendBenchmark")
+            include("CoroutinesBackendBenchmark")
+            include("LargeWhenBackendBenchmark")
+            include("DataClassesBackendBenchmark")
+            include("RealSourcesBackendBenchmark")
         }
     }
     targets {
@@ -100,7 +125,7 @@ tasks.named("classes") {
             isZip64 = true
             archiveName = "benchmarks.jar"
         }
-        listOf("mainBenchmark", "mainFirBenchmark", "mainNiBenchmark").forEach {
+        listOf("mainBenchmark", "mainFirBenchmark", "mainNiBenchmark", "mainBackendBenchmark").forEach {
             tasks.named(it, JavaExec::class.java) {
                 systemProperty("idea.home.path", intellijRootDir().canonicalPath)
             }
@@ -131,13 +156,25 @@ tasks.register<JavaExec>("runBenchmark") {
                 val params = benchmark["params"].asJsonObject
                 val isIR = if (params.has("isIR")) params["isIR"].asString else "false"
                 val useNI = if (params.has("useNI")) params["useNI"].asString else "false"
-                val size = params["size"].asString
+                val sizePostfix = listOf("size", "depth", "length").firstOrNull { params.has(it) }?.let { " $it=${params[it].asString}" } ?: ""
+                val useIR = if (params.has("useIR")) params["useIR"].asString else "false"
+                val useSubtypingCache = if (params.has("useSubtypingCache")) params["useSubtypingCache"].asString else "false"
                 val score = "%.3f".format(benchmark["primaryMetric"].asJsonObject["score"].asString.toFloat())
 
                 val irPostfix = if (isIR.toBoolean()) " isIR=true" else ""
                 val niPostfix = if (useNI.toBoolean() && !isIR.toBoolean()) " isNI=true" else ""
+                val subtypingCachePostfix = if (useSubtypingCache.toBoolean()) " subtypingCache=true" else ""
+                val irBackendPostfix = if (useIR.toBoolean()) " useIR=true" else ""
+                val key = "$name$sizePostfix${irPostfix}$niPostfix$subtypingCachePostfix$irBackendPostfix"
 
-                println("""##teamcity[buildStatisticValue key='$name size=$size${irPostfix}$niPostfix' value='$score']""")
+                println("""##teamcity[buildStatisticValue key='$key' value='$score']""")
+
+                // present when running with `-prof gc`
+                val allocationRate = benchmark["secondaryMetrics"]?.asJsonObject?.get("·gc.alloc.rate.norm")?.asJsonObject
+                if (allocationRate != null) {
+                    val bytes = "%.0f".format(allocationRate["score"].asString.toFloat())
+                    println("""##teamcity[buildStatisticValue key='$key allocated bytes' value='$bytes']""")
+                }
             }
         }
     }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Disposer
+import org.jetbrains.kotlin.analyzer.AnalysisResult
+import org.jetbrains.kotlin.backend.common.phaser.PhaseConfig
+import org.jetbrains.kotlin.backend.jvm.JvmIrCodegenFactory
+import org.jetbrains.kotlin.backend.jvm.jvmPhases
+import org.jetbrains.kotlin.cli.jvm.compiler.EnvironmentConfigFiles
+import org.jetbrains.kotlin.cli.jvm.compiler.KotlinCoreEnvironment
+import org.jetbrains.kotlin.codegen.ClassBuilderFactories
+import org.jetbrains.kotlin.codegen.DefaultCodegenFactory
+import org.jetbrains.kotlin.codegen.KotlinCodegenFacade
+import org.jetbrains.kotlin.codegen.state.GenerationState
+import org.jetbrains.kotlin.config.JVMConfigurationKeys
+import org.jetbrains.kotlin.psi.KtFile
+import org.jetbrains.kotlin.resolve.lazy.JvmResolveUtil
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Measures JVM code generation only: sources are analyzed once per trial, and every invocation generates bytecode
+ * for them from scratch with the old backend or with the JVM IR backend (psi2ir, lowerings and codegen).
+ *
+ * Run with `-prof gc` to see allocation rates, see the "backend" configuration.
+ */
+@State(Scope.Benchmark)
+abstract class AbstractBackendBenchmark {
+    private var myDisposable: Disposable = Disposer.newDisposable()
+    private lateinit var env: KotlinCoreEnvironment
+    private lateinit var files: List<KtFile>
+    private lateinit var analysisResult: AnalysisResult
+
+    @Param("false", "true")
+    protected var useIR: Boolean = false
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        val configuration = newConfiguration(useNewInference = true)
+        configuration.put(JVMConfigurationKeys.IR, useIR)
+        env = KotlinCoreEnvironment.createForTests(myDisposable, configuration, EnvironmentConfigFiles.JVM_CONFIG_FILES)
+
+        files = createFiles(env.project)
+        analysisResult = JvmResolveUtil.analyzeAndCheckForErrors(files, env)
+        analysisResult.throwIfError()
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        Disposer.dispose(myDisposable)
+    }
+
+    protected fun generateCode(bh: Blackhole) {
+        val state = GenerationState.Builder(
+            env.project, ClassBuilderFactories.BINARIES, analysisResult.moduleDescriptor, analysisResult.bindingContext,
+            files, env.configuration
+        ).codegenFactory(
+            if (useIR) JvmIrCodegenFactory(PhaseConfig(jvmPhases)) else DefaultCodegenFactory
+        ).isIrBackend(useIR).build()
+
+        KotlinCodegenFacade.compileCorrectFiles(state)
+
+        for (outputFile in state.factory.asList()) {
+            bh.consume(outputFile.asByteArray())
+        }
+        state.destroy()
+    }
+
+    protected abstract fun createFiles(project: Project): List<KtFile>
+}
+
+/**
+ * Backend benchmark over a single synthetic file produced by [buildText].
+ */
+@State(Scope.Benchmark)
+abstract class AbstractSimpleFileBackendBenchmark : AbstractBackendBenchmark() {
+    override fun createFiles(project: Project): List<KtFile> =
+        listOf(createFile("test.kt", buildText(), project))
+
+    protected abstract fun buildText(): String
+}
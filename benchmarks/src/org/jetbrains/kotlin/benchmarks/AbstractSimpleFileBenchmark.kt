@@ -24,8 +24,11 @@ import org.jetbrains.kotlin.context.withModule
 import org.jetbrains.kotlin.context.withProject
 import org.jetbrains.kotlin.descriptors.impl.ModuleDescriptorImpl
 import org.jetbrains.kotlin.diagnostics.Severity
+import org.jetbrains.kotlin.fir.analysis.FirAnalyzerFacade
 import org.jetbrains.kotlin.fir.builder.RawFirBuilder
+import org.jetbrains.kotlin.fir.FirSession
 import org.jetbrains.kotlin.fir.createSession
+import org.jetbrains.kotlin.fir.declarations.FirFile
 import org.jetbrains.kotlin.fir.java.FirJavaElementFinder
 import org.jetbrains.kotlin.fir.resolve.firProvider
 import org.jetbrains.kotlin.fir.resolve.providers.impl.FirProviderImpl
@@ -36,11 +39,12 @@ import org.jetbrains.kotlin.psi.KtFile
 import org.jetbrains.kotlin.storage.ExceptionTracker
 import org.jetbrains.kotlin.storage.LockBasedStorageManager
 import org.jetbrains.kotlin.storage.StorageManager
+import org.jetbrains.kotlin.types.SubtypingCache
 import org.openjdk.jmh.annotations.*
 import org.openjdk.jmh.infra.Blackhole
 import java.io.File
 
-private fun createFile(shortName: String, text: String, project: Project): KtFile {
+internal fun createFile(shortName: String, text: String, project: Project): KtFile {
     val virtualFile = object : LightVirtualFile(shortName, KotlinLanguage.INSTANCE, text) {
         override fun getPath(): String {
             //TODO: patch LightVirtualFile
@@ -63,7 +67,7 @@ private val LANGUAGE_FEATURE_SETTINGS =
         specificFeatures = mapOf(LanguageFeature.NewInference to LanguageFeature.State.ENABLED)
     )
 
-private fun newConfiguration(useNewInference: Boolean): CompilerConfiguration {
+internal fun newConfiguration(useNewInference: Boolean): CompilerConfiguration {
     val configuration = CompilerConfiguration()
     configuration.put(CommonConfigurationKeys.MODULE_NAME, "benchmark")
     configuration.put(CLIConfigurationKeys.INTELLIJ_PLUGIN_ROOT, "../compiler/cli/cli-common/resources")
@@ -82,20 +86,39 @@ private fun newConfiguration(useNewInference: Boolean): CompilerConfiguration {
 }
 
 @State(Scope.Benchmark)
-abstract class AbstractSimpleFileBenchmark {
+abstract class AbstractSimpleFileBenchmark : AbstractFileBenchmark() {
+    @Param("true", "false")
+    override var isIR: Boolean = false
+}
+
+/**
+ * Base of benchmarks which measure FIR only, so that they are not run with `isIR=false` by configurations including all benchmarks.
+ */
+@State(Scope.Benchmark)
+abstract class AbstractFirFileBenchmark : AbstractFileBenchmark() {
+    @Param("true")
+    override var isIR: Boolean = true
+}
+
+@State(Scope.Benchmark)
+abstract class AbstractFileBenchmark {
 
     private var myDisposable: Disposable = Disposable { }
     private lateinit var env: KotlinCoreEnvironment
     private lateinit var file: KtFile
 
-    @Param("true", "false")
-    protected var isIR: Boolean = false
+    protected abstract var isIR: Boolean
 
     protected open val useNewInference get() = isIR
 
+    // enabled with `-p useSubtypingCache=true`, see the "ni" configuration
+    @Param("false")
+    protected var useSubtypingCache: Boolean = false
+
     @Setup(Level.Trial)
     fun setUp() {
         if (isIR && !useNewInference) error("Invalid configuration")
+        System.setProperty(SubtypingCache.ENABLED_PROPERTY, useSubtypingCache.toString())
         env = KotlinCoreEnvironment.createForTests(
             myDisposable,
             newConfiguration(useNewInference),
@@ -113,6 +136,13 @@ abstract class AbstractSimpleFileBenchmark {
         )
     }
 
+    @TearDown(Level.Trial)
+    fun reportSubtypingCacheStatistics() {
+        if (useSubtypingCache) {
+            println("Subtyping cache: ${SubtypingCache.statistics()}")
+        }
+    }
+
     protected fun analyzeGreenFile(bh: Blackhole) {
         if (isIR) {
             analyzeGreenFileIr(bh)
@@ -148,9 +178,12 @@ abstract class AbstractSimpleFileBenchmark {
     }
 
     private fun analyzeGreenFileIr(bh: Blackhole) {
-        val scope = GlobalSearchScope.filesScope(env.project, listOf(file.virtualFile))
-            .uniteWith(TopDownAnalyzerFacadeForJVM.AllJavaSourcesInProjectScope(env.project))
-        val session = createSession(env, scope)
+        bh.consume(resolveGreenFileIr().hashCode())
+    }
+
+    protected fun resolveGreenFileIr(): FirFile {
+        if (!isIR) error("Resolution to FIR is supported only for IR")
+        val session = createSessionForFile()
         val firProvider = session.firProvider as FirProviderImpl
         val builder = RawFirBuilder(session, firProvider.kotlinScopeProvider)
 
@@ -159,10 +192,31 @@ abstract class AbstractSimpleFileBenchmark {
 
         totalTransformer.process(listOf(firFile))
 
-        bh.consume(firFile.hashCode())
         env.project.extensionArea
             .getExtensionPoint<PsiElementFinder>(PsiElementFinder.EP.name)
             .unregisterExtension(FirJavaElementFinder::class.java)
+        return firFile
+    }
+
+    /**
+     * Creates an analyzer facade with the file resolved, so that [FirAnalyzerFacade.convertToIr] measures only fir2ir
+     * and constant evaluation.
+     */
+    protected fun resolveGreenFileForIrConversion(): FirAnalyzerFacade {
+        if (!isIR) error("Conversion to IR is supported only for FIR")
+        val facade = FirAnalyzerFacade(createSessionForFile(), env.configuration.languageVersionSettings, listOf(file))
+        facade.runResolution()
+
+        env.project.extensionArea
+            .getExtensionPoint<PsiElementFinder>(PsiElementFinder.EP.name)
+            .unregisterExtension(FirJavaElementFinder::class.java)
+        return facade
+    }
+
+    private fun createSessionForFile(): FirSession {
+        val scope = GlobalSearchScope.filesScope(env.project, listOf(file.virtualFile))
+            .uniteWith(TopDownAnalyzerFacadeForJVM.AllJavaSourcesInProjectScope(env.project))
+        return createSession(env, scope)
     }
 
     protected abstract fun buildText(): String
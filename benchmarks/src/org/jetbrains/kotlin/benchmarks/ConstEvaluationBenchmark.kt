@@ -0,0 +1,49 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.jetbrains.kotlin.fir.analysis.FirAnalyzerFacade
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Converts a resolved file full of const expressions to IR, where [org.jetbrains.kotlin.fir.backend.evaluate.IrConstTransformer]
+ * evaluates them with the IR interpreter. Resolution is done before each invocation and is not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class ConstEvaluationBenchmark : AbstractFirFileBenchmark() {
+
+    @Param("1", "100", "1000", "3000")
+    private var size: Int = 0
+
+    private lateinit var facade: FirAnalyzerFacade
+
+    @Setup(Level.Invocation)
+    fun resolve() {
+        facade = resolveGreenFileForIrConversion()
+    }
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        bh.consume(facade.convertToIr().irModuleFragment)
+    }
+
+    override fun buildText() =
+        """
+        |const val PREFIX = "kotlin"
+        |${(1..size).joinToString("\n") {
+            """
+            |const val s$it = PREFIX + "_$it" + PREFIX.length
+            |const val i$it = ($it shl 3) xor 0x55 + "$it".length * 2
+            |const val l$it = $it.toLong() * 1000000007L % 998244353L
+            |const val b$it = "abc$it".length > PREFIX.length && $it % 3 == 0
+            """.trimMargin()
+        }}
+        """.trimMargin()
+}
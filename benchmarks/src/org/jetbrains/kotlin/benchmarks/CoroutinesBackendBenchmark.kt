@@ -0,0 +1,53 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class CoroutinesBackendBenchmark : AbstractSimpleFileBackendBenchmark() {
+
+    @Param("1", "10", "100", "1000")
+    private var size: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        generateCode(bh)
+    }
+
+    override fun buildText() =
+            """
+            |import kotlin.coroutines.*
+            |
+            |suspend fun step(x: Int): Int = suspendCoroutine { it.resume(x + 1) }
+            |fun launch(block: suspend () -> Unit) {
+            |    block.startCoroutine(Continuation(EmptyCoroutineContext) { it.getOrThrow() })
+            |}
+            |${(1..size).joinToString("\n") { i ->
+                """
+                |suspend fun foo$i(xs: List<Int>): Int {
+                |    var sum = 0
+                |    val s = "foo$i"
+                |    for (x in xs) {
+                |        sum += step(x)
+                |        if (sum > $i) sum -= step(sum) + s.length
+                |    }
+                |    try {
+                |        sum += step(sum)
+                |    } finally {
+                |        sum += step(s.length)
+                |    }
+                |    return sum
+                |}
+                |fun bar$i(xs: List<Int>) = launch { println(foo$i(xs) + step($i)) }
+                """.trimMargin()
+            }}
+            """.trimMargin()
+}
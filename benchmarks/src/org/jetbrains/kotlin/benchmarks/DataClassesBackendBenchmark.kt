@@ -0,0 +1,37 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class DataClassesBackendBenchmark : AbstractSimpleFileBackendBenchmark() {
+
+    @Param("1", "10", "100", "1000")
+    private var size: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        generateCode(bh)
+    }
+
+    override fun buildText() =
+            """
+            |${(1..size).joinToString("\n") { i ->
+                """
+                |data class D$i(val a: Int, val b: String, val c: List<D$i>?, var d: Double = $i.0, val e: Long? = null)
+                |fun use$i(x: D$i): D$i {
+                |    val (a, b, c) = x
+                |    return x.copy(a = a + 1, b = b + c?.size, d = x.hashCode().toDouble())
+                |}
+                """.trimMargin()
+            }}
+            """.trimMargin()
+}
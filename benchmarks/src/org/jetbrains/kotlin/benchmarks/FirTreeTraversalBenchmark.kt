@@ -0,0 +1,78 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.jetbrains.kotlin.fir.FirElement
+import org.jetbrains.kotlin.fir.declarations.FirFile
+import org.jetbrains.kotlin.fir.visitors.CompositeTransformResult
+import org.jetbrains.kotlin.fir.visitors.FirTransformer
+import org.jetbrains.kotlin.fir.visitors.FirVisitorVoid
+import org.jetbrains.kotlin.fir.visitors.compose
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Walks a resolved FIR file with a visitor and with a transformer which changes nothing,
+ * to see the cost (and, with `-prof gc`, the allocations) of the traversal itself.
+ * The file is resolved to FIR, so the benchmark runs only with `isIR=true`.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+open class FirTreeTraversalBenchmark : AbstractFirFileBenchmark() {
+
+    @Param("100", "1000")
+    private var size: Int = 0
+
+    private lateinit var firFile: FirFile
+
+    @Setup(Level.Trial)
+    fun resolve() {
+        firFile = resolveGreenFileIr()
+    }
+
+    @Benchmark
+    fun visit(bh: Blackhole) {
+        val counter = ElementCounter()
+        firFile.accept(counter)
+        bh.consume(counter.count)
+    }
+
+    @Benchmark
+    fun transform(bh: Blackhole) {
+        bh.consume(firFile.transform<FirFile, Nothing?>(IdentityTransformer, null))
+    }
+
+    private class ElementCounter : FirVisitorVoid() {
+        var count = 0
+
+        override fun visitElement(element: FirElement) {
+            count++
+            element.acceptChildren(this)
+        }
+    }
+
+    private object IdentityTransformer : FirTransformer<Nothing?>() {
+        override fun <E : FirElement> transformElement(element: E, data: Nothing?): CompositeTransformResult<E> {
+            element.transformChildren(this, data)
+            return element.compose()
+        }
+    }
+
+    override fun buildText() =
+        """
+        |class A(val x: Int) {
+        |    fun foo(y: Int): Int = x + y
+        |}
+        |
+        |fun bar(a: A): Int {
+        |    var result = 0
+        |${(1..size).joinToString("\n") { "    result += a.foo($it)" }}
+        |    return result
+        |}
+        """.trimMargin()
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class InferenceLongCallChainsBenchmark : AbstractInferenceBenchmark() {
+
+    @Param("1", "10", "50", "100", "200")
+    private var length: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        analyzeGreenFile(bh)
+    }
+
+    override fun buildText() =
+            """
+            |fun <T, R> T.let2(f: (T) -> R): R = f(this)
+            |fun bar(v: Int): List<Int> = listOf(v)
+            |${(1..length).joinToString("\n") { "    .map { it + 1 }.let2 { it.filter { x -> x > 0 } }" }}
+            """.trimMargin()
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class InferenceNestedBuildersBenchmark : AbstractInferenceBenchmark() {
+
+    @Param("1", "10", "50", "100")
+    private var depth: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        analyzeGreenFile(bh)
+    }
+
+    override fun buildText() =
+            """
+            |class Node<T>(val value: T) {
+            |    val children = mutableListOf<Node<*>>()
+            |}
+            |fun <T> node(value: T, init: Node<T>.() -> Unit): Node<T> = Node(value).apply(init)
+            |fun bar() = node(0) {
+            |${(1..depth).joinToString("\n") { "children.add(node(listOf(value)) {" }}
+            |${"}) ".repeat(depth)}
+            |}
+            """.trimMargin()
+}
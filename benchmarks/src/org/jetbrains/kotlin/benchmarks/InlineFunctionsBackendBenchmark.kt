@@ -0,0 +1,52 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class InlineFunctionsBackendBenchmark : AbstractSimpleFileBackendBenchmark() {
+
+    @Param("1", "10", "100", "1000")
+    private var size: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        generateCode(bh)
+    }
+
+    override fun buildText() =
+            """
+            |inline fun <T> withLog(tag: String, block: () -> T): T {
+            |    try {
+            |        return block()
+            |    } finally {
+            |        println(tag)
+            |    }
+            |}
+            |inline fun <T> retry(times: Int, block: (Int) -> T?): T? {
+            |    for (i in 0 until times) {
+            |        block(i)?.let { return it }
+            |    }
+            |    return null
+            |}
+            |inline fun <reified T> Any?.castOrNull(): T? = this as? T
+            |${(1..size).joinToString("\n") { i ->
+                """
+                |fun foo$i(xs: List<Int>, o: Any?): Int = withLog("foo$i") {
+                |    val y = o.castOrNull<Int>() ?: 0
+                |    retry(3) { attempt ->
+                |        xs.filter { it > attempt }.map { it * $i + y }.firstOrNull { it % 2 == 0 }
+                |    } ?: xs.sumBy { withLog("sum") { it + y } }
+                |}
+                """.trimMargin()
+            }}
+            """.trimMargin()
+}
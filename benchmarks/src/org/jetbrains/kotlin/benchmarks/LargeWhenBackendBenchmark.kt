@@ -0,0 +1,44 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class LargeWhenBackendBenchmark : AbstractSimpleFileBackendBenchmark() {
+
+    @Param("1", "10", "100", "1000")
+    private var size: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        generateCode(bh)
+    }
+
+    override fun buildText() =
+            """
+            |enum class E { ${(1..size).joinToString { "E$it" }} }
+            |fun byInt(x: Int): Int = when (x) {
+            |${(1..size).joinToString("\n") { "    ${it * 3} -> $it" }}
+            |    else -> 0
+            |}
+            |fun byString(s: String): Int = when (s) {
+            |${(1..size).joinToString("\n") { "    \"s$it\" -> $it" }}
+            |    else -> 0
+            |}
+            |fun byEnum(e: E): Int = when (e) {
+            |${(1..size).joinToString("\n") { "    E.E$it -> $it" }}
+            |}
+            |fun byCondition(x: Int, s: String?): Int = when {
+            |${(1..size).joinToString("\n") { "    x > $it && s?.length == $it -> $it" }}
+            |    else -> 0
+            |}
+            """.trimMargin()
+}
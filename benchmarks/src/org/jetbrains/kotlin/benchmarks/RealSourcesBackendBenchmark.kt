@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import com.intellij.openapi.project.Project
+import org.jetbrains.kotlin.psi.KtFile
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class RealSourcesBackendBenchmark : AbstractBackendBenchmark() {
+
+    // Kotlin sources which depend only on the JDK and the runtime, e.g. `-p sourcesPath=/path/to/sources`
+    @Param("../core/util.runtime/src/org/jetbrains/kotlin/utils")
+    private var sourcesPath: String = ""
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        generateCode(bh)
+    }
+
+    override fun createFiles(project: Project): List<KtFile> {
+        val sources = File(sourcesPath).walkTopDown().filter { it.isFile && it.extension == "kt" }.sortedBy { it.path }.toList()
+        if (sources.isEmpty()) error("No Kotlin sources found in ${File(sourcesPath).absolutePath}")
+        return sources.map { createFile(it.name, it.readText(), project) }
+    }
+}
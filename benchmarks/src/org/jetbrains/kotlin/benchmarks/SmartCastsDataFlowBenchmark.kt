@@ -0,0 +1,47 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.benchmarks
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+open class SmartCastsDataFlowBenchmark : AbstractSimpleFileBenchmark() {
+
+    @Param("1", "100", "1000", "3000")
+    private var size: Int = 0
+
+    @Benchmark
+    fun benchmark(bh: Blackhole) {
+        analyzeGreenFile(bh)
+    }
+
+    override fun buildText() =
+        """
+            |fun bar(a: Any?, b: Any?, c: Any?) {
+            |   val x = a
+            |${(1..size).joinToString("\n") {
+                """
+                |if (a is String && (b is Int || b is Long)) {
+                |   a.length
+                |   if (c !is CharSequence) return
+                |   c.length
+                |} else if (x is String) {
+                |   x.length
+                |}
+                |when (b) {
+                |   is Int -> b.inc()
+                |   is String -> b.length
+                |   else -> {}
+                |}
+                """.trimMargin()
+            }}
+            |}
+            """.trimMargin()
+}
@@ -16,4 +16,20 @@ interface ICReporter {
     fun reportMarkDirtyClass(affectedFiles: Iterable<File>, classFqName: String)
     fun reportMarkDirtyMember(affectedFiles: Iterable<File>, scope: String, name: String)
     fun reportMarkDirty(affectedFiles: Iterable<File>, reason: String)
+
+    /**
+     * Reports time spent in [phase] of a build; called once per phase occurrence, so phases repeated
+     * in several compile iterations are reported several times
+     */
+    fun reportPhaseTime(phase: IncrementalCompilationPhase, timeNs: Long) {}
+}
+
+enum class IncrementalCompilationPhase {
+    // comparing source snapshots and classpath changes, computing initially dirty files
+    CHANGES_DETECTION,
+    // finding files affected by the changes from a compile iteration
+    DIRTY_SET_EXPANSION,
+    COMPILATION,
+    // updating and flushing caches and build history
+    CACHES_UPDATE
 }
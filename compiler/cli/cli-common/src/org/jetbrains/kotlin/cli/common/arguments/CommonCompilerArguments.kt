@@ -317,6 +317,12 @@ abstract class CommonCompilerArguments : CommonToolArguments() {
     )
     var useFir: Boolean by FreezableVar(false)
 
+    @Argument(
+        value = "-Xuse-fir-lt",
+        description = "Compile using Front-end IR built from light trees instead of PSI. Implies -Xuse-fir. Warning: this feature is far from being production-ready"
+    )
+    var useFirLightTree: Boolean by FreezableVar(false)
+
     @Argument(
         value = "-Xuse-fir-extended-checkers",
         description = "Use extended analysis mode based on Front-end IR. Warning: this feature is far from being production-ready"
@@ -125,6 +125,13 @@ class K2JSCompilerArguments : CommonCompilerArguments() {
     @Argument(value = "-Xir-dce-print-reachability-info", description = "Print declarations' reachability info to stdout during performing DCE")
     var irDcePrintReachabilityInfo: Boolean by FreezableVar(false)
 
+    @Argument(
+        value = "-Xir-klib-serialization-threads",
+        valueDescription = "<N>",
+        description = "Serialize IR files of a klib in parallel using N threads"
+    )
+    var irKlibSerializationThreads: String? by NullableStringFreezableVar(null)
+
     @Argument(value = "-Xir-only", description = "Disables pre-IR backend")
     var irOnly: Boolean by FreezableVar(false)
 
@@ -334,6 +334,18 @@ class K2JsIrCompiler : CLICompiler<K2JSCompilerArguments>() {
 
         configuration.put(JSConfigurationKeys.PRINT_REACHABILITY_INFO, arguments.irDcePrintReachabilityInfo)
         configuration.put(JSConfigurationKeys.DISABLE_FAKE_OVERRIDE_VALIDATOR, arguments.disableFakeOverrideValidator)
+
+        val klibSerializationThreads = arguments.irKlibSerializationThreads
+        if (klibSerializationThreads != null) {
+            val threads = klibSerializationThreads.toIntOrNull()
+            if (threads == null || threads < 1) {
+                messageCollector.report(
+                    ERROR, "Invalid number of klib serialization threads: $klibSerializationThreads. Expected a positive integer", null
+                )
+            } else {
+                configuration.put(JSConfigurationKeys.KLIB_SERIALIZATION_THREADS, threads)
+            }
+        }
     }
 
     override fun executableScriptFileName(): String {
@@ -5,6 +5,7 @@
 
 package org.jetbrains.kotlin.cli.common
 
+import org.jetbrains.kotlin.types.SubtypingCache
 import org.jetbrains.kotlin.util.PerformanceCounter
 import java.io.File
 import java.lang.management.GarbageCollectorMXBean
@@ -55,6 +56,7 @@ abstract class CommonCompilerPerformanceManager(private val presentableName: Str
         recordGcTime()
         recordJitCompilationTime()
         recordPerfCountersMeasurements()
+        recordSubtypingCacheStatistics()
     }
 
     open fun notifyAnalysisStarted() {
@@ -132,6 +134,12 @@ abstract class CommonCompilerPerformanceManager(private val presentableName: Str
         measurements += CompilerInitializationMeasurement(time)
     }
 
+    private fun recordSubtypingCacheStatistics() {
+        if (!SubtypingCache.isEnabled) return
+
+        measurements += SubtypingCacheMeasurement(SubtypingCache.statistics())
+    }
+
     private fun recordPerfCountersMeasurements() {
         PerformanceCounter.report { s -> measurements += PerformanceCounterMeasurement(s) }
     }
@@ -22,7 +22,8 @@ fun <A : CommonCompilerArguments> CompilerConfiguration.setupCommonArguments(
     createMetadataVersion: ((IntArray) -> BinaryVersion)? = null
 ) {
     put(CommonConfigurationKeys.DISABLE_INLINE, arguments.noInline)
-    put(CommonConfigurationKeys.USE_FIR, arguments.useFir)
+    put(CommonConfigurationKeys.USE_FIR, arguments.useFir || arguments.useFirLightTree)
+    put(CommonConfigurationKeys.USE_FIR_LIGHT_TREE, arguments.useFirLightTree)
     put(CommonConfigurationKeys.USE_FIR_EXTENDED_CHECKERS, arguments.useFirExtendedCheckers)
     put(CommonConfigurationKeys.EXPECT_ACTUAL_LINKER, arguments.expectActualLinker)
     putIfNotNull(CLIConfigurationKeys.INTELLIJ_PLUGIN_ROOT, arguments.intellijPluginRoot)
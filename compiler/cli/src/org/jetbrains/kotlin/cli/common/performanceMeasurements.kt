@@ -5,6 +5,8 @@
 
 package org.jetbrains.kotlin.cli.common
 
+import org.jetbrains.kotlin.types.SubtypingCache
+
 interface PerformanceMeasurement {
     fun render(): String
 }
@@ -29,6 +31,10 @@ class GarbageCollectionMeasurement(val garbageCollectionKind: String, val millis
     override fun render(): String = "GC time for $garbageCollectionKind is $milliseconds ms, $count collections"
 }
 
+class SubtypingCacheMeasurement(private val statistics: SubtypingCache.Statistics) : PerformanceMeasurement {
+    override fun render(): String = "Subtyping cache: $statistics"
+}
+
 class PerformanceCounterMeasurement(private val counterReport: String) : PerformanceMeasurement {
     override fun render(): String = counterReport
 }
@@ -16,6 +16,7 @@
 
 package org.jetbrains.kotlin.cli.common
 
+import org.jetbrains.kotlin.cli.common.messages.CompilerMessageLocation
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity
 import org.jetbrains.kotlin.cli.common.messages.MessageCollector
 import org.jetbrains.kotlin.cli.common.messages.MessageUtil
@@ -47,6 +48,28 @@ fun checkKotlinPackageUsage(environment: KotlinCoreEnvironment, files: Collectio
     return true
 }
 
+/**
+ * Same check for files whose packages are known without building PSI (e.g. from raw FIR); the error is reported at the file.
+ */
+fun checkKotlinPackageUsage(environment: KotlinCoreEnvironment, packageFqNames: Map<KtFile, FqName>): Boolean {
+    if (environment.configuration.getBoolean(CLIConfigurationKeys.ALLOW_KOTLIN_PACKAGE)) {
+        return true
+    }
+    val messageCollector = environment.configuration.get(CLIConfigurationKeys.MESSAGE_COLLECTOR_KEY, MessageCollector.NONE)
+    val kotlinPackage = FqName("kotlin")
+    for ((file, packageFqName) in packageFqNames) {
+        if (packageFqName.isSubpackageOf(kotlinPackage)) {
+            messageCollector.report(
+                CompilerMessageSeverity.ERROR,
+                "Only the Kotlin standard library is allowed to use the 'kotlin' package",
+                CompilerMessageLocation.create(MessageUtil.virtualFileToPath(file.virtualFile))
+            )
+            return false
+        }
+    }
+    return true
+}
+
 fun getLibraryFromHome(
     paths: KotlinPaths?,
     getLibrary: (KotlinPaths) -> File,
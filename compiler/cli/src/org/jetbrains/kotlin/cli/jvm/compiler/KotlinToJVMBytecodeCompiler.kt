@@ -17,6 +17,7 @@
 package org.jetbrains.kotlin.cli.jvm.compiler
 
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.TextRange
 import com.intellij.openapi.vfs.*
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiElementFinder
@@ -39,6 +40,7 @@ import org.jetbrains.kotlin.cli.common.config.addKotlinSourceRoot
 import org.jetbrains.kotlin.cli.common.messages.AnalyzerWithCompilerReport
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity.*
 import org.jetbrains.kotlin.cli.common.messages.MessageCollector
+import org.jetbrains.kotlin.cli.common.messages.MessageUtil
 import org.jetbrains.kotlin.cli.common.messages.OutputMessageUtil
 import org.jetbrains.kotlin.cli.common.output.writeAll
 import org.jetbrains.kotlin.cli.common.toLogger
@@ -53,6 +55,7 @@ import org.jetbrains.kotlin.config.*
 import org.jetbrains.kotlin.container.get
 import org.jetbrains.kotlin.descriptors.ModuleDescriptor
 import org.jetbrains.kotlin.diagnostics.*
+import org.jetbrains.kotlin.diagnostics.rendering.DefaultErrorMessages
 import org.jetbrains.kotlin.fileClasses.JvmFileClassUtil
 import org.jetbrains.kotlin.fir.FirPsiSourceElement
 import org.jetbrains.kotlin.fir.FirSession
@@ -190,7 +193,8 @@ object KotlinToJVMBytecodeCompiler {
         val projectConfiguration = environment.configuration
         if (projectConfiguration.getBoolean(CommonConfigurationKeys.USE_FIR)) {
             val extendedAnalysisMode = projectConfiguration.getBoolean(CommonConfigurationKeys.USE_FIR_EXTENDED_CHECKERS)
-            return compileModulesUsingFrontendIR(environment, buildFile, chunk, extendedAnalysisMode)
+            val useLightTree = projectConfiguration.getBoolean(CommonConfigurationKeys.USE_FIR_LIGHT_TREE)
+            return compileModulesUsingFrontendIR(environment, buildFile, chunk, extendedAnalysisMode, useLightTree)
         }
 
         val result = repeatAnalysisIfNeeded(analyze(environment), environment)
@@ -302,7 +306,8 @@ object KotlinToJVMBytecodeCompiler {
         environment: KotlinCoreEnvironment,
         buildFile: File?,
         chunk: List<Module>,
-        extendedAnalysisMode: Boolean
+        extendedAnalysisMode: Boolean,
+        useLightTree: Boolean
     ): Boolean {
         val project = environment.project
         val performanceManager = environment.configuration.get(CLIConfigurationKeys.PERF_MANAGER)
@@ -317,7 +322,8 @@ object KotlinToJVMBytecodeCompiler {
             ProgressIndicatorAndCompilationCanceledStatus.checkCanceled()
 
             val ktFiles = module.getSourceFiles(environment, localFileSystem, chunk.size > 1, buildFile)
-            if (!checkKotlinPackageUsage(environment, ktFiles)) return false
+            // with light trees, the package is checked on raw FIR, so that PSI is not built just for this
+            if (!useLightTree && !checkKotlinPackageUsage(environment, ktFiles)) return false
             val moduleConfiguration = projectConfiguration.applyModuleProperties(module, buildFile)
 
             val scope = GlobalSearchScope.filesScope(project, ktFiles.map { it.virtualFile })
@@ -355,26 +361,39 @@ object KotlinToJVMBytecodeCompiler {
                 )
             }
 
-            val firAnalyzerFacade = FirAnalyzerFacade(session, moduleConfiguration.languageVersionSettings, ktFiles)
+            val firAnalyzerFacade = FirAnalyzerFacade(session, moduleConfiguration.languageVersionSettings, ktFiles, useLightTree)
 
-            firAnalyzerFacade.runResolution()
-            val firDiagnostics = firAnalyzerFacade.runCheckers()
-            AnalyzerWithCompilerReport.reportDiagnostics(
-                SimpleDiagnostics(
-                    firDiagnostics.map { it.toRegularDiagnostic() }
-                ),
-                environment.messageCollector
-            )
-            performanceManager?.notifyAnalysisFinished()
+            val (moduleFragment, symbolTable, sourceManager, components) = try {
+                if (useLightTree) {
+                    val packageFqNames = firAnalyzerFacade.buildRawFir().associate { firAnalyzerFacade.getKtFile(it) to it.packageFqName }
+                    if (!checkKotlinPackageUsage(environment, packageFqNames)) return false
+                }
+                firAnalyzerFacade.runResolution()
+                val firDiagnostics = firAnalyzerFacade.runCheckers()
+                if (useLightTree) {
+                    reportLightTreeDiagnostics(firAnalyzerFacade, environment.messageCollector)
+                } else {
+                    AnalyzerWithCompilerReport.reportDiagnostics(
+                        SimpleDiagnostics(
+                            firDiagnostics.map { it.toRegularDiagnostic() }
+                        ),
+                        environment.messageCollector
+                    )
+                }
+                performanceManager?.notifyAnalysisFinished()
 
-            if (firDiagnostics.any { it.severity == Severity.ERROR }) {
-                return false
-            }
+                if (firDiagnostics.any { it.severity == Severity.ERROR }) {
+                    return false
+                }
 
-            performanceManager?.notifyGenerationStarted()
+                performanceManager?.notifyGenerationStarted()
 
-            performanceManager?.notifyIRTranslationStarted()
-            val (moduleFragment, symbolTable, sourceManager, components) = firAnalyzerFacade.convertToIr()
+                performanceManager?.notifyIRTranslationStarted()
+                firAnalyzerFacade.convertToIr()
+            } finally {
+                // gives the light trees back to the cache also when the module is not converted to IR
+                firAnalyzerFacade.releaseLightTrees()
+            }
 
             performanceManager?.notifyIRTranslationFinished()
 
@@ -439,30 +458,45 @@ object KotlinToJVMBytecodeCompiler {
         return writeOutputs(environment, projectConfiguration, chunk, outputs)
     }
 
-    private fun FirDiagnostic<*>.toRegularDiagnostic(): Diagnostic {
-        val psiSource = element as FirPsiSourceElement<*>
+    private fun FirDiagnostic<*>.toRegularDiagnostic(psi: PsiElement = (element as FirPsiSourceElement<*>).psi): Diagnostic {
         @Suppress("UNCHECKED_CAST")
         when (this) {
             is FirSimpleDiagnostic ->
                 return SimpleDiagnostic(
-                    psiSource.psi, factory.psiDiagnosticFactory as DiagnosticFactory0<PsiElement>, severity
+                    psi, factory.psiDiagnosticFactory as DiagnosticFactory0<PsiElement>, severity
                 )
             is FirDiagnosticWithParameters1<*, *> ->
                 return DiagnosticWithParameters1(
-                    psiSource.psi, this.a, factory.psiDiagnosticFactory as DiagnosticFactory1<PsiElement, Any>, severity
+                    psi, this.a, factory.psiDiagnosticFactory as DiagnosticFactory1<PsiElement, Any>, severity
                 )
             is FirDiagnosticWithParameters2<*, *, *> ->
                 return DiagnosticWithParameters2(
-                    psiSource.psi, this.a, this.b, factory.psiDiagnosticFactory as DiagnosticFactory2<PsiElement, Any, Any>, severity
+                    psi, this.a, this.b, factory.psiDiagnosticFactory as DiagnosticFactory2<PsiElement, Any, Any>, severity
                 )
             is FirDiagnosticWithParameters3<*, *, *, *> ->
                 return DiagnosticWithParameters3(
-                    psiSource.psi, this.a, this.b, this.c,
+                    psi, this.a, this.b, this.c,
                     factory.psiDiagnosticFactory as DiagnosticFactory3<PsiElement, Any, Any, Any>, severity
                 )
         }
     }
 
+    // Diagnostics on light tree sources have no PSI: they are rendered as if reported on the whole file,
+    // and located by their offsets in the document of the file, which does not require parsing it
+    private fun reportLightTreeDiagnostics(firAnalyzerFacade: FirAnalyzerFacade, messageCollector: MessageCollector) {
+        for ((firFile, diagnostics) in firAnalyzerFacade.runCheckersByFile()) {
+            val ktFile = firAnalyzerFacade.getKtFile(firFile)
+            for (diagnostic in diagnostics) {
+                val range = TextRange(diagnostic.element.startOffset, diagnostic.element.endOffset)
+                messageCollector.report(
+                    AnalyzerWithCompilerReport.convertSeverity(diagnostic.severity),
+                    DefaultErrorMessages.render(diagnostic.toRegularDiagnostic(ktFile)),
+                    MessageUtil.psiFileToMessageLocation(ktFile, "<no path>", DiagnosticUtils.getLineAndColumnRangeInPsiFile(ktFile, range))
+                )
+            }
+        }
+    }
+
     private fun getBuildFilePaths(buildFile: File?, sourceFilePaths: List<String>): List<String> =
         if (buildFile == null) sourceFilePaths
         else sourceFilePaths.map { path ->
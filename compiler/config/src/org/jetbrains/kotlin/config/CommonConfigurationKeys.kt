@@ -53,6 +53,9 @@ object CommonConfigurationKeys {
 
     @JvmField
     val USE_FIR_EXTENDED_CHECKERS = CompilerConfigurationKey.create<Boolean>("fir extended checkers")
+
+    @JvmField
+    val USE_FIR_LIGHT_TREE = CompilerConfigurationKey.create<Boolean>("front-end IR built from light trees")
 }
 
 var CompilerConfiguration.languageVersionSettings: LanguageVersionSettings
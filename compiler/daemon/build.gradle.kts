@@ -13,6 +13,7 @@ dependencies {
 
     compileOnly(project(":compiler:cli"))
     compileOnly(project(":compiler:cli-js"))
+    compileOnly(project(":compiler:fir:raw-fir:light-tree2fir"))
     compileOnly(project(":compiler:incremental-compilation-impl"))
     compileOnly(project(":daemon-common-new"))
 
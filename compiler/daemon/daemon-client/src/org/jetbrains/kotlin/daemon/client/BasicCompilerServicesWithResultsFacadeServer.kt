@@ -30,12 +30,16 @@ open class BasicCompilerServicesWithResultsFacadeServer(
         val messageCollector: MessageCollector,
         val outputsCollector: ((File, List<File>) -> Unit)? = null,
         port: Int = SOCKET_ANY_FREE_PORT
-) : CompilerServicesFacadeBase,
+) : CompilerServicesFacadeWithPackedReports,
     UnicastRemoteObject(port, LoopbackNetworkInterface.clientLoopbackSocketFactory, LoopbackNetworkInterface.serverLoopbackSocketFactory)
 {
     override fun report(category: Int, severity: Int, message: String?, attachment: Serializable?) {
         messageCollector.reportFromDaemon(outputsCollector, category, severity, message, attachment)
     }
+
+    override fun reportPacked(packedReports: ByteArray) {
+        reportFromPacked(packedReports)
+    }
 }
 
 fun MessageCollector.reportFromDaemon(outputsCollector: ((File, List<File>) -> Unit)?, category: Int, severity: Int, message: String?, attachment: Serializable?) {
@@ -74,6 +74,25 @@ open class CompilerCallbackServicesFacadeServer(
     override fun incrementalCache_getModuleMappingData(target: TargetId): ByteArray? =
         incrementalCompilationComponents!!.getIncrementalCache(target).getModuleMappingData()
 
+    override fun incrementalCache_getCompilationStartData(target: TargetId): IncrementalCacheCompilationStartData {
+        val cache = incrementalCompilationComponents!!.getIncrementalCache(target)
+        return IncrementalCacheCompilationStartData(
+            ArrayList(cache.getObsoletePackageParts()),
+            ArrayList(cache.getObsoleteMultifileClasses()),
+            cache.getModuleMappingData()
+        )
+    }
+
+    override fun incrementalCache_getMultifileFacadePartsData(target: TargetId, internalName: String): MultifileFacadePartsData? {
+        val cache = incrementalCompilationComponents!!.getIncrementalCache(target)
+        val partsInternalNames = cache.getStableMultifileFacadeParts(internalName) ?: return null
+        val partsData = HashMap<String, JvmPackagePartProto>()
+        for (partInternalName in partsInternalNames) {
+            cache.getPackagePartData(partInternalName)?.let { partsData[partInternalName] = it }
+        }
+        return MultifileFacadePartsData(ArrayList(partsInternalNames), partsData)
+    }
+
     // todo: remove (the method it called was relevant only for old IC)
     override fun incrementalCache_registerInline(target: TargetId, fromPath: String, jvmSignature: String, toPath: String) {
     }
@@ -95,6 +114,12 @@ open class CompilerCallbackServicesFacadeServer(
         }
     }
 
+    override fun lookupTracker_recordPacked(packedLookups: ByteArray) {
+        val lookupTracker = lookupTracker!!
+
+        readPackedLookups(packedLookups, lookupTracker::record)
+    }
+
     private val lookupTracker_isDoNothing: Boolean = lookupTracker === LookupTracker.DO_NOTHING
 
     override fun lookupTracker_isDoNothing(): Boolean = lookupTracker_isDoNothing
@@ -80,6 +80,19 @@ interface CompilerCallbackServicesFacade : Remote {
     @Throws(RemoteException::class)
     fun incrementalCache_getMultifileFacadeParts(target: TargetId, internalName: String): Collection<String>?
 
+    /**
+     * Returns obsolete package parts, obsolete multifile facades and module mapping data in one call
+     */
+    @Throws(RemoteException::class)
+    fun incrementalCache_getCompilationStartData(target: TargetId): IncrementalCacheCompilationStartData
+
+    /**
+     * Returns stable parts of the multifile facade together with their package part data in one call,
+     * or null if the facade is not known to the cache
+     */
+    @Throws(RemoteException::class)
+    fun incrementalCache_getMultifileFacadePartsData(target: TargetId, internalName: String): MultifileFacadePartsData?
+
     // ----------------------------------------------------
     // LookupTracker
     @Throws(RemoteException::class)
@@ -88,6 +101,12 @@ interface CompilerCallbackServicesFacade : Remote {
     @Throws(RemoteException::class)
     fun lookupTracker_record(lookups: Collection<LookupInfo>)
 
+    /**
+     * Records a batch of lookups encoded with [PackedLookupsWriter]
+     */
+    @Throws(RemoteException::class)
+    fun lookupTracker_recordPacked(packedLookups: ByteArray)
+
     @Throws(RemoteException::class)
     fun lookupTracker_isDoNothing(): Boolean
 
@@ -135,6 +154,27 @@ class CompiledPackagePart(
     val metadata: ByteArray, val binaryAst: ByteArray, val inlineData: ByteArray
 ) : Serializable
 
+class IncrementalCacheCompilationStartData(
+    val obsoletePackageParts: Collection<String>,
+    val obsoleteMultifileClassFacades: Collection<String>,
+    val moduleMappingData: ByteArray?
+) : Serializable {
+    companion object {
+        // just a random number, but should never be changed to avoid deserialization problems
+        private val serialVersionUID: Long = 61853902547730184L
+    }
+}
+
+class MultifileFacadePartsData(
+    val partsInternalNames: Collection<String>,
+    val partsData: Map<String, JvmPackagePartProto>
+) : Serializable {
+    companion object {
+        // just a random number, but should never be changed to avoid deserialization problems
+        private val serialVersionUID: Long = 39077430185541627L
+    }
+}
+
 class PackageMetadata(
     val packageName: String,
     val metadata: ByteArray
@@ -28,6 +28,22 @@ interface CompilerServicesFacadeBase : Remote {
     fun report(category: Int, severity: Int, message: String?, attachment: Serializable?)
 }
 
+/**
+ * Optional extension of [CompilerServicesFacadeBase] for clients accepting reports in batches,
+ * so the daemon does not make a remote call per compiler message or output file
+ */
+interface CompilerServicesFacadeWithPackedReports : CompilerServicesFacadeBase {
+    /**
+     * Reports a batch of messages encoded with [PackedReportsWriter], in the order they were added
+     */
+    @Throws(RemoteException::class)
+    fun reportPacked(packedReports: ByteArray)
+}
+
+fun CompilerServicesFacadeBase.reportFromPacked(packedReports: ByteArray) {
+    readPackedReports(packedReports, this::report)
+}
+
 enum class ReportCategory(val code: Int) {
     COMPILER_MESSAGE(0),
     EXCEPTION(1),
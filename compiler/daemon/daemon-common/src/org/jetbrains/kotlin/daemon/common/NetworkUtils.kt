@@ -20,6 +20,8 @@ import java.io.IOException
 import java.io.Serializable
 import java.net.*
 import java.rmi.RemoteException
+import java.rmi.ServerException
+import java.rmi.UnmarshalException
 import java.rmi.registry.LocateRegistry
 import java.rmi.registry.Registry
 import java.rmi.server.RMIClientSocketFactory
@@ -129,3 +131,10 @@ fun ensureServerHostnameIsSetUp() {
         System.setProperty(JAVA_RMI_SERVER_HOSTNAME, LoopbackNetworkInterface.loopbackInetAddressName)
     }
 }
+
+/**
+ * Whether a remote call was rejected because the remote object doesn't have the called method, e.g. it is built by an older version.
+ * The server fails to dispatch such a call with [UnmarshalException], which reaches the caller wrapped into [ServerException];
+ * an [UnmarshalException] thrown on the caller side itself means a broken connection instead.
+ */
+fun RemoteException.isUnsupportedRemoteMethod(): Boolean = this is ServerException && cause is UnmarshalException
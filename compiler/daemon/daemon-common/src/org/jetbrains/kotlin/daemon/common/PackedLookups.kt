@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon.common
+
+import org.jetbrains.kotlin.incremental.components.Position
+import org.jetbrains.kotlin.incremental.components.ScopeKind
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+
+/**
+ * Compact binary encoding of a batch of lookups, used to stream lookups from the daemon to the client
+ * instead of sending them as serialized [org.jetbrains.kotlin.incremental.components.LookupInfo] objects.
+ *
+ * A batch is self-contained: a table of distinct strings followed by lookup records,
+ * each record being the indices of file path, scope and name in the table, the scope kind, and optionally the position.
+ */
+class PackedLookupsWriter(private val withPositions: Boolean) {
+    private val strings = LinkedHashMap<String, Int>()
+    private val recordsBytes = ByteArrayOutputStream()
+    private val records = DataOutputStream(recordsBytes)
+
+    var size: Int = 0
+        private set
+
+    fun add(filePath: String, position: Position, scopeFqName: String, scopeKind: ScopeKind, name: String) {
+        records.writeInt(stringIndex(filePath))
+        records.writeInt(stringIndex(scopeFqName))
+        records.writeInt(stringIndex(name))
+        records.writeByte(scopeKind.ordinal)
+        if (withPositions) {
+            records.writeInt(position.line)
+            records.writeInt(position.column)
+        }
+        size++
+    }
+
+    fun toByteArray(): ByteArray {
+        val bytes = ByteArrayOutputStream(recordsBytes.size() + strings.size * 32)
+        DataOutputStream(bytes).use { output ->
+            output.writeInt(FORMAT_VERSION)
+            output.writeBoolean(withPositions)
+            output.writeInt(strings.size)
+            for (string in strings.keys) {
+                val stringBytes = string.toByteArray(Charsets.UTF_8)
+                output.writeInt(stringBytes.size)
+                output.write(stringBytes)
+            }
+            output.writeInt(size)
+            recordsBytes.writeTo(output)
+        }
+        return bytes.toByteArray()
+    }
+
+    fun clear() {
+        strings.clear()
+        recordsBytes.reset()
+        size = 0
+    }
+
+    private fun stringIndex(string: String): Int = strings.getOrPut(string) { strings.size }
+
+    companion object {
+        const val FORMAT_VERSION = 1
+    }
+}
+
+fun readPackedLookups(
+    bytes: ByteArray,
+    consumer: (filePath: String, position: Position, scopeFqName: String, scopeKind: ScopeKind, name: String) -> Unit
+) {
+    DataInputStream(ByteArrayInputStream(bytes)).use { input ->
+        val version = input.readInt()
+        check(version == PackedLookupsWriter.FORMAT_VERSION) { "Unsupported packed lookups format version: $version" }
+        val withPositions = input.readBoolean()
+        val strings = Array(input.readInt()) {
+            val stringBytes = ByteArray(input.readInt())
+            input.readFully(stringBytes)
+            String(stringBytes, Charsets.UTF_8)
+        }
+        val scopeKinds = ScopeKind.values()
+        repeat(input.readInt()) {
+            val filePath = strings[input.readInt()]
+            val scopeFqName = strings[input.readInt()]
+            val name = strings[input.readInt()]
+            val scopeKind = scopeKinds[input.readByte().toInt()]
+            val position = if (withPositions) Position(input.readInt(), input.readInt()) else Position.NO_POSITION
+            consumer(filePath, position, scopeFqName, scopeKind, name)
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon.common
+
+import org.jetbrains.kotlin.cli.common.messages.CompilerMessageLocationWithRange
+import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSourceLocation
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.Serializable
+
+/**
+ * Compact binary encoding of a batch of [CompilerServicesFacadeBase.report] calls,
+ * sent with [CompilerServicesFacadeWithPackedReports.reportPacked] in one remote call.
+ *
+ * Only reports without attachment or with a [CompilerMessageSourceLocation] attachment can be packed, see [canPack].
+ */
+class PackedReportsWriter {
+    private val bytes = ByteArrayOutputStream()
+    private val output = DataOutputStream(bytes)
+
+    var size: Int = 0
+        private set
+
+    val byteSize: Int
+        get() = bytes.size()
+
+    fun canPack(attachment: Serializable?): Boolean =
+        attachment == null || attachment is CompilerMessageSourceLocation
+
+    fun add(category: Int, severity: Int, message: String?, attachment: Serializable?) {
+        require(canPack(attachment)) { "Unsupported report attachment: $attachment" }
+
+        output.writeInt(category)
+        output.writeInt(severity)
+        output.writeNullableString(message)
+        val location = attachment as CompilerMessageSourceLocation?
+        output.writeBoolean(location != null)
+        if (location != null) {
+            output.writeString(location.path)
+            output.writeInt(location.line)
+            output.writeInt(location.column)
+            output.writeInt(location.lineEnd)
+            output.writeInt(location.columnEnd)
+            output.writeNullableString(location.lineContent)
+        }
+        size++
+    }
+
+    fun toByteArray(): ByteArray {
+        val result = ByteArrayOutputStream(bytes.size() + 8)
+        DataOutputStream(result).use {
+            it.writeInt(FORMAT_VERSION)
+            it.writeInt(size)
+            bytes.writeTo(it)
+        }
+        return result.toByteArray()
+    }
+
+    fun clear() {
+        bytes.reset()
+        size = 0
+    }
+
+    private fun DataOutputStream.writeString(string: String) {
+        val stringBytes = string.toByteArray(Charsets.UTF_8)
+        writeInt(stringBytes.size)
+        write(stringBytes)
+    }
+
+    private fun DataOutputStream.writeNullableString(string: String?) {
+        writeBoolean(string != null)
+        if (string != null) writeString(string)
+    }
+
+    companion object {
+        const val FORMAT_VERSION = 1
+    }
+}
+
+fun readPackedReports(bytes: ByteArray, consumer: (category: Int, severity: Int, message: String?, attachment: Serializable?) -> Unit) {
+    DataInputStream(ByteArrayInputStream(bytes)).use { input ->
+        val version = input.readInt()
+        check(version == PackedReportsWriter.FORMAT_VERSION) { "Unsupported packed reports format version: $version" }
+
+        fun readString(): String {
+            val stringBytes = ByteArray(input.readInt())
+            input.readFully(stringBytes)
+            return String(stringBytes, Charsets.UTF_8)
+        }
+
+        fun readNullableString(): String? = if (input.readBoolean()) readString() else null
+
+        repeat(input.readInt()) {
+            val category = input.readInt()
+            val severity = input.readInt()
+            val message = readNullableString()
+            val location = if (input.readBoolean()) {
+                CompilerMessageLocationWithRange.create(
+                    path = readString(),
+                    lineStart = input.readInt(),
+                    columnStart = input.readInt(),
+                    lineEnd = input.readInt(),
+                    columnEnd = input.readInt(),
+                    lineContent = readNullableString()
+                )
+            } else null
+            consumer(category, severity, message, location)
+        }
+    }
+}
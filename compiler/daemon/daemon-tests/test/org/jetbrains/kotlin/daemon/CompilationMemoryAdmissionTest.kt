@@ -0,0 +1,222 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon
+
+import com.intellij.openapi.util.io.FileUtil
+import junit.framework.TestCase
+import org.jetbrains.kotlin.cli.common.arguments.K2JVMCompilerArguments
+import java.io.File
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+
+class CompilationMemoryAdmissionTest : TestCase() {
+    private var liveBytes = 0L
+    private var gcCount = 0L
+    private var cacheTrims = 0
+
+    // With the initial estimate of 1000 bytes of heap per byte of sources on top of 64 mb, and the budget of 80% of the heap,
+    // two compilations of SMALL size fit into the heap of HEAP_SIZE, but the third one doesn't
+    private fun createAdmission(maxWaitMs: Long = TimeUnit.MINUTES.toMillis(1)) =
+        CompilationMemoryAdmission(
+            trimCaches = { cacheTrims++ },
+            maxMemory = HEAP_SIZE,
+            maxWaitMs = maxWaitMs,
+            heapState = { CompilationMemoryAdmission.HeapState(liveBytes, gcCount) }
+        )
+
+    fun testAdmitsIntoIdleDaemonEvenIfOverBudget() {
+        val admission = createAdmission()
+
+        val result = admission.withAdmission(sourceBytes = 10 * HEAP_SIZE) { admission.statistics().running }
+
+        assertEquals(1, result)
+        val statistics = admission.statistics()
+        assertEquals(1, statistics.admitted)
+        assertEquals(0, statistics.delayed)
+        assertEquals(0, statistics.running)
+        assertEquals(0, statistics.reservedBytes)
+    }
+
+    fun testAdmitsConcurrentCompilationsWithinBudget() {
+        val admission = createAdmission()
+
+        withRunningCompilation(admission, SMALL) {
+            val running = admission.withAdmission(SMALL) { admission.statistics().running }
+            assertEquals(2, running)
+        }
+        assertEquals(0, admission.statistics().delayed)
+    }
+
+    fun testWaitsUntilRunningCompilationsFinish() {
+        val admission = createAdmission()
+        val admitted = CountDownLatch(1)
+
+        lateinit var waiting: Thread
+        withRunningCompilation(admission, SMALL) {
+            withRunningCompilation(admission, SMALL) {
+                waiting = thread {
+                    admission.withAdmission(SMALL) { admitted.countDown() }
+                }
+                waitFor { admission.statistics().queued == 1 }
+                assertFalse("Compilation exceeding the budget is admitted", admitted.await(100, TimeUnit.MILLISECONDS))
+            }
+            // one compilation has finished, so the queued one fits now
+            assertTrue("Queued compilation is not admitted", admitted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        }
+        waiting.join()
+
+        val statistics = admission.statistics()
+        assertEquals(3, statistics.admitted)
+        assertEquals(1, statistics.delayed)
+        assertEquals(0, statistics.admittedAfterTimeout)
+        // the delayed compilation was admitted while another one was running, so the caches are still in use
+        assertEquals(0, cacheTrims)
+    }
+
+    fun testTrimsCachesBeforeDelayedCompilationInIdleDaemon() {
+        val admission = createAdmission()
+
+        lateinit var waiting: Thread
+        withRunningCompilation(admission, 10 * HEAP_SIZE) {
+            waiting = thread {
+                admission.withAdmission(10 * HEAP_SIZE) {}
+            }
+            waitFor { admission.statistics().queued == 1 }
+            assertEquals(0, cacheTrims)
+        }
+        waiting.join()
+
+        assertEquals(1, admission.statistics().delayed)
+        assertEquals(1, cacheTrims)
+    }
+
+    fun testAdmitsAfterTimeout() {
+        val admission = createAdmission(maxWaitMs = 100)
+
+        withRunningCompilation(admission, 10 * HEAP_SIZE) {
+            val running = admission.withAdmission(10 * HEAP_SIZE) { admission.statistics().running }
+            assertEquals(2, running)
+        }
+
+        val statistics = admission.statistics()
+        assertEquals(1, statistics.delayed)
+        assertEquals(1, statistics.admittedAfterTimeout)
+        assertTrue("Unexpected delay: ${statistics.totalDelayMs} ms", statistics.totalDelayMs >= 100)
+    }
+
+    fun testLearnsOnlyFromCompilationsWithGC() {
+        val admission = createAdmission()
+        val initialEstimate = admission.statistics().bytesPerSourceByte
+
+        // the live heap changes without GC are not trusted
+        admission.withAdmission(1000) { liveBytes += 100 * MB }
+        assertEquals(initialEstimate, admission.statistics().bytesPerSourceByte)
+
+        liveBytes = 0
+        admission.withAdmission(1000) {
+            liveBytes += 100 * MB
+            gcCount++
+        }
+        val learnedEstimate = admission.statistics().bytesPerSourceByte
+        assertTrue("Estimate is not increased: $learnedEstimate", learnedEstimate > initialEstimate)
+
+        // compilations running concurrently are not measured either
+        liveBytes = 0
+        withRunningCompilation(admission, SMALL) {
+            admission.withAdmission(1000) {
+                liveBytes += 1000 * MB
+                gcCount++
+            }
+        }
+        assertEquals(learnedEstimate, admission.statistics().bytesPerSourceByte)
+    }
+
+    fun testMeasuresIdleHeapAfterGC() {
+        val admission = createAdmission()
+        val initialBudget = admission.statistics().heapBudgetBytes
+
+        // no GC since the daemon became idle, the live heap may still include a compilation
+        liveBytes = 500 * MB
+        admission.withAdmission(SMALL) {}
+        assertEquals(initialBudget, admission.statistics().heapBudgetBytes)
+
+        gcCount++
+        admission.withAdmission(SMALL) {
+            // GCs during compilations don't measure the idle heap
+            liveBytes = 900 * MB
+            gcCount++
+        }
+        assertEquals((500 * MB * HEAP_BUDGET_FRACTION).toLong(), admission.statistics().heapBudgetBytes)
+
+        // the idle heap may grow as well as shrink, e.g. when caches are filled or trimmed
+        liveBytes = 300 * MB
+        gcCount++
+        admission.withAdmission(SMALL) {}
+        assertEquals((700 * MB * HEAP_BUDGET_FRACTION).toLong(), admission.statistics().heapBudgetBytes)
+    }
+
+    fun testSourcesSize() {
+        val dir = FileUtil.createTempDirectory("sourcesSize", null)
+        try {
+            val sources = File(dir, "src").apply { mkdirs() }
+            File(sources, "a.kt").writeText("fun a() {}")
+            File(sources, "nested/b.java").apply { parentFile.mkdirs() }.writeText("class B {}")
+            File(sources, "c.txt").writeText("not a source")
+            val script = File(dir, "d.kts").apply { writeText("println()") }
+            val expectedSize = "fun a() {}".length + "class B {}".length
+
+            assertEquals(expectedSize.toLong(), CompilationMemoryAdmission.sourcesSize(listOf(sources.path)))
+            // sizing stops at the first file reaching the limit, both sources are of the same size
+            assertEquals(expectedSize / 2L, CompilationMemoryAdmission.sourcesSize(listOf(sources.path), limit = 1))
+
+            val admission = createAdmission()
+            val arguments = K2JVMCompilerArguments().apply { freeArgs = listOf(sources.path, script.path) }
+            assertEquals(expectedSize.toLong() + script.length(), admission.sourcesSize(arguments))
+
+            // JPS passes sources in the build file, which isn't parsed just to size them
+            arguments.buildFile = File(dir, "build.xml").path
+            assertEquals(CompilationMemoryAdmission.UNKNOWN_SOURCES_SIZE, admission.sourcesSize(arguments))
+            assertEquals(1, admission.withAdmission(CompilationMemoryAdmission.UNKNOWN_SOURCES_SIZE) { admission.statistics().running })
+        } finally {
+            FileUtil.delete(dir)
+        }
+    }
+
+    private fun withRunningCompilation(admission: CompilationMemoryAdmission, sourceBytes: Long, body: () -> Unit) {
+        val started = CountDownLatch(1)
+        val finish = CountDownLatch(1)
+        val compilation = thread {
+            admission.withAdmission(sourceBytes) {
+                started.countDown()
+                finish.await()
+            }
+        }
+        try {
+            assertTrue("Compilation is not started", started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            body()
+        } finally {
+            finish.countDown()
+            compilation.join()
+        }
+    }
+
+    private fun waitFor(condition: () -> Boolean) {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS)
+        while (!condition()) {
+            assertTrue("Condition is not met in $TIMEOUT_SECONDS s", System.nanoTime() < deadline)
+            Thread.sleep(10)
+        }
+    }
+
+    companion object {
+        private const val MB = 1024L * 1024
+        private const val HEAP_SIZE = 1000 * MB
+        private const val SMALL = 300_000L
+        private const val HEAP_BUDGET_FRACTION = 0.8
+        private const val TIMEOUT_SECONDS = 10L
+    }
+}
@@ -828,6 +828,32 @@ class CompilerDaemonTest : KotlinIntegrationTestBase() {
         }
     }
 
+    fun testDaemonReplMessagesAreDelivered() {
+        withDaemon(compilerWithScriptingId) { daemon ->
+            val messageCollector = TestMessageCollector()
+            val missingClasspathEntry = File(testTempDir, "missing")
+            val repl = KotlinRemoteReplCompilerClient(daemon, null, CompileService.TargetPlatform.JVM,
+                                                      emptyArray(),
+                                                      messageCollector,
+                                                      classpathFromClassloader() + missingClasspathEntry,
+                                                      ScriptWithNoParam::class.qualifiedName!!)
+            try {
+                // the REPL environment is created with the first state, the message is expected right after the call
+                val compilerState = repl.createState()
+                val expectedMessage = "points to a non-existent location: $missingClasspathEntry"
+                TestCase.assertTrue(
+                    "Expecting \"$expectedMessage\" in:\n$messageCollector",
+                    messageCollector.messages.any { it.message.contains(expectedMessage) }
+                )
+
+                val res = repl.compile(compilerState, ReplCodeLine(0, 0, "val x = 5"))
+                TestCase.assertTrue("Unexpected compile result: $res", res is ReplCompileResult.CompiledClasses)
+            } finally {
+                repl.dispose()
+            }
+        }
+    }
+
     private fun doReplTestWithLocalEval(replCompiler: KotlinRemoteReplCompilerClient, localEvaluator: ReplEvaluator) {
 
         val compilerState = replCompiler.createState()
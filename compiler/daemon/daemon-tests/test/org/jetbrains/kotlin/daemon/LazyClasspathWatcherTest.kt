@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon
+
+import com.intellij.openapi.util.io.FileUtil
+import junit.framework.TestCase
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+class LazyClasspathWatcherTest : TestCase() {
+    private lateinit var classpathDir: File
+    private lateinit var classFile: File
+    private lateinit var jarFile: File
+
+    override fun setUp() {
+        super.setUp()
+        classpathDir = FileUtil.createTempDirectory("classpathWatcher", null)
+        classFile = File(classpathDir, "classes/a/A.class").apply { parentFile.mkdirs() }
+        classFile.writeText("class A")
+        jarFile = File(classpathDir, "lib.jar")
+        jarFile.writeText("jar contents")
+    }
+
+    override fun tearDown() {
+        FileUtil.delete(classpathDir)
+        super.tearDown()
+    }
+
+    private fun createWatcher(digestCheckPeriod: Long = TimeUnit.HOURS.toMillis(1)) =
+        LazyClasspathWatcher(listOf(File(classpathDir, "classes").path, jarFile.path), checkPeriod = 0, digestCheckPeriod = digestCheckPeriod)
+
+    fun testUnchangedClasspath() {
+        val watcher = createWatcher(digestCheckPeriod = 0)
+        assertFalse(watcher.isChanged)
+        Thread.sleep(10)
+        assertFalse(watcher.isChanged)
+    }
+
+    fun testModifiedFileIsDetected() {
+        val watcher = createWatcher()
+        assertFalse(watcher.isChanged)
+
+        jarFile.writeText("changed jar contents")
+
+        waitUntilChanged(watcher)
+    }
+
+    fun testDeletedFileIsDetected() {
+        val watcher = createWatcher()
+        assertFalse(watcher.isChanged)
+
+        classFile.delete()
+
+        waitUntilChanged(watcher)
+    }
+
+    fun testTouchedFileWithSameContentsIsNotChange() {
+        val watcher = createWatcher()
+        assertFalse(watcher.isChanged)
+
+        classFile.writeText("class A")
+        classFile.setLastModified(classFile.lastModified() + 10_000)
+
+        // waiting for the watch events to arrive, the file is rehashed then
+        Thread.sleep(500)
+        assertFalse(watcher.isChanged)
+    }
+
+    fun testChangeKeepingAttributesIsDetectedByPeriodicDigestCheck() {
+        val lastModified = classFile.lastModified()
+        val watcher = createWatcher(digestCheckPeriod = 0)
+        assertFalse(watcher.isChanged)
+
+        classFile.writeText("class B")
+        classFile.setLastModified(lastModified)
+
+        Thread.sleep(10)
+        assertTrue(watcher.isChanged)
+    }
+
+    private fun waitUntilChanged(watcher: LazyClasspathWatcher) {
+        // the watch service delivers events asynchronously
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10)
+        while (!watcher.isChanged) {
+            assertTrue("Classpath change is not detected", System.nanoTime() < deadline)
+            Thread.sleep(50)
+        }
+    }
+}
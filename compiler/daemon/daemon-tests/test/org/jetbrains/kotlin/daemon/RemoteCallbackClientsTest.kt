@@ -0,0 +1,279 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon
+
+import junit.framework.TestCase
+import org.jetbrains.kotlin.daemon.client.CompilerCallbackServicesFacadeServer
+import org.jetbrains.kotlin.daemon.common.LoopbackNetworkInterface
+import org.jetbrains.kotlin.daemon.common.PackedLookupsWriter
+import org.jetbrains.kotlin.daemon.common.readPackedLookups
+import org.jetbrains.kotlin.incremental.components.LookupInfo
+import org.jetbrains.kotlin.incremental.components.LookupTracker
+import org.jetbrains.kotlin.incremental.components.Position
+import org.jetbrains.kotlin.incremental.components.ScopeKind
+import org.jetbrains.kotlin.load.kotlin.incremental.components.IncrementalCache
+import org.jetbrains.kotlin.load.kotlin.incremental.components.IncrementalCompilationComponents
+import org.jetbrains.kotlin.load.kotlin.incremental.components.JvmPackagePartProto
+import org.jetbrains.kotlin.modules.TargetId
+import java.lang.reflect.Proxy
+import java.rmi.Remote
+import java.rmi.RemoteException
+import java.rmi.server.RemoteObjectInvocationHandler
+import java.rmi.server.UnicastRemoteObject
+
+@Suppress("DEPRECATION")
+private typealias CallbackServicesFacade = org.jetbrains.kotlin.daemon.common.CompilerCallbackServicesFacade
+
+/**
+ * Checks the callbacks from the daemon to the client over RMI, including clients built before the batched calls were introduced.
+ */
+class RemoteCallbackClientsTest : TestCase() {
+    private val exportedObjects = ArrayList<Remote>()
+
+    override fun tearDown() {
+        exportedObjects.forEach { UnicastRemoteObject.unexportObject(it, true) }
+        super.tearDown()
+    }
+
+    fun testPackedLookupsRoundTrip() {
+        for (withPositions in listOf(true, false)) {
+            val lookups = sampleLookups(withPositions)
+            val writer = PackedLookupsWriter(withPositions)
+
+            // batches are self-contained, so the second one must not depend on the strings of the first one
+            val batches = lookups.chunked(3).map { batch ->
+                batch.forEach { writer.add(it.filePath, it.position, it.scopeFqName, it.scopeKind, it.name) }
+                writer.toByteArray().also { writer.clear() }
+            }
+
+            val decoded = ArrayList<LookupInfo>()
+            for (batch in batches) {
+                readPackedLookups(batch) { filePath, position, scopeFqName, scopeKind, name ->
+                    decoded.add(LookupInfo(filePath, position, scopeFqName, scopeKind, name))
+                }
+            }
+            assertEquals(lookups, decoded)
+        }
+    }
+
+    fun testLookupsAreSentPacked() {
+        val tracker = RecordingLookupTracker(requiresPosition = true)
+        val facade = exportCurrentFacade(CompilerCallbackServicesFacadeServer(lookupTracker = tracker))
+
+        assertEquals(sampleLookups(withPositions = true), recordOnDaemon(facade))
+        assertEquals(sampleLookups(withPositions = true), tracker.lookups)
+        assertEquals(0, tracker.unpackedCalls)
+    }
+
+    fun testLookupsFallBackToUnpackedForOlderClients() {
+        val server = FacadeWithoutPackedLookups(RecordingLookupTracker(requiresPosition = false))
+        val facade = exportAsCurrentFacade(server)
+
+        assertEquals(sampleLookups(withPositions = false), recordOnDaemon(facade))
+        assertEquals(sampleLookups(withPositions = false), server.tracker.lookups)
+        assertTrue(server.tracker.unpackedCalls > 0)
+    }
+
+    fun testIncrementalCacheBulkRequestsReturnSameData() {
+        val cache = TestIncrementalCache()
+        val components = object : IncrementalCompilationComponents {
+            override fun getIncrementalCache(target: TargetId): IncrementalCache = cache
+        }
+        val bulkClient = RemoteIncrementalCacheClient(
+            exportCurrentFacade(CompilerCallbackServicesFacadeServer(incrementalCompilationComponents = components)), TARGET
+        )
+        val perItemClient = RemoteIncrementalCacheClient(exportAsCurrentFacade(IncrementalCacheFacadeWithoutBulkRequests(cache)), TARGET)
+
+        val expected = queryAll(cache)
+        // the second query is answered from the daemon side caches
+        assertEquals(expected, queryAll(bulkClient))
+        assertEquals(expected, queryAll(bulkClient))
+        assertEquals(expected, queryAll(perItemClient))
+        assertEquals(expected, queryAll(perItemClient))
+    }
+
+    fun testClosedIncrementalCacheIsNotReused() {
+        val cache = TestIncrementalCache()
+        val components = object : IncrementalCompilationComponents {
+            override fun getIncrementalCache(target: TargetId): IncrementalCache = cache
+        }
+        val client = RemoteIncrementalCompilationComponentsClient(
+            exportCurrentFacade(CompilerCallbackServicesFacadeServer(incrementalCompilationComponents = components))
+        )
+
+        val first = client.getIncrementalCache(TARGET)
+        assertSame(first, client.getIncrementalCache(TARGET))
+
+        first.close()
+        assertEquals(1, cache.closeCalls)
+        val second = client.getIncrementalCache(TARGET)
+        assertNotSame(first, second)
+        assertEquals(queryAll(cache), queryAll(second))
+    }
+
+    private fun queryAll(cache: IncrementalCache): List<String> {
+        val result = arrayListOf(
+            "obsolete package parts: ${cache.getObsoletePackageParts()}",
+            "obsolete multifile classes: ${cache.getObsoleteMultifileClasses()}",
+            "module mapping: ${cache.getModuleMappingData()?.toList()}"
+        )
+        for (facade in TestIncrementalCache.FACADES) {
+            result.add("$facade parts: ${cache.getStableMultifileFacadeParts(facade)}")
+        }
+        for (part in TestIncrementalCache.PARTS) {
+            val data = cache.getPackagePartData(part)
+            result.add("$part data: ${data?.data?.toList()} ${data?.strings?.toList()}")
+            result.add("$part class file: ${cache.getClassFilePath(part)}")
+        }
+        return result
+    }
+
+    // returns the lookups as recorded on the daemon side, the tracker of the client should receive the same ones
+    private fun recordOnDaemon(facade: CallbackServicesFacade): List<LookupInfo> {
+        val eventManager = EventManagerImpl()
+        val client = RemoteLookupTrackerClient(facade, eventManager)
+        val lookups = sampleLookups(client.requiresPosition)
+        for (lookup in lookups + lookups) {
+            client.record(lookup.filePath, lookup.position, lookup.scopeFqName, lookup.scopeKind, lookup.name)
+        }
+        eventManager.fireCompilationFinished()
+        return lookups
+    }
+
+    private fun sampleLookups(withPositions: Boolean): List<LookupInfo> =
+        (1..10).map { i ->
+            LookupInfo(
+                "/src/File${i % 3}.kt",
+                if (withPositions) Position(i, i * 2) else Position.NO_POSITION,
+                if (i % 2 == 0) "foo.bar" else "foo.Baz",
+                if (withPositions && i % 2 == 0) ScopeKind.PACKAGE else ScopeKind.CLASSIFIER,
+                "name$i"
+            )
+        }
+
+    private fun exportCurrentFacade(server: CompilerCallbackServicesFacadeServer): CallbackServicesFacade {
+        exportedObjects.add(server)
+        return UnicastRemoteObject.toStub(server) as CallbackServicesFacade
+    }
+
+    // Exports a server implementing only a part of the facade; calls of other methods fail as with a client built by an older version
+    private fun exportAsCurrentFacade(server: Remote): CallbackServicesFacade {
+        val stub = UnicastRemoteObject.exportObject(
+            server, 0, LoopbackNetworkInterface.clientLoopbackSocketFactory, LoopbackNetworkInterface.serverLoopbackSocketFactory
+        )
+        exportedObjects.add(server)
+        val ref = (Proxy.getInvocationHandler(stub) as RemoteObjectInvocationHandler).ref
+        return Proxy.newProxyInstance(
+            CallbackServicesFacade::class.java.classLoader, arrayOf(CallbackServicesFacade::class.java), RemoteObjectInvocationHandler(ref)
+        ) as CallbackServicesFacade
+    }
+
+    private class TestIncrementalCache : IncrementalCache {
+        override fun getObsoletePackageParts(): Collection<String> = listOf("a/ObsoleteKt", "b/ObsoleteKt")
+
+        override fun getObsoleteMultifileClasses(): Collection<String> = listOf("a/OldFacade")
+
+        override fun getStableMultifileFacadeParts(facadeInternalName: String): Collection<String>? =
+            if (facadeInternalName == "a/Facade") listOf("a/Facade__Part1Kt", "a/Facade__Part2Kt") else null
+
+        // the second part of the facade has no data to check that missing data is not mixed up with data that isn't requested yet
+        override fun getPackagePartData(partInternalName: String): JvmPackagePartProto? =
+            if (partInternalName == "a/Facade__Part2Kt" || partInternalName == "c/UnknownKt") null
+            else JvmPackagePartProto(partInternalName.toByteArray(), arrayOf(partInternalName, "strings"))
+
+        override fun getModuleMappingData(): ByteArray? = byteArrayOf(1, 2, 3)
+
+        override fun getClassFilePath(internalClassName: String): String = "/out/$internalClassName.class"
+
+        var closeCalls = 0
+
+        override fun close() {
+            closeCalls++
+        }
+
+        companion object {
+            val FACADES = listOf("a/Facade", "a/OldFacade", "b/NotFacade")
+            val PARTS = listOf("a/Facade__Part1Kt", "a/Facade__Part2Kt", "b/SingleKt", "c/UnknownKt")
+        }
+    }
+
+    interface IncrementalCacheFacadeWithoutBulkRequests : Remote {
+        @Throws(RemoteException::class)
+        fun incrementalCache_getObsoletePackageParts(target: TargetId): Collection<String>
+
+        @Throws(RemoteException::class)
+        fun incrementalCache_getObsoleteMultifileClassFacades(target: TargetId): Collection<String>
+
+        @Throws(RemoteException::class)
+        fun incrementalCache_getMultifileFacadeParts(target: TargetId, internalName: String): Collection<String>?
+
+        @Throws(RemoteException::class)
+        fun incrementalCache_getPackagePartData(target: TargetId, partInternalName: String): JvmPackagePartProto?
+
+        @Throws(RemoteException::class)
+        fun incrementalCache_getModuleMappingData(target: TargetId): ByteArray?
+
+        @Throws(RemoteException::class)
+        fun incrementalCache_getClassFilePath(target: TargetId, internalClassName: String): String
+
+        @Throws(RemoteException::class)
+        fun incrementalCache_close(target: TargetId)
+    }
+
+    private class IncrementalCacheFacadeWithoutBulkRequests(val cache: IncrementalCache) : IncrementalCacheFacadeWithoutBulkRequests {
+        override fun incrementalCache_getObsoletePackageParts(target: TargetId) = cache.getObsoletePackageParts()
+
+        override fun incrementalCache_getObsoleteMultifileClassFacades(target: TargetId) = cache.getObsoleteMultifileClasses()
+
+        override fun incrementalCache_getMultifileFacadeParts(target: TargetId, internalName: String) =
+            cache.getStableMultifileFacadeParts(internalName)
+
+        override fun incrementalCache_getPackagePartData(target: TargetId, partInternalName: String) =
+            cache.getPackagePartData(partInternalName)
+
+        override fun incrementalCache_getModuleMappingData(target: TargetId) = cache.getModuleMappingData()
+
+        override fun incrementalCache_getClassFilePath(target: TargetId, internalClassName: String) =
+            cache.getClassFilePath(internalClassName)
+
+        override fun incrementalCache_close(target: TargetId) = cache.close()
+    }
+
+    private class RecordingLookupTracker(override val requiresPosition: Boolean) : LookupTracker {
+        val lookups = ArrayList<LookupInfo>()
+        var unpackedCalls = 0
+
+        override fun record(filePath: String, position: Position, scopeFqName: String, scopeKind: ScopeKind, name: String) {
+            lookups.add(LookupInfo(filePath, position, scopeFqName, scopeKind, name))
+        }
+    }
+
+    interface LookupTrackerFacadeWithoutPackedLookups : Remote {
+        @Throws(RemoteException::class)
+        fun lookupTracker_requiresPosition(): Boolean
+
+        @Throws(RemoteException::class)
+        fun lookupTracker_record(lookups: Collection<LookupInfo>)
+
+        @Throws(RemoteException::class)
+        fun lookupTracker_isDoNothing(): Boolean
+    }
+
+    private class FacadeWithoutPackedLookups(val tracker: RecordingLookupTracker) : LookupTrackerFacadeWithoutPackedLookups {
+        override fun lookupTracker_requiresPosition(): Boolean = tracker.requiresPosition
+
+        override fun lookupTracker_record(lookups: Collection<LookupInfo>) {
+            tracker.unpackedCalls++
+            lookups.forEach { tracker.record(it.filePath, it.position, it.scopeFqName, it.scopeKind, it.name) }
+        }
+
+        override fun lookupTracker_isDoNothing(): Boolean = false
+    }
+
+    companion object {
+        private val TARGET = TargetId("test", "java-production")
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon
+
+import org.jetbrains.kotlin.cli.common.arguments.CommonCompilerArguments
+import org.jetbrains.kotlin.cli.common.arguments.K2JVMCompilerArguments
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantLock
+import java.util.logging.Logger
+import kotlin.concurrent.withLock
+
+/**
+ * Admission control for concurrent compilations on the daemon.
+ *
+ * Every compilation reserves an estimate of the heap it needs, computed from the size of its sources and the heap growth
+ * observed for previous compilations. If the reservations of the running compilations do not leave enough room for
+ * a new one, it waits until some of them finish, instead of making the daemon thrash in GC or fail with OOM.
+ * Before admitting a delayed compilation into an idle daemon, caches are trimmed with [trimCaches].
+ * A compilation is always admitted if nothing else is running, or after [maxWaitMs].
+ *
+ * The heap growth is measured on the live heap after GC, see [HeapState], so that it doesn't depend on how much garbage
+ * happens to be in the heap when a compilation starts or finishes. The heap retained by the daemon itself is measured
+ * the same way, by a GC that happened while no compilation was running.
+ */
+class CompilationMemoryAdmission(
+    private val trimCaches: () -> Unit,
+    private val maxMemory: Long = Runtime.getRuntime().maxMemory(),
+    private val maxWaitMs: Long = DEFAULT_MAX_WAIT_MS,
+    private val heapState: () -> HeapState = ::currentHeapState
+) {
+    /**
+     * Heap used after the most recent GC, and the total number of GCs so far.
+     * A difference of [liveBytes] is only meaningful if a GC happened in between, i.e. [gcCount] has changed.
+     */
+    class HeapState(val liveBytes: Long, val gcCount: Long)
+
+    class Statistics(
+        val running: Int,
+        val queued: Int,
+        val reservedBytes: Long,
+        val heapBudgetBytes: Long,
+        val bytesPerSourceByte: Double,
+        val admitted: Long,
+        val delayed: Long,
+        val totalDelayMs: Long,
+        val admittedAfterTimeout: Long,
+        val cacheTrims: Long
+    )
+
+    private val log by lazy { Logger.getLogger("compiler") }
+
+    private val lock = ReentrantLock()
+    private val compilationFinished = lock.newCondition()
+
+    private var running = 0
+    private var queued = 0
+    private var reservedBytes = 0L
+
+    // heap used by the daemon itself, measured by the latest GC that happened while no compilation was running
+    private var idleUsedBytes = 0L
+
+    // heap state when the daemon became idle, a GC after it measures the idle heap
+    private var heapWhenIdle: HeapState? = heapState()
+
+    // exponential moving average of the sizes of sources, used for compilations whose sources can't be sized cheaply
+    private var typicalSourceBytes = 0L
+
+    // exponential moving average of the heap growth per byte of sources, updated by compilations running alone
+    private var bytesPerSourceByte = INITIAL_BYTES_PER_SOURCE_BYTE
+
+    private var admittedCount = 0L
+    private var delayedCount = 0L
+    private var forcedCount = 0L
+    private var totalDelayMs = 0L
+    private var cacheTrimsCount = 0L
+
+    inline fun <R> withAdmission(sourceBytes: Long, body: () -> R): R {
+        val ticket = admit(sourceBytes)
+        try {
+            return body()
+        } finally {
+            release(ticket)
+        }
+    }
+
+    @PublishedApi
+    internal class Ticket(val sourceBytes: Long, val reservedBytes: Long, val heapAtStart: HeapState, val admissionNumber: Long, val isAlone: Boolean)
+
+    private fun estimate(sourceBytes: Long): Long =
+        (MIN_ESTIMATE_BYTES + bytesPerSourceByte * sourceBytes).toLong().coerceAtMost(heapBudget())
+
+    private fun heapBudget(): Long = ((maxMemory - idleUsedBytes) * HEAP_BUDGET_FRACTION).toLong().coerceAtLeast(MIN_ESTIMATE_BYTES)
+
+    // larger sources don't change the estimate, it's capped by the heap budget anyway
+    private fun sourcesSizeLimit(): Long = ((heapBudget() - MIN_ESTIMATE_BYTES) / bytesPerSourceByte).toLong() + 1
+
+    /**
+     * Size of the sources of the compilation with the given [arguments], or [UNKNOWN_SOURCES_SIZE] if they are passed in
+     * the build file, as JPS does. Sizing stops at the size for which the estimate already fills the whole heap budget.
+     */
+    fun sourcesSize(arguments: CommonCompilerArguments): Long {
+        if ((arguments as? K2JVMCompilerArguments)?.buildFile != null) return UNKNOWN_SOURCES_SIZE
+        return sourcesSize(arguments.freeArgs, lock.withLock { sourcesSizeLimit() })
+    }
+
+    @PublishedApi
+    internal fun admit(sourceBytes: Long): Ticket = lock.withLock {
+        if (running == 0) {
+            updateIdleUsedBytes()
+        }
+        val estimate = estimate(if (sourceBytes == UNKNOWN_SOURCES_SIZE) typicalSourceBytes else sourceBytes)
+        if (running > 0 && reservedBytes + estimate > heapBudget()) {
+            delayedCount++
+            queued++
+            val startTime = System.nanoTime()
+            val deadline = startTime + TimeUnit.MILLISECONDS.toNanos(maxWaitMs)
+            try {
+                while (running > 0 && reservedBytes + estimate > heapBudget()) {
+                    val remaining = deadline - System.nanoTime()
+                    if (remaining <= 0) {
+                        forcedCount++
+                        log.warning("Compilation needing ~${estimate.mb()} mb admitted after ${maxWaitMs} ms of waiting, reserved: ${reservedBytes.mb()} mb")
+                        break
+                    }
+                    compilationFinished.awaitNanos(remaining)
+                }
+            } finally {
+                queued--
+                totalDelayMs += TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+            }
+            if (running == 0) {
+                // safe to drop the caches here: no compilation is using them, and no other one can start while the lock is held
+                cacheTrimsCount++
+                trimCaches()
+            }
+        }
+
+        admittedCount++
+        running++
+        reservedBytes += estimate
+        Ticket(sourceBytes, estimate, heapState(), admittedCount, isAlone = running == 1)
+    }
+
+    @PublishedApi
+    internal fun release(ticket: Ticket) = lock.withLock {
+        running--
+        reservedBytes -= ticket.reservedBytes
+
+        if (ticket.sourceBytes > 0) {
+            typicalSourceBytes = (typicalSourceBytes * (1 - HISTORY_WEIGHT) + ticket.sourceBytes * HISTORY_WEIGHT).toLong()
+        }
+
+        // only compilations that did not overlap with others and whose sources were sized completely give a meaningful measurement
+        if (ticket.isAlone && running == 0 && admittedCount == ticket.admissionNumber && ticket.sourceBytes in 1 until sourcesSizeLimit()) {
+            val heapAtEnd = heapState()
+            val observedBytes = heapAtEnd.liveBytes - ticket.heapAtStart.liveBytes
+            if (heapAtEnd.gcCount != ticket.heapAtStart.gcCount && observedBytes > 0) {
+                val observedBytesPerSourceByte = observedBytes.toDouble() / ticket.sourceBytes
+                bytesPerSourceByte = bytesPerSourceByte * (1 - HISTORY_WEIGHT) + observedBytesPerSourceByte * HISTORY_WEIGHT
+            }
+        }
+        if (running == 0) {
+            heapWhenIdle = heapState()
+        }
+
+        compilationFinished.signalAll()
+    }
+
+    private fun updateIdleUsedBytes() {
+        val idleSince = heapWhenIdle ?: return
+        val heap = heapState()
+        // without a GC since the daemon became idle the live heap still includes the last compilation
+        if (heap.gcCount != idleSince.gcCount) {
+            idleUsedBytes = heap.liveBytes
+            heapWhenIdle = null
+        }
+    }
+
+    fun statistics(): Statistics = lock.withLock {
+        Statistics(
+            running, queued, reservedBytes, heapBudget(), bytesPerSourceByte,
+            admittedCount, delayedCount, totalDelayMs, forcedCount, cacheTrimsCount
+        )
+    }
+
+    fun describe(): String = with(statistics()) {
+        "compilations running: $running, queued: $queued, reserved: ${reservedBytes.mb()} mb of ${heapBudgetBytes.mb()} mb budget " +
+                "(max heap: ${maxMemory.mb()} mb, estimated heap per source byte: ${bytesPerSourceByte.toLong()} bytes); " +
+                "admitted: $admitted, delayed: $delayed (total ${totalDelayMs} ms), admitted after timeout: $admittedAfterTimeout, " +
+                "cache trims: $cacheTrims"
+    }
+
+    private fun Long.mb() = this / (1024 * 1024)
+
+    companion object {
+        private const val DEFAULT_MAX_WAIT_MS = 120_000L
+        private const val MIN_ESTIMATE_BYTES = 64L * 1024 * 1024
+        private const val INITIAL_BYTES_PER_SOURCE_BYTE = 1000.0
+        private const val HEAP_BUDGET_FRACTION = 0.8
+        private const val HISTORY_WEIGHT = 0.3
+
+        const val UNKNOWN_SOURCES_SIZE = -1L
+
+        private val SOURCE_EXTENSIONS = setOf("kt", "kts", "java")
+
+        fun currentHeapState(): HeapState = HeapState(
+            liveBytes = ManagementFactory.getMemoryPoolMXBeans()
+                .filter { it.type == MemoryType.HEAP && it.isValid }
+                .map { it.collectionUsage?.used ?: 0L }
+                .sum(),
+            gcCount = ManagementFactory.getGarbageCollectorMXBeans().map { it.collectionCount.coerceAtLeast(0L) }.sum()
+        )
+
+        /**
+         * Size of the source files in [paths], or the first size reaching [limit] if they are larger
+         */
+        fun sourcesSize(paths: Iterable<String>, limit: Long = Long.MAX_VALUE): Long {
+            var size = 0L
+            for (file in paths.asSequence().flatMap { File(it).walk() }) {
+                if (file.isFile && file.extension in SOURCE_EXTENSIONS) {
+                    size += file.length()
+                    if (size >= limit) break
+                }
+            }
+            return size
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.jetbrains.kotlin.cli.metadata.K2MetadataCompiler
 import org.jetbrains.kotlin.config.Services
 import org.jetbrains.kotlin.daemon.common.*
 import org.jetbrains.kotlin.daemon.report.*
+import org.jetbrains.kotlin.fir.lightTree.LightTreeCache
 import org.jetbrains.kotlin.incremental.*
 import org.jetbrains.kotlin.incremental.components.ExpectActualTracker
 import org.jetbrains.kotlin.incremental.components.LookupTracker
@@ -51,6 +52,7 @@ import org.jetbrains.kotlin.load.kotlin.incremental.components.IncrementalCompil
 import org.jetbrains.kotlin.progress.CompilationCanceledStatus
 import java.io.BufferedOutputStream
 import java.io.File
+import java.io.Flushable
 import java.io.PrintStream
 import java.rmi.NoSuchObjectException
 import java.rmi.registry.Registry
@@ -123,6 +125,10 @@ abstract class CompileServiceImplBase(
 
     protected val classpathWatcher = LazyClasspathWatcher(compilerId.compilerClasspath)
 
+    protected val memoryAdmission = CompilationMemoryAdmission(trimCaches = { trimCachesOnMemoryPressure() })
+
+    protected open fun trimCachesOnMemoryPressure() {}
+
     enum class Aliveness {
         // !!! ordering of values is used in state comparison
         Dying,
@@ -286,10 +292,13 @@ abstract class CompileServiceImplBase(
         createMessageCollector: (ServicesFacadeT, CompilationOptions) -> MessageCollector,
         createReporter: (ServicesFacadeT, CompilationOptions) -> DaemonMessageReporter,
         createServices: (JpsServicesFacadeT, EventManager, Profiler) -> Services,
-        getICReporter: (ServicesFacadeT, CompilationResultsT?, IncrementalCompilationOptions) -> RemoteICReporter
+        getICReporter: (ServicesFacadeT, CompilationResultsT?, IncrementalCompilationOptions) -> RemoteICReporter,
+        // all reports of the compilation are sent through the returned facade, it's flushed at the end if it's Flushable
+        wrapReports: (ServicesFacadeT) -> ServicesFacadeT = { it }
     ) = kotlin.run {
-        val messageCollector = createMessageCollector(servicesFacade, compilationOptions)
-        val daemonReporter = createReporter(servicesFacade, compilationOptions)
+        val reportsFacade = wrapReports(servicesFacade)
+        val messageCollector = createMessageCollector(reportsFacade, compilationOptions)
+        val daemonReporter = createReporter(reportsFacade, compilationOptions)
         val targetPlatform = compilationOptions.targetPlatform
         log.info("Starting compilation with args: " + compilerArguments.joinToString(" "))
 
@@ -304,63 +313,77 @@ abstract class CompileServiceImplBase(
         parseCommandLineArguments(compilerArguments.asList(), k2PlatformArgs)
         val argumentParseError = validateArguments(k2PlatformArgs.errors)
 
-        if (argumentParseError != null) {
-            messageCollector.report(CompilerMessageSeverity.ERROR, argumentParseError)
-            CompileService.CallResult.Good(ExitCode.COMPILATION_ERROR.code)
-        } else when (compilationOptions.compilerMode) {
-            CompilerMode.JPS_COMPILER -> {
-                @Suppress("UNCHECKED_CAST")
-                servicesFacade as JpsServicesFacadeT
-                withIC(enabled = servicesFacade.hasIncrementalCaches()) {
-                    doCompile(sessionId, daemonReporter, tracer = null) { eventManger, profiler ->
-                        val services = createServices(servicesFacade, eventManger, profiler)
-                        compiler.exec(messageCollector, services, k2PlatformArgs)
-                    }
-                }
-            }
-            CompilerMode.NON_INCREMENTAL_COMPILER -> {
-                doCompile(sessionId, daemonReporter, tracer = null) { _, _ ->
-                    compiler.exec(messageCollector, Services.EMPTY, k2PlatformArgs)
-                }
-            }
-            CompilerMode.INCREMENTAL_COMPILER -> {
-                val gradleIncrementalArgs = compilationOptions as IncrementalCompilationOptions
-                val gradleIncrementalServicesFacade = servicesFacade
-
-                when (targetPlatform) {
-                    CompileService.TargetPlatform.JVM -> withIC {
-                        doCompile(sessionId, daemonReporter, tracer = null) { _, _ ->
-                            execIncrementalCompiler(
-                                k2PlatformArgs as K2JVMCompilerArguments,
-                                gradleIncrementalArgs,
-                                messageCollector,
-                                getICReporter(
-                                    gradleIncrementalServicesFacade,
-                                    compilationResults!!,
-                                    gradleIncrementalArgs
-                                )
-                            )
+        val sourcesSize = memoryAdmission.sourcesSize(k2PlatformArgs)
+        try {
+            if (argumentParseError != null) {
+                messageCollector.report(CompilerMessageSeverity.ERROR, argumentParseError)
+                CompileService.CallResult.Good(ExitCode.COMPILATION_ERROR.code)
+            } else memoryAdmission.withAdmission(sourcesSize) {
+                when (compilationOptions.compilerMode) {
+                    CompilerMode.JPS_COMPILER -> {
+                        @Suppress("UNCHECKED_CAST")
+                        servicesFacade as JpsServicesFacadeT
+                        withIC(enabled = servicesFacade.hasIncrementalCaches()) {
+                            doCompile(sessionId, daemonReporter, tracer = null) { eventManger, profiler ->
+                                val services = createServices(servicesFacade, eventManger, profiler)
+                                compiler.exec(messageCollector, services, k2PlatformArgs)
+                            }
                         }
                     }
-                    CompileService.TargetPlatform.JS -> withJsIC {
+                    CompilerMode.NON_INCREMENTAL_COMPILER -> {
                         doCompile(sessionId, daemonReporter, tracer = null) { _, _ ->
-                            execJsIncrementalCompiler(
-                                k2PlatformArgs as K2JSCompilerArguments,
-                                gradleIncrementalArgs,
-                                messageCollector,
-                                getICReporter(
-                                    gradleIncrementalServicesFacade,
-                                    compilationResults!!,
-                                    gradleIncrementalArgs
-                                )
-                            )
+                            compiler.exec(messageCollector, Services.EMPTY, k2PlatformArgs)
                         }
                     }
-                    else -> throw IllegalStateException("Incremental compilation is not supported for target platform: $targetPlatform")
+                    CompilerMode.INCREMENTAL_COMPILER -> {
+                        val gradleIncrementalArgs = compilationOptions as IncrementalCompilationOptions
+                        val gradleIncrementalServicesFacade = reportsFacade
+
+                        when (targetPlatform) {
+                            CompileService.TargetPlatform.JVM -> withIC {
+                                doCompile(sessionId, daemonReporter, tracer = null) { _, _ ->
+                                    execIncrementalCompiler(
+                                        k2PlatformArgs as K2JVMCompilerArguments,
+                                        gradleIncrementalArgs,
+                                        messageCollector,
+                                        getICReporter(
+                                            gradleIncrementalServicesFacade,
+                                            compilationResults!!,
+                                            gradleIncrementalArgs
+                                        )
+                                    )
+                                }
+                            }
+                            CompileService.TargetPlatform.JS -> withJsIC {
+                                doCompile(sessionId, daemonReporter, tracer = null) { _, _ ->
+                                    execJsIncrementalCompiler(
+                                        k2PlatformArgs as K2JSCompilerArguments,
+                                        gradleIncrementalArgs,
+                                        messageCollector,
+                                        getICReporter(
+                                            gradleIncrementalServicesFacade,
+                                            compilationResults!!,
+                                            gradleIncrementalArgs
+                                        )
+                                    )
+                                }
+                            }
+                            else -> throw IllegalStateException("Incremental compilation is not supported for target platform: $targetPlatform")
 
+                        }
+                    }
+                    else -> throw IllegalStateException("Unknown compilation mode ${compilationOptions.compilerMode}")
                 }
             }
-            else -> throw IllegalStateException("Unknown compilation mode ${compilationOptions.compilerMode}")
+        } finally {
+            if (daemonOptions.reportPerf) {
+                "PERF: Memory admission: ${memoryAdmission.describe()}".let {
+                    daemonReporter.report(ReportSeverity.INFO, it)
+                    log.info(it)
+                }
+            }
+            // messages may be sent to the client in batches
+            (reportsFacade as? Flushable)?.flush()
         }
     }
 
@@ -374,7 +397,7 @@ abstract class CompileServiceImplBase(
         log.fine("alive!")
         withValidClientOrSessionProxy(sessionId) {
             tracer?.before("compile")
-            val rpcProfiler = if (daemonOptions.reportPerf) WallAndThreadTotalProfiler() else DummyProfiler()
+            val rpcProfiler = if (daemonOptions.reportPerf) WallAndThreadByClassProfiler() else DummyProfiler()
             val eventManager = EventManagerImpl()
             try {
                 log.fine("trying get exitCode")
@@ -782,7 +805,8 @@ class CompileServiceImpl(
         createMessageCollector = ::CompileServicesFacadeMessageCollector,
         createReporter = ::DaemonMessageReporter,
         createServices = this::createCompileServices,
-        getICReporter = { a, b, c -> getICReporter(a, b!!, c)}
+        getICReporter = { a, b, c -> getICReporter(a, b!!, c)},
+        wrapReports = { PackedReportsFacade.wrap(it) }
     )
 
     override fun leaseReplSession(
@@ -1142,7 +1166,7 @@ class CompileServiceImpl(
         ifAlive {
             withValidClientOrSessionProxy(sessionId) {
                 operationsTracer?.before("compile")
-                val rpcProfiler = if (daemonOptions.reportPerf) WallAndThreadTotalProfiler() else DummyProfiler()
+                val rpcProfiler = if (daemonOptions.reportPerf) WallAndThreadByClassProfiler() else DummyProfiler()
                 val eventManger = EventManagerImpl()
                 val compilerMessagesStream = PrintStream(
                     BufferedOutputStream(
@@ -1197,6 +1221,11 @@ class CompileServiceImpl(
         (KotlinCoreEnvironment.applicationEnvironment?.jarFileSystem as? CoreJarFileSystem)?.clearHandlersCache()
     }
 
+    override fun trimCachesOnMemoryPressure() {
+        clearJarCache()
+        LightTreeCache.shared?.clear()
+    }
+
     private inline fun <R> ifAlive(
         minAliveness: Aliveness = Aliveness.LastSession,
         body: () -> CompileService.CallResult<R>
@@ -31,6 +31,7 @@ import org.jetbrains.kotlin.daemon.common.CompilerId
 import org.jetbrains.kotlin.daemon.common.RemoteOperationsTracer
 import org.jetbrains.kotlin.utils.PathUtil
 import java.io.File
+import java.io.Flushable
 import java.io.PrintStream
 import java.net.URLClassLoader
 import java.util.*
@@ -93,17 +94,28 @@ abstract class KotlinJvmReplServiceBase(
     protected val statesLock = ReentrantReadWriteLock()
     protected val stateIdCounter = AtomicInteger()
 
-    override fun createState(lock: ReentrantReadWriteLock): IReplStageState<*> =
-        replCompiler?.createState(lock) ?: throw IllegalStateException("repl compiler is not initialized properly")
+    override fun createState(lock: ReentrantReadWriteLock): IReplStageState<*> {
+        try {
+            return replCompiler?.createState(lock) ?: throw IllegalStateException("repl compiler is not initialized properly")
+        } finally {
+            flushMessages()
+        }
+    }
 
     protected open fun before(s: String) {}
     protected open fun after(s: String) {}
 
+    // messages may be sent to the client in batches, so they are flushed at the end of every REPL call
+    private fun flushMessages() {
+        (messageCollector as? Flushable)?.flush()
+    }
+
     override fun check(state: IReplStageState<*>, codeLine: ReplCodeLine): ReplCheckResult {
         before("check")
         try {
             return replCompiler?.check(state, codeLine) ?: ReplCheckResult.Error("Initialization error")
         } finally {
+            flushMessages()
             after("check")
         }
     }
@@ -113,6 +125,7 @@ abstract class KotlinJvmReplServiceBase(
         try {
             return replCompiler?.compile(state, codeLine) ?: ReplCompileResult.Error("Initialization error")
         } finally {
+            flushMessages()
             after("compile")
         }
     }
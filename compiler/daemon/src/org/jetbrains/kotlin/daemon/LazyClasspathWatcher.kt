@@ -18,6 +18,7 @@ package org.jetbrains.kotlin.daemon
 
 import java.io.File
 import java.io.IOException
+import java.nio.file.*
 import java.security.DigestInputStream
 import java.security.MessageDigest
 import java.util.*
@@ -27,6 +28,7 @@ import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicLong
 import java.util.logging.Level
 import java.util.logging.Logger
+import java.util.stream.Collectors
 import kotlin.concurrent.thread
 
 
@@ -34,20 +36,32 @@ val CLASSPATH_FILE_ID_DIGEST = "MD5"
 val DEFAULT_CLASSPATH_WATCH_PERIOD_MS = 1000L
 val DEFAULT_CLASSPATH_DIGEST_WATCH_PERIOD_MS = 300000L // 5 min
 
+// watching too many directories may exhaust OS limits (e.g. inotify watches), falling back to periodic scans then
+private const val MAX_WATCHED_DIRECTORIES = 1000
+
 
 /**
  * Class for lazy (on demand) check if any relevant file in the classpath is changed
- * poor-man watcher in the absence of NIO
- * TODO: replace with NIO watching when switching to java 7+
+ *
+ * Directories containing classpath files are watched with [WatchService], so when nothing happens in them the check
+ * does not touch the file system at all. Files from directories with events are compared by size and modification time,
+ * and only files with changed attributes are hashed, in parallel. If the watch service is unavailable or only polls the file
+ * system itself, attributes of all files are compared on every check instead. Every [digestCheckPeriod] ms all files
+ * are hashed regardless of their attributes, as a safety net for the missed events and for changes that keep the attributes.
  */
 class LazyClasspathWatcher(classpath: Iterable<String>,
                            val checkPeriod: Long = DEFAULT_CLASSPATH_WATCH_PERIOD_MS,
                            val digestCheckPeriod: Long = DEFAULT_CLASSPATH_DIGEST_WATCH_PERIOD_MS) {
 
-    private data class FileId(val file: File, val lastModified: Long, val digest: ByteArray)
+    // attributes are updated when the file is touched but its digest is the same, to avoid rehashing it on every check
+    private class FileId(val file: File, @Volatile var length: Long, @Volatile var lastModified: Long, val digest: ByteArray) {
+        val directory: Path = file.toPath().toAbsolutePath().parent
+    }
 
     private val fileIdsLock = Semaphore(1) // a barrier for ensuring ids are initialized, using semaphore to allow modifications from another thread
     private var fileIds: List<FileId>? = null
+    private var fileIdsByDirectory: Map<Path, List<FileId>> = emptyMap()
+    private var watchService: WatchService? = null
     private val lastChangedStatus = AtomicBoolean(false)
     private val lastUpdate = AtomicLong(0)
     private val lastDigestUpdate = AtomicLong(0)
@@ -58,12 +72,18 @@ class LazyClasspathWatcher(classpath: Iterable<String>,
         fileIdsLock.acquire()
         thread(isDaemon = true, start = true) {
             try {
-                fileIds = classpath
-                        .map(::File)
+                val roots = classpath.map(::File)
+                // registering the watches before reading the attributes, so no change could slip in between
+                watchService = createWatchService(roots)
+                val files = roots
                         .asSequence()
                         .flatMap { it.walk().filter(::isClasspathFile) }
-                        .map { FileId(it, it.lastModified(), it.md5Digest()) }
                         .toList()
+                val ids = files.parallelStream()
+                        .map { FileId(it, it.length(), it.lastModified(), it.md5Digest()) }
+                        .collect(Collectors.toList())
+                fileIdsByDirectory = ids.groupBy { it.directory }
+                fileIds = ids
                 val nowMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime())
                 lastUpdate.set(nowMs)
                 lastDigestUpdate.set(nowMs)
@@ -83,33 +103,111 @@ class LazyClasspathWatcher(classpath: Iterable<String>,
         val nowMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime())
         if (nowMs - lastUpdate.get() < checkPeriod) return false
 
-        val checkDigest = nowMs - lastDigestUpdate.get() > digestCheckPeriod
         // making sure that fieldIds are initialized
         fileIdsLock.acquire()
         fileIdsLock.release()
-        val changed =
-            fileIds?.find {
-                try {
-                    if (!it.file.exists()) {
-                        log.info("cp changed: ${it.file} doesn't exist any more")
-                        true
-                    }
-                    // if last modified changed or if enforced by param - checking the digest
-                    else if ((it.file.lastModified() != it.lastModified || checkDigest) && !Arrays.equals(it.digest, it.file.md5Digest())) {
-                        log.info("cp changed: ${it.file} digests differ")
-                        true
-                    }
-                    else false
+        val ids = fileIds ?: return false
+
+        val changed = synchronized(this) {
+            if (lastChangedStatus.get()) return true
+            val fullCheck = nowMs - lastDigestUpdate.get() > digestCheckPeriod
+            val suspects = if (fullCheck) ids else collectSuspects() ?: ids
+            val changed = suspects.isNotEmpty() && hasChangedFiles(suspects, checkAllDigests = fullCheck)
+            lastUpdate.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime()))
+            if (fullCheck) lastDigestUpdate.set(lastUpdate.get())
+            changed
+        }
+        if (changed) {
+            lastChangedStatus.set(true)
+            watchService?.close()
+        }
+        return changed
+    }
+
+    // returns null if all files should be checked
+    private fun collectSuspects(): List<FileId>? {
+        val service = watchService ?: return null
+        val changedDirectories = HashSet<Path>()
+        while (true) {
+            val key = service.poll() ?: break
+            val events = key.pollEvents()
+            if (events.any { it.kind() == StandardWatchEventKinds.OVERFLOW } || !key.reset()) return null
+            changedDirectories.add(key.watchable() as Path)
+        }
+        return changedDirectories.flatMap { fileIdsByDirectory[it].orEmpty() }
+    }
+
+    private fun hasChangedFiles(suspects: List<FileId>, checkAllDigests: Boolean): Boolean {
+        val candidates = ArrayList<FileId>()
+        for (it in suspects) {
+            if (!it.file.exists()) {
+                log.info("cp changed: ${it.file} doesn't exist any more")
+                return true
+            }
+            if (checkAllDigests || it.file.length() != it.length || it.file.lastModified() != it.lastModified) {
+                candidates.add(it)
+            }
+        }
+        if (candidates.isEmpty()) return false
+
+        return candidates.parallelStream().anyMatch {
+            try {
+                val length = it.file.length()
+                val lastModified = it.file.lastModified()
+                if (!Arrays.equals(it.digest, it.file.md5Digest())) {
+                    log.info("cp changed: ${it.file} digests differ")
+                    true
                 }
-                catch (e: IOException) {
-                    log.log(Level.INFO, "cp changed: ${it.file} access throws the exception", e)
-                    true // io error considered as change
+                else {
+                    it.length = length
+                    it.lastModified = lastModified
+                    false
                 }
-            } != null
-        lastUpdate.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime()))
-        if (checkDigest) lastDigestUpdate.set(lastUpdate.get())
+            }
+            catch (e: IOException) {
+                log.log(Level.INFO, "cp changed: ${it.file} access throws the exception", e)
+                true // io error considered as change
+            }
+        }
+    }
 
-        return changed
+    private fun createWatchService(roots: List<File>): WatchService? {
+        val directories = LinkedHashSet<Path>()
+        for (root in roots) {
+            when {
+                root.isDirectory -> root.walk().filter { it.isDirectory }.mapTo(directories) { it.toPath().toAbsolutePath() }
+                root.isFile -> root.absoluteFile.parentFile?.let { directories.add(it.toPath()) }
+            }
+            if (directories.size > MAX_WATCHED_DIRECTORIES) {
+                log.info("Too many classpath directories to watch, falling back to periodic checks")
+                return null
+            }
+        }
+        val service = try {
+            FileSystems.getDefault().newWatchService()
+        }
+        catch (e: Exception) {
+            log.log(Level.INFO, "Unable to create classpath watch service, falling back to periodic checks", e)
+            return null
+        }
+        // polling implementation reports changes with a delay, periodic checks are more accurate with it
+        if (service.javaClass.simpleName == "PollingWatchService") {
+            service.close()
+            return null
+        }
+        try {
+            for (directory in directories) {
+                directory.register(
+                    service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY
+                )
+            }
+        }
+        catch (e: Exception) {
+            log.log(Level.INFO, "Unable to watch classpath directories, falling back to periodic checks", e)
+            service.close()
+            return null
+        }
+        return service
     }
 }
 
@@ -119,10 +217,9 @@ fun isClasspathFile(file: File): Boolean = file.isFile && listOf("class", "jar")
 fun File.md5Digest(): ByteArray {
     val md = MessageDigest.getInstance(CLASSPATH_FILE_ID_DIGEST)
     DigestInputStream(inputStream(), md).use {
-        val buf = ByteArray(1024)
+        val buf = ByteArray(8192)
         while (it.read(buf) != -1) {}
         it.close()
     }
     return md.digest()
 }
-
@@ -17,28 +17,103 @@
 package org.jetbrains.kotlin.daemon
 
 import org.jetbrains.kotlin.daemon.common.DummyProfiler
+import org.jetbrains.kotlin.daemon.common.IncrementalCacheCompilationStartData
 import org.jetbrains.kotlin.daemon.common.Profiler
+import org.jetbrains.kotlin.daemon.common.isUnsupportedRemoteMethod
 import org.jetbrains.kotlin.daemon.common.withMeasure
 import org.jetbrains.kotlin.load.kotlin.incremental.components.IncrementalCache
 import org.jetbrains.kotlin.load.kotlin.incremental.components.JvmPackagePartProto
 import org.jetbrains.kotlin.modules.TargetId
+import java.rmi.ServerException
 
+/**
+ * Incremental cache backed by the client process.
+ *
+ * The data does not change during a compilation, so all answers are cached on the daemon side, and related queries are
+ * combined into a single remote call where the facade supports it: obsolete parts and module mapping are fetched at once,
+ * and so are the parts of a multifile facade together with their package part data.
+ */
 class RemoteIncrementalCacheClient(
     @Suppress("DEPRECATION") val facade: org.jetbrains.kotlin.daemon.common.CompilerCallbackServicesFacade,
     val target: TargetId,
-    val profiler: Profiler = DummyProfiler()
+    val profiler: Profiler = DummyProfiler(),
+    private val onClose: (RemoteIncrementalCacheClient) -> Unit = {}
 ): IncrementalCache {
-    override fun getObsoletePackageParts(): Collection<String> = profiler.withMeasure(this) { facade.incrementalCache_getObsoletePackageParts(target) }
+    // Clients built before the bulk methods were introduced support only the per-item calls
+    private var isBulkRequestSupported = true
+
+    private var compilationStartData: IncrementalCacheCompilationStartData? = null
+    private val multifileFacadeParts = HashMap<String, Collection<String>?>()
+    private val packagePartData = HashMap<String, JvmPackagePartProto?>()
+    private val classFilePaths = HashMap<String, String>()
+
+    @Synchronized
+    private fun getCompilationStartData(): IncrementalCacheCompilationStartData {
+        compilationStartData?.let { return it }
+
+        val data = bulkRequestOrNull { facade.incrementalCache_getCompilationStartData(target) }
+            ?: IncrementalCacheCompilationStartData(
+                profiler.withMeasure(this) { facade.incrementalCache_getObsoletePackageParts(target) },
+                profiler.withMeasure(this) { facade.incrementalCache_getObsoleteMultifileClassFacades(target) },
+                profiler.withMeasure(this) { facade.incrementalCache_getModuleMappingData(target) }
+            )
+        compilationStartData = data
+        return data
+    }
+
+    override fun getObsoletePackageParts(): Collection<String> = getCompilationStartData().obsoletePackageParts
+
+    override fun getObsoleteMultifileClasses(): Collection<String> = getCompilationStartData().obsoleteMultifileClassFacades
+
+    @Synchronized
+    override fun getStableMultifileFacadeParts(facadeInternalName: String): Collection<String>? {
+        if (facadeInternalName in multifileFacadeParts) return multifileFacadeParts[facadeInternalName]
+
+        val partsData = bulkRequestOrNull { facade.incrementalCache_getMultifileFacadePartsData(target, facadeInternalName) }
+        val parts = when {
+            partsData != null -> {
+                for (partInternalName in partsData.partsInternalNames) {
+                    packagePartData[partInternalName] = partsData.partsData[partInternalName]
+                }
+                partsData.partsInternalNames
+            }
+            isBulkRequestSupported -> null
+            else -> profiler.withMeasure(this) { facade.incrementalCache_getMultifileFacadeParts(target, facadeInternalName) }
+        }
+        multifileFacadeParts[facadeInternalName] = parts
+        return parts
+    }
 
-    override fun getObsoleteMultifileClasses(): Collection<String> = profiler.withMeasure(this) { facade.incrementalCache_getObsoleteMultifileClassFacades(target) }
+    @Synchronized
+    override fun getPackagePartData(partInternalName: String): JvmPackagePartProto? {
+        if (partInternalName in packagePartData) return packagePartData[partInternalName]
 
-    override fun getStableMultifileFacadeParts(facadeInternalName: String): Collection<String>? = profiler.withMeasure(this) { facade.incrementalCache_getMultifileFacadeParts(target, facadeInternalName) }
+        val data = profiler.withMeasure(this) { facade.incrementalCache_getPackagePartData(target, partInternalName) }
+        packagePartData[partInternalName] = data
+        return data
+    }
 
-    override fun getPackagePartData(partInternalName: String): JvmPackagePartProto? = profiler.withMeasure(this) { facade.incrementalCache_getPackagePartData(target, partInternalName) }
+    override fun getModuleMappingData(): ByteArray? = getCompilationStartData().moduleMappingData
 
-    override fun getModuleMappingData(): ByteArray? = profiler.withMeasure(this) { facade.incrementalCache_getModuleMappingData(target) }
+    @Synchronized
+    override fun getClassFilePath(internalClassName: String): String =
+        classFilePaths.getOrPut(internalClassName) {
+            profiler.withMeasure(this) { facade.incrementalCache_getClassFilePath(target, internalClassName) }
+        }
 
-    override fun getClassFilePath(internalClassName: String): String = profiler.withMeasure(this) { facade.incrementalCache_getClassFilePath(target,internalClassName) }
+    override fun close() {
+        profiler.withMeasure(this) { facade.incrementalCache_close(target) }
+        onClose(this)
+    }
 
-    override fun close(): Unit = profiler.withMeasure(this) { facade.incrementalCache_close(target) }
+    private inline fun <T : Any> bulkRequestOrNull(request: () -> T?): T? {
+        if (!isBulkRequestSupported) return null
+        return try {
+            profiler.withMeasure(this, request)
+        } catch (e: ServerException) {
+            if (!e.isUnsupportedRemoteMethod()) throw e
+            isBulkRequestSupported = false
+            null
+        }
+    }
 }
@@ -26,5 +26,15 @@ class RemoteIncrementalCompilationComponentsClient(
     @Suppress("DEPRECATION") val facade: org.jetbrains.kotlin.daemon.common.CompilerCallbackServicesFacade,
     val profiler: Profiler = DummyProfiler()
 ) : IncrementalCompilationComponents {
-    override fun getIncrementalCache(target: TargetId): IncrementalCache = RemoteIncrementalCacheClient(facade, target, profiler)
+    // caches are reused until they are closed, so that their client-side caches are not lost between the calls
+    private val caches = HashMap<TargetId, RemoteIncrementalCacheClient>()
+
+    @Synchronized
+    override fun getIncrementalCache(target: TargetId): IncrementalCache =
+        caches.getOrPut(target) { RemoteIncrementalCacheClient(facade, target, profiler, onClose = ::removeCache) }
+
+    @Synchronized
+    private fun removeCache(cache: RemoteIncrementalCacheClient) {
+        caches.remove(cache.target, cache)
+    }
 }
@@ -20,12 +20,16 @@ import com.intellij.util.containers.StringInterner
 import gnu.trove.THashMap
 import gnu.trove.THashSet
 import org.jetbrains.kotlin.daemon.common.DummyProfiler
+import org.jetbrains.kotlin.daemon.common.PackedLookupsWriter
 import org.jetbrains.kotlin.daemon.common.Profiler
+import org.jetbrains.kotlin.daemon.common.isUnsupportedRemoteMethod
+import org.jetbrains.kotlin.daemon.common.readPackedLookups
 import org.jetbrains.kotlin.daemon.common.withMeasure
 import org.jetbrains.kotlin.incremental.components.LookupInfo
 import org.jetbrains.kotlin.incremental.components.LookupTracker
 import org.jetbrains.kotlin.incremental.components.Position
 import org.jetbrains.kotlin.incremental.components.ScopeKind
+import java.rmi.ServerException
 
 class RemoteLookupTrackerClient(
     @Suppress("DEPRECATION") val facade: org.jetbrains.kotlin.daemon.common.CompilerCallbackServicesFacade,
@@ -35,51 +39,80 @@ class RemoteLookupTrackerClient(
     private val isDoNothing = profiler.withMeasure(this) { facade.lookupTracker_isDoNothing() }
 
     // Map: FileName -> (ScopeFqName -> Set<Name[String] | LookupInfo>)
+    // Only used to skip lookups that were already sent, the lookups themselves are sent in batches as they are recorded
     private val lookups = THashMap<String, MutableMap<String, MutableSet<Any>>>()
     private val interner = StringInterner()
 
     override val requiresPosition: Boolean = profiler.withMeasure(this) { facade.lookupTracker_requiresPosition() }
 
+    private val pendingLookups = PackedLookupsWriter(requiresPosition)
+
+    // Clients built before lookupTracker_recordPacked was introduced accept only the list of LookupInfo
+    private var isPackedRecordSupported = true
+
     override fun record(filePath: String, position: Position, scopeFqName: String, scopeKind: ScopeKind, name: String) {
         if (isDoNothing) return
 
+        val internedFilePath = interner.intern(filePath)
         val internedSymbolFqName = interner.intern(scopeFqName)
         val internedName = interner.intern(name)
 
         val objectToPut: Any =
             if (requiresPosition)
-                LookupInfo(filePath, position, scopeFqName, scopeKind, name)
+                LookupInfo(internedFilePath, position, internedSymbolFqName, scopeKind, internedName)
             else
                 internedName
 
-        lookups.getOrPut(filePath, ::THashMap).getOrPut(internedSymbolFqName, ::THashSet).add(objectToPut)
+        val isNew = lookups.getOrPut(internedFilePath, ::THashMap).getOrPut(internedSymbolFqName, ::THashSet).add(objectToPut)
+        if (!isNew) return
+
+        if (requiresPosition)
+            pendingLookups.add(internedFilePath, position, internedSymbolFqName, scopeKind, internedName)
+        else
+            pendingLookups.add(internedFilePath, Position.NO_POSITION, internedSymbolFqName, ScopeKind.CLASSIFIER, internedName)
+
+        if (pendingLookups.size >= LOOKUPS_BATCH_SIZE) {
+            sendPendingLookups()
+        }
     }
 
     init {
         eventManager.onCompilationFinished { flush() }
     }
 
-    private fun flush() {
-        if (isDoNothing || lookups.isEmpty) return
+    private fun sendPendingLookups() {
+        if (pendingLookups.size == 0) return
+
+        val packedLookups = pendingLookups.toByteArray()
+        pendingLookups.clear()
 
         profiler.withMeasure(this) {
-            facade.lookupTracker_record(
-                lookups.flatMap { (filePath, lookupsByFile) ->
-                    lookupsByFile.flatMap { (scopeFqName, lookupsByScopeFqName) ->
-                        lookupsByScopeFqName.map { lookupInfoOrString ->
-                            if (requiresPosition)
-                                lookupInfoOrString as LookupInfo
-                            else
-                                LookupInfo(
-                                    filePath, Position.NO_POSITION, scopeFqName, ScopeKind.CLASSIFIER,
-                                    lookupInfoOrString as String
-                                )
-                        }
-                    }
+            if (isPackedRecordSupported) {
+                try {
+                    facade.lookupTracker_recordPacked(packedLookups)
+                    return@withMeasure
+                } catch (e: ServerException) {
+                    if (!e.isUnsupportedRemoteMethod()) throw e
+                    isPackedRecordSupported = false
                 }
-            )
+            }
+
+            val unpackedLookups = ArrayList<LookupInfo>()
+            readPackedLookups(packedLookups) { filePath, position, scopeFqName, scopeKind, name ->
+                unpackedLookups.add(LookupInfo(filePath, position, scopeFqName, scopeKind, name))
+            }
+            facade.lookupTracker_record(unpackedLookups)
         }
+    }
 
+    private fun flush() {
+        if (isDoNothing) return
+
+        sendPendingLookups()
         lookups.clear()
     }
+
+    companion object {
+        private const val LOOKUPS_BATCH_SIZE = 50_000
+    }
 }
@@ -22,14 +22,18 @@ import org.jetbrains.kotlin.cli.common.messages.MessageCollector
 import org.jetbrains.kotlin.cli.common.messages.MessageRenderer
 import org.jetbrains.kotlin.daemon.KotlinCompileDaemon.log
 import org.jetbrains.kotlin.daemon.common.*
+import java.io.Flushable
 
 internal class CompileServicesFacadeMessageCollector(
-        private val servicesFacade: CompilerServicesFacadeBase,
+        servicesFacade: CompilerServicesFacadeBase,
         compilationOptions: CompilationOptions
-) : MessageCollector {
+) : MessageCollector, Flushable {
     private val mySeverity = compilationOptions.reportSeverity
     private var hasErrors = false
 
+    // Compiler messages and output files are sent in batches if the client supports it, see [flush]
+    private val servicesFacade = PackedReportsFacade.wrap(servicesFacade)
+
     override fun clear() {
         hasErrors = false
     }
@@ -42,6 +46,7 @@ internal class CompileServicesFacadeMessageCollector(
             }
             CompilerMessageSeverity.EXCEPTION -> {
                 servicesFacade.report(ReportCategory.EXCEPTION, ReportSeverity.ERROR, message)
+                flush()
             }
             else -> {
                 val reportSeverity = when (severity) {
@@ -60,5 +65,12 @@ internal class CompileServicesFacadeMessageCollector(
         hasErrors = hasErrors || severity.isError
     }
 
+    /**
+     * Sends the pending batch of reports, should be called at the end of every compilation or REPL call
+     */
+    override fun flush() {
+        (servicesFacade as? Flushable)?.flush()
+    }
+
     override fun hasErrors(): Boolean = hasErrors
 }
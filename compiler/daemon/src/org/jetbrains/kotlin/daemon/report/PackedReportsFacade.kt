@@ -0,0 +1,80 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.daemon.report
+
+import org.jetbrains.kotlin.daemon.KotlinCompileDaemon.log
+import org.jetbrains.kotlin.daemon.common.CompilerServicesFacadeBase
+import org.jetbrains.kotlin.daemon.common.CompilerServicesFacadeWithPackedReports
+import org.jetbrains.kotlin.daemon.common.PackedReportsWriter
+import java.io.Flushable
+import java.io.Serializable
+import java.rmi.RemoteException
+import java.util.*
+import java.util.logging.Level
+import kotlin.concurrent.schedule
+
+/**
+ * Queue of the reports of one compilation or REPL session for a client accepting them in batches.
+ *
+ * All reporters of the compilation report through the same queue, so the client receives the reports in the order they were made.
+ * A batch is sent when it is full, when a report can't be packed, [MAX_DELAY_MS] after its first report, and on [flush].
+ */
+internal class PackedReportsFacade private constructor(
+    private val servicesFacade: CompilerServicesFacadeWithPackedReports
+) : CompilerServicesFacadeBase, Flushable {
+    private val packedReports = PackedReportsWriter()
+    private var scheduledFlush: TimerTask? = null
+
+    @Synchronized
+    override fun report(category: Int, severity: Int, message: String?, attachment: Serializable?) {
+        if (!packedReports.canPack(attachment)) {
+            flush()
+            servicesFacade.report(category, severity, message, attachment)
+            return
+        }
+
+        packedReports.add(category, severity, message, attachment)
+        if (packedReports.size >= MAX_PACKED_REPORTS || packedReports.byteSize >= MAX_PACKED_REPORTS_BYTES) {
+            flush()
+        } else if (scheduledFlush == null) {
+            scheduledFlush = flushTimer.schedule(MAX_DELAY_MS) { flushFromTimer() }
+        }
+    }
+
+    @Synchronized
+    override fun flush() {
+        scheduledFlush?.cancel()
+        scheduledFlush = null
+        if (packedReports.size == 0) return
+
+        val bytes = packedReports.toByteArray()
+        packedReports.clear()
+        servicesFacade.reportPacked(bytes)
+    }
+
+    private fun flushFromTimer() {
+        try {
+            flush()
+        } catch (e: RemoteException) {
+            log.log(Level.WARNING, "Cannot send reports to the client", e)
+        }
+    }
+
+    companion object {
+        private const val MAX_PACKED_REPORTS = 1000
+        private const val MAX_PACKED_REPORTS_BYTES = 1 shl 20
+        private const val MAX_DELAY_MS = 100L
+
+        // sends the batches which are not filled up in time, so that the client sees warnings and progress during long compilations
+        private val flushTimer by lazy { Timer("Kotlin daemon reports flusher", /* isDaemon = */ true) }
+
+        /**
+         * Returns the facade to be used by all reporters of a compilation, which should be flushed at its end.
+         */
+        fun wrap(servicesFacade: CompilerServicesFacadeBase): CompilerServicesFacadeBase =
+            if (servicesFacade is CompilerServicesFacadeWithPackedReports) PackedReportsFacade(servicesFacade) else servicesFacade
+    }
+}
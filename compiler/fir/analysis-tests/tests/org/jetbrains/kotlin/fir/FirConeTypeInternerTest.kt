@@ -0,0 +1,93 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir
+
+import com.intellij.psi.search.GlobalSearchScope
+import org.jetbrains.kotlin.cli.jvm.compiler.KotlinCoreEnvironment
+import org.jetbrains.kotlin.fir.resolve.fullyExpandedType
+import org.jetbrains.kotlin.fir.symbols.StandardClassIds
+import org.jetbrains.kotlin.fir.symbols.impl.ConeClassLikeLookupTagImpl
+import org.jetbrains.kotlin.fir.types.*
+import org.jetbrains.kotlin.fir.types.impl.ConeClassLikeTypeImpl
+import org.jetbrains.kotlin.name.ClassId
+import org.jetbrains.kotlin.name.FqName
+import org.jetbrains.kotlin.test.ConfigurationKind
+
+class FirConeTypeInternerTest : AbstractFirResolveWithSessionTestCase() {
+    override fun createEnvironment(): KotlinCoreEnvironment {
+        return createEnvironmentWithMockJdk(ConfigurationKind.ALL)
+    }
+
+    override fun setUp() {
+        super.setUp()
+        System.setProperty(FirConeTypeInterner.ENABLED_PROPERTY, "true")
+    }
+
+    override fun tearDown() {
+        System.clearProperty(FirConeTypeInterner.ENABLED_PROPERTY)
+        super.tearDown()
+    }
+
+    private fun newSession(): FirSession = createSession(environment, GlobalSearchScope.EMPTY_SCOPE)
+
+    private fun type(classId: ClassId, vararg arguments: ConeTypeProjection, attributes: ConeAttributes = ConeAttributes.Empty) =
+        ConeClassLikeTypeImpl(ConeClassLikeLookupTagImpl(classId), arrayOf(*arguments), isNullable = false, attributes = attributes)
+
+    fun testEqualTypesShareInstance() {
+        val session = newSession()
+        assertNotNull(session.coneTypeInterner)
+
+        val first = type(StandardClassIds.Comparable, type(StandardClassIds.String)).interned(session)
+        val second = type(StandardClassIds.Comparable, type(StandardClassIds.String)).interned(session)
+        assertSame(first, second)
+
+        val nullable = ConeClassLikeTypeImpl(first.lookupTag, first.typeArguments, isNullable = true).interned(session)
+        assertNotSame(first, nullable)
+    }
+
+    fun testTypesWithAttributesKeepThem() {
+        val session = newSession()
+        val exact = ConeAttributes.create(listOf(CompilerConeAttributes.Exact))
+
+        val withAttributes = type(StandardClassIds.String, attributes = exact)
+        assertSame(withAttributes, withAttributes.interned(session))
+
+        // an equal type without attributes is not replaced by the one with them, and vice versa
+        val withoutAttributes = type(StandardClassIds.String).interned(session)
+        assertSame(ConeAttributes.Empty, withoutAttributes.attributes)
+        val otherWithAttributes = type(StandardClassIds.String, attributes = exact).interned(session)
+        assertSame(exact, otherWithAttributes.attributes)
+
+        // the same for attributes of arguments
+        val argumentWithAttributes = type(StandardClassIds.Comparable, type(StandardClassIds.String, attributes = exact)).interned(session)
+        val argument = argumentWithAttributes.typeArguments.single() as ConeKotlinType
+        assertSame(exact, argument.attributes)
+        assertNotSame(argumentWithAttributes, type(StandardClassIds.Comparable, type(StandardClassIds.String)).interned(session))
+    }
+
+    fun testCachedExpansionIsPerSession() {
+        val session = newSession()
+        // typealias Exception = java.lang.Exception
+        val exceptionAlias = ClassId.topLevel(FqName("kotlin.Exception"))
+
+        val alias = type(exceptionAlias).interned(session)
+        val expanded = alias.fullyExpandedType(session)
+        assertEquals(ClassId.topLevel(FqName("java.lang.Exception")), expanded.lookupTag.classId)
+
+        // the interned instance comes with the expansion cached for the session
+        val sameAlias = type(exceptionAlias).interned(session)
+        assertSame(alias, sameAlias)
+        assertSame(session, sameAlias.cachedExpandedType?.first)
+        assertSame(expanded, sameAlias.fullyExpandedType(session))
+
+        // other sessions do not use it
+        val otherSession = newSession()
+        val otherAlias = type(exceptionAlias).interned(otherSession)
+        assertNotSame(alias, otherAlias)
+        assertEquals(expanded, otherAlias.fullyExpandedType(otherSession))
+        assertSame(session, alias.cachedExpandedType?.first)
+    }
+}
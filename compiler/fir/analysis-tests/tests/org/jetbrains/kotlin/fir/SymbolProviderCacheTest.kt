@@ -0,0 +1,112 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir
+
+import junit.framework.TestCase
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+
+class SymbolProviderCacheTest : TestCase() {
+    private class Value(val key: String) {
+        var isPostComputed = false
+    }
+
+    fun testValueIsPublishedAfterPostCompute() {
+        val cache = SymbolProviderCache<String, Value>(isThreadSafe = true)
+        val postComputeStarted = CountDownLatch(1)
+        val finishPostCompute = CountDownLatch(1)
+
+        val calculation = thread {
+            cache.lookupCacheOrCalculateWithPostCompute("a", { Value(it) to Unit }) { value, _ ->
+                postComputeStarted.countDown()
+                finishPostCompute.await()
+                value.isPostComputed = true
+            }
+        }
+        postComputeStarted.await()
+        assertNull(cache["a"])
+        assertFalse("a" in cache)
+
+        finishPostCompute.countDown()
+        calculation.join()
+        val value = cache.lookupCacheOrCalculate("a") { error("Value is calculated twice") }
+        assertTrue(value!!.isPostComputed)
+    }
+
+    fun testNestedCalculationsArePublishedTogether() {
+        val outer = SymbolProviderCache<String, Value>(isThreadSafe = true)
+        val inner = SymbolProviderCache<String, Value>(isThreadSafe = true)
+
+        outer.lookupCacheOrCalculate("a") {
+            val innerValue = inner.lookupCacheOrCalculate("b") { Value(it) }
+            // the calculating thread sees its own values
+            assertSame(innerValue, inner["b"])
+            // other threads don't see them until the outer calculation is finished
+            var seenByOtherThread: Value? = null
+            thread { seenByOtherThread = inner["b"] }.join()
+            assertNull(seenByOtherThread)
+            Value(it)
+        }
+
+        assertNotNull(outer["a"])
+        assertNotNull(inner["b"])
+    }
+
+    fun testNullIsCached() {
+        for (isThreadSafe in listOf(false, true)) {
+            val cache = SymbolProviderCache<String, Value>(isThreadSafe)
+            val calculations = AtomicInteger()
+
+            assertNull(cache.lookupCacheOrCalculate("a") { calculations.incrementAndGet(); null })
+            assertNull(cache.lookupCacheOrCalculate("a") { calculations.incrementAndGet(); null })
+            assertTrue("a" in cache)
+            assertEquals(1, calculations.get())
+        }
+    }
+
+    fun testCachesAreNotThreadSafeByDefault() {
+        assertNull(System.getProperty(SymbolProviderCache.THREAD_SAFE_PROPERTY))
+        val cache = SymbolProviderCache<String, Value>()
+        assertFalse(cache.isThreadSafe)
+
+        cache.lookupCacheOrCalculate("a") {
+            val nested = cache.lookupCacheOrCalculate("b") { Value(it) }
+            // without the lock values are visible as soon as they are calculated
+            var seenByOtherThread: Value? = null
+            thread { seenByOtherThread = cache["b"] }.join()
+            assertSame(nested, seenByOtherThread)
+            Value(it)
+        }
+        assertNotNull(cache["a"])
+    }
+
+    fun testConcurrentLookupsCalculateOnce() {
+        val cache = SymbolProviderCache<String, Value>(isThreadSafe = true)
+        val calculations = AtomicInteger()
+        val keys = (1..1000).map { "key$it" }
+
+        val executor = Executors.newFixedThreadPool(8)
+        try {
+            val futures = (1..8).map {
+                executor.submit<List<Value?>> {
+                    keys.map { key -> cache.lookupCacheOrCalculate(key) { calculations.incrementAndGet(); Value(it) } }
+                }
+            }
+            val results = futures.map { it.get(1, TimeUnit.MINUTES) }
+            for (result in results) {
+                assertEquals(keys, result.map { it!!.key })
+                result.zip(results.first()).forEach { (value, first) -> assertSame(first, value) }
+            }
+        } finally {
+            executor.shutdownNow()
+        }
+        assertEquals(keys.size, calculations.get())
+    }
+}
@@ -9,13 +9,19 @@ import org.jetbrains.kotlin.fir.FirElement
 import org.jetbrains.kotlin.fir.FirSession
 import org.jetbrains.kotlin.fir.analysis.collectors.AbstractDiagnosticCollector
 import org.jetbrains.kotlin.fir.analysis.collectors.FirDiagnosticsCollector
+import org.jetbrains.kotlin.fir.analysis.diagnostics.FirDiagnostic
 import org.jetbrains.kotlin.fir.declarations.FirDeclaration
 import org.jetbrains.kotlin.fir.declarations.FirFile
 import org.jetbrains.kotlin.fir.resolve.ScopeSession
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
+import org.jetbrains.kotlin.fir.resolve.transformers.FirGlobalResolveProcessor
 import org.jetbrains.kotlin.fir.resolve.transformers.FirTransformerBasedResolveProcessor
 import org.jetbrains.kotlin.fir.visitors.CompositeTransformResult
 import org.jetbrains.kotlin.fir.visitors.FirTransformer
 import org.jetbrains.kotlin.fir.visitors.compose
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
 
 class FirCheckersResolveProcessor(
     session: FirSession,
@@ -26,6 +32,52 @@ class FirCheckersResolveProcessor(
     override val transformer: FirTransformer<Nothing?> = FirCheckersRunnerTransformer(diagnosticCollector)
 }
 
+/**
+ * Runs checkers for [files] on a pool of [threadCount] threads.
+ *
+ * Checkers only read resolved FIR, but a diagnostic collector keeps the state of its traversal, so every worker thread
+ * uses its own collector, with its own scope session and reporter. Diagnostics are available in [diagnosticsByFile]
+ * in the order of [files], independently of the scheduling.
+ *
+ * Session components which are filled lazily, such as symbol provider caches, are queried from several threads, so the sessions
+ * should be created with thread-safe caches, see [SymbolProviderCache.isThreadSafeByDefault]. Only the calling thread is measured
+ * by CPU time counters, so the wall time should be used to measure this processor.
+ */
+class FirParallelCheckersResolveProcessor(
+    session: FirSession,
+    scopeSession: ScopeSession,
+    private val files: List<FirFile>,
+    private val threadCount: Int = Runtime.getRuntime().availableProcessors()
+) : FirGlobalResolveProcessor(session, scopeSession) {
+    init {
+        require(SymbolProviderCache.isThreadSafeByDefault) {
+            "Parallel checkers need thread-safe session caches, use -D${SymbolProviderCache.THREAD_SAFE_PROPERTY}=true"
+        }
+    }
+
+    var diagnosticsByFile: Map<FirFile, List<FirDiagnostic<*>>> = emptyMap()
+        private set
+
+    override fun process() {
+        val collectors = ThreadLocal.withInitial { FirDiagnosticsCollector.create(session) }
+        val executor = Executors.newFixedThreadPool(threadCount)
+        try {
+            val futures = files.map { file ->
+                executor.submit(Callable { collectors.get().collectDiagnostics(file).toList() })
+            }
+            diagnosticsByFile = files.zip(futures).associateTo(LinkedHashMap()) { (file, future) ->
+                try {
+                    file to future.get()
+                } catch (e: ExecutionException) {
+                    throw e.cause ?: e
+                }
+            }
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+}
+
 class FirCheckersRunnerTransformer(private val diagnosticCollector: AbstractDiagnosticCollector) : FirTransformer<Nothing?>() {
     override fun <E : FirElement> transformElement(element: E, data: Nothing?): CompositeTransformResult<E> {
         return element.compose()
@@ -28,17 +28,23 @@ class ConeClassLikeTypeImpl(
 
         other as ConeClassLikeTypeImpl
 
+        if (hashCode() != other.hashCode()) return false
         if (lookupTag != other.lookupTag) return false
-        if (!typeArguments.contentEquals(other.typeArguments)) return false
         if (nullability != other.nullability) return false
+        if (!typeArguments.contentEquals(other.typeArguments)) return false
 
         return true
     }
 
+    // types are immutable, and are often used as keys (of caches and of the session type interner)
+    private var hashCode = 0
+
     override fun hashCode(): Int {
+        if (hashCode != 0) return hashCode
         var result = lookupTag.hashCode()
         result = 31 * result + typeArguments.contentHashCode()
         result = 31 * result + nullability.hashCode()
+        hashCode = result
         return result
     }
 }
@@ -8,6 +8,7 @@ dependencies {
     api(project(":compiler:frontend.java"))
     api(project(":compiler:fir:java"))
     api(project(":compiler:fir:raw-fir:psi2fir"))
+    api(project(":compiler:fir:raw-fir:light-tree2fir"))
     api(project(":compiler:fir:fir2ir"))
     api(project(":compiler:fir:checkers"))
 
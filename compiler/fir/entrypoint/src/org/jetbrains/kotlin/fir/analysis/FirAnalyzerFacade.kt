@@ -17,6 +17,8 @@ import org.jetbrains.kotlin.fir.backend.jvm.FirJvmKotlinMangler
 import org.jetbrains.kotlin.fir.backend.jvm.FirJvmVisibilityConverter
 import org.jetbrains.kotlin.fir.builder.RawFirBuilder
 import org.jetbrains.kotlin.fir.declarations.FirFile
+import org.jetbrains.kotlin.fir.lightTree.LightTree2Fir
+import org.jetbrains.kotlin.fir.lightTree.LightTreeCache
 import org.jetbrains.kotlin.fir.resolve.ScopeSession
 import org.jetbrains.kotlin.fir.resolve.firProvider
 import org.jetbrains.kotlin.fir.resolve.providers.impl.FirProviderImpl
@@ -25,22 +27,53 @@ import org.jetbrains.kotlin.ir.backend.jvm.serialization.JvmManglerDesc
 import org.jetbrains.kotlin.ir.declarations.impl.IrFactoryImpl
 import org.jetbrains.kotlin.psi.KtFile
 
-class FirAnalyzerFacade(val session: FirSession, val languageVersionSettings: LanguageVersionSettings, val ktFiles: List<KtFile>) {
+/**
+ * With [useLightTree], raw FIR is built from light trees parsed from the text of [ktFiles],
+ * so their PSI trees are not built by the front-end; the files are still used as file entries by fir2ir and the backend.
+ * The light trees are taken from [LightTreeCache.shared] if it is enabled, and given back to it by [convertToIr],
+ * or by [releaseLightTrees] if FIR is not converted, after which FIR of this facade must not be analyzed anymore.
+ */
+class FirAnalyzerFacade(
+    val session: FirSession,
+    val languageVersionSettings: LanguageVersionSettings,
+    val ktFiles: List<KtFile>,
+    val useLightTree: Boolean = false
+) {
     private var firFiles: List<FirFile>? = null
+    private var lightTree2Fir: LightTree2Fir? = null
+    private val ktFilesByFirFile = mutableMapOf<FirFile, KtFile>()
     private var scopeSession: ScopeSession? = null
-    private var collectedDiagnostics: List<FirDiagnostic<*>>? = null
+    private var collectedDiagnostics: Map<FirFile, List<FirDiagnostic<*>>>? = null
 
-    private fun buildRawFir() {
-        if (firFiles != null) return
+    fun buildRawFir(): List<FirFile> {
+        firFiles?.let { return it }
         val firProvider = (session.firProvider as FirProviderImpl)
-        val builder = RawFirBuilder(session, firProvider.kotlinScopeProvider)
-        firFiles = ktFiles.map {
-            val firFile = builder.buildFirFile(it)
-            firProvider.recordFile(firFile)
-            firFile
+        val firFiles = if (useLightTree) {
+            val builder = LightTree2Fir(session, firProvider.kotlinScopeProvider, lightTreeCache = LightTreeCache.shared)
+            lightTree2Fir = builder
+            ktFiles.map {
+                // the text is not trimmed here, unlike in LightTree2Fir.buildFirFile(File), to keep the offsets valid for the file
+                val firFile = builder.buildFirFile(it.viewProvider.contents.toString(), it.name)
+                ktFilesByFirFile[firFile] = it
+                firProvider.recordFile(firFile)
+                firFile
+            }
+        } else {
+            val builder = RawFirBuilder(session, firProvider.kotlinScopeProvider)
+            ktFiles.map {
+                val firFile = builder.buildFirFile(it)
+                ktFilesByFirFile[firFile] = it
+                firProvider.recordFile(firFile)
+                firFile
+            }
         }
+        this.firFiles = firFiles
+        return firFiles
     }
 
+    fun getKtFile(firFile: FirFile): KtFile =
+        ktFilesByFirFile[firFile] ?: error("No source file for ${firFile.name}")
+
     fun runResolution(): List<FirFile> {
         if (firFiles == null) buildRawFir()
         if (scopeSession != null) return firFiles!!
@@ -50,16 +83,14 @@ class FirAnalyzerFacade(val session: FirSession, val languageVersionSettings: La
         return firFiles!!
     }
 
-    @OptIn(ExperimentalStdlibApi::class)
-    fun runCheckers(): List<FirDiagnostic<*>> {
+    fun runCheckers(): List<FirDiagnostic<*>> =
+        runCheckersByFile().values.flatten()
+
+    fun runCheckersByFile(): Map<FirFile, List<FirDiagnostic<*>>> {
         if (scopeSession == null) runResolution()
         if (collectedDiagnostics != null) return collectedDiagnostics!!
         val collector = FirDiagnosticsCollector.create(session)
-        collectedDiagnostics = buildList {
-            for (file in firFiles!!) {
-                addAll(collector.collectDiagnostics(file))
-            }
-        }
+        collectedDiagnostics = firFiles!!.associateWith { collector.collectDiagnostics(it).toList() }
         return collectedDiagnostics!!
     }
 
@@ -67,11 +98,21 @@ class FirAnalyzerFacade(val session: FirSession, val languageVersionSettings: La
         if (scopeSession == null) runResolution()
         val signaturer = IdSignatureDescriptor(JvmManglerDesc())
 
-        return Fir2IrConverter.createModuleFragment(
-            session, scopeSession!!, firFiles!!,
-            languageVersionSettings, signaturer,
-            JvmGeneratorExtensions(generateFacades), FirJvmKotlinMangler(session), IrFactoryImpl,
-            FirJvmVisibilityConverter
-        )
+        try {
+            return Fir2IrConverter.createModuleFragment(
+                session, scopeSession!!, firFiles!!,
+                languageVersionSettings, signaturer,
+                JvmGeneratorExtensions(generateFacades), FirJvmKotlinMangler(session), IrFactoryImpl,
+                FirJvmVisibilityConverter,
+                ::getKtFile
+            )
+        } finally {
+            // IR keeps only offsets, so the light trees are not needed by the following stages
+            releaseLightTrees()
+        }
+    }
+
+    fun releaseLightTrees() {
+        lightTree2Fir?.releaseLightTrees()
     }
 }
@@ -21,7 +21,10 @@ import org.jetbrains.kotlin.fir.resolve.providers.impl.FirQualifierResolverImpl
 import org.jetbrains.kotlin.fir.resolve.providers.impl.FirTypeResolverImpl
 import org.jetbrains.kotlin.fir.resolve.transformers.plugin.GeneratedClassIndex
 import org.jetbrains.kotlin.fir.scopes.impl.FirDeclaredMemberScopeProvider
+import org.jetbrains.kotlin.fir.types.FirConeTypeInterner
 import org.jetbrains.kotlin.fir.types.FirCorrespondingSupertypesCache
+import org.jetbrains.kotlin.fir.types.FirSubtypingCache
+import org.jetbrains.kotlin.types.SubtypingCache
 
 // -------------------------- Required components --------------------------
 
@@ -29,6 +32,12 @@ import org.jetbrains.kotlin.fir.types.FirCorrespondingSupertypesCache
 fun FirSession.registerCommonComponents() {
     register(FirDeclaredMemberScopeProvider::class, FirDeclaredMemberScopeProvider())
     register(FirCorrespondingSupertypesCache::class, FirCorrespondingSupertypesCache(this))
+    if (FirConeTypeInterner.isEnabled) {
+        register(FirConeTypeInterner::class, FirConeTypeInterner())
+    }
+    if (SubtypingCache.isEnabled) {
+        register(FirSubtypingCache::class, FirSubtypingCache())
+    }
     register(FirDefaultParametersResolver::class, FirDefaultParametersResolver())
 
     register(FirExtensionService::class, FirExtensionService(this))
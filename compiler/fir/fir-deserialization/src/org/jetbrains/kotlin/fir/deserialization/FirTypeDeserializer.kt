@@ -141,7 +141,7 @@ class FirTypeDeserializer(
         val simpleType = if (Flags.SUSPEND_TYPE.get(proto.flags)) {
             createSuspendFunctionType(constructor, arguments, isNullable = proto.nullable, attributes)
         } else {
-            ConeClassLikeTypeImpl(constructor, arguments, isNullable = proto.nullable, attributes)
+            ConeClassLikeTypeImpl(constructor, arguments, isNullable = proto.nullable, attributes).interned(session)
         }
         val abbreviatedTypeProto = proto.abbreviatedType(typeTable) ?: return simpleType
         return simpleType(abbreviatedTypeProto, attributes)
@@ -5,7 +5,11 @@
 
 package org.jetbrains.kotlin.fir.backend
 
+import com.intellij.lang.LighterASTNode
+import com.intellij.openapi.util.Ref
 import com.intellij.psi.PsiCompiledElement
+import com.intellij.psi.tree.IElementType
+import com.intellij.util.diff.FlyweightCapableTreeStructure
 import org.jetbrains.kotlin.KtNodeTypes
 import org.jetbrains.kotlin.descriptors.ClassKind
 import org.jetbrains.kotlin.descriptors.Modality
@@ -43,7 +47,9 @@ import org.jetbrains.kotlin.ir.types.*
 import org.jetbrains.kotlin.ir.types.impl.IrErrorTypeImpl
 import org.jetbrains.kotlin.ir.util.SymbolTable
 import org.jetbrains.kotlin.ir.util.functions
+import org.jetbrains.kotlin.lexer.KtTokens
 import org.jetbrains.kotlin.name.Name
+import org.jetbrains.kotlin.psi.KtBinaryExpression
 import org.jetbrains.kotlin.psi.psiUtil.endOffset
 import org.jetbrains.kotlin.psi.psiUtil.startOffsetSkippingComments
 import org.jetbrains.kotlin.types.AbstractTypeChecker
@@ -54,12 +60,43 @@ import org.jetbrains.kotlin.util.OperatorNameConventions
 internal fun <T : IrElement> FirElement.convertWithOffsets(
     f: (startOffset: Int, endOffset: Int) -> T
 ): T {
+    val source = source
+    if (source is FirLightSourceElement) return f(source.startOffsetSkippingComments, source.endOffset)
     if (psi is PsiCompiledElement) return f(-1, -1)
     val startOffset = psi?.startOffsetSkippingComments ?: -1
     val endOffset = psi?.endOffset ?: -1
     return f(startOffset, endOffset)
 }
 
+private val FirLightSourceElement.startOffsetSkippingComments: Int
+    get() {
+        val firstChild = element.getChildren(tree).firstOrNull { it.tokenType !in KtTokens.WHITE_SPACE_OR_COMMENT_BIT_SET }
+            ?: return startOffset
+        return startOffset + tree.getStartOffset(firstChild) - tree.getStartOffset(element)
+    }
+
+private fun LighterASTNode.getChildren(tree: FlyweightCapableTreeStructure<LighterASTNode>): List<LighterASTNode> {
+    val children = Ref<Array<LighterASTNode?>>()
+    val count = tree.getChildren(this, children)
+    return if (count > 0) children.get().filterNotNull() else emptyList()
+}
+
+// Element type of the parent of the source element, available both for PSI and light tree sources
+internal val FirSourceElement.parentElementType: IElementType?
+    get() = when (this) {
+        is FirPsiSourceElement<*> -> psi.parent?.node?.elementType
+        is FirLightSourceElement -> tree.getParent(element)?.tokenType
+    }
+
+// Operation token of the binary expression which is the source element, available both for PSI and light tree sources
+internal val FirSourceElement.binaryOperationToken: IElementType?
+    get() = when (this) {
+        is FirPsiSourceElement<*> -> (psi as? KtBinaryExpression)?.operationToken
+        is FirLightSourceElement -> element.takeIf { it.tokenType == KtNodeTypes.BINARY_EXPRESSION }
+            ?.getChildren(tree)?.firstOrNull { it.tokenType == KtNodeTypes.OPERATION_REFERENCE }
+            ?.getChildren(tree)?.firstOrNull()?.tokenType
+    }
+
 internal fun createErrorType(): IrErrorType = IrErrorTypeImpl(null, emptyList(), Variance.INVARIANT)
 
 internal enum class ConversionTypeOrigin {
@@ -32,7 +32,8 @@ import org.jetbrains.kotlin.psi2ir.generators.GeneratorExtensions
 class Fir2IrConverter(
     private val moduleDescriptor: FirModuleDescriptor,
     private val sourceManager: PsiSourceManager,
-    private val components: Fir2IrComponents
+    private val components: Fir2IrComponents,
+    private val getKtFile: (FirFile) -> KtFile
 ) : Fir2IrComponents by components {
 
     fun processLocalClassAndNestedClasses(regularClass: FirRegularClass, parent: IrDeclarationParent) {
@@ -53,7 +54,7 @@ class Fir2IrConverter(
 
     fun registerFileAndClasses(file: FirFile): IrFile {
         val irFile = IrFileImpl(
-            sourceManager.getOrCreateFileEntry(file.psi as KtFile),
+            sourceManager.getOrCreateFileEntry(getKtFile(file)),
             moduleDescriptor.getPackage(file.packageFqName).fragments.first()
         )
         declarationStorage.registerFile(file, irFile)
@@ -251,7 +252,8 @@ class Fir2IrConverter(
             generatorExtensions: GeneratorExtensions,
             mangler: FirMangler,
             irFactory: IrFactory,
-            visibilityConverter: Fir2IrVisibilityConverter
+            visibilityConverter: Fir2IrVisibilityConverter,
+            getKtFile: (FirFile) -> KtFile = { it.psi as KtFile }
         ): Fir2IrResult {
             val moduleDescriptor = FirModuleDescriptor(session)
             val symbolTable = SymbolTable(signaturer, irFactory)
@@ -270,7 +272,7 @@ class Fir2IrConverter(
             val components = Fir2IrComponentsStorage(session, scopeSession, symbolTable, irBuiltIns, irFactory, mangler)
             val conversionScope = Fir2IrConversionScope()
             val classifierStorage = Fir2IrClassifierStorage(components)
-            val converter = Fir2IrConverter(moduleDescriptor, sourceManager, components)
+            val converter = Fir2IrConverter(moduleDescriptor, sourceManager, components, getKtFile)
             val fir2irVisitor = Fir2IrVisitor(converter, components, conversionScope)
             val declarationStorage = Fir2IrDeclarationStorage(components, fir2irVisitor, moduleDescriptor)
             val typeConverter = Fir2IrTypeConverter(components)
@@ -312,7 +314,7 @@ class Fir2IrConverter(
 
             for (firFile in firFiles) {
                 val irFile = firFile.accept(fir2irVisitor, null) as IrFile
-                val fileEntry = sourceManager.getOrCreateFileEntry(firFile.psi as KtFile)
+                val fileEntry = sourceManager.getOrCreateFileEntry(getKtFile(firFile))
                 sourceManager.putFileEntry(irFile, fileEntry)
             }
 
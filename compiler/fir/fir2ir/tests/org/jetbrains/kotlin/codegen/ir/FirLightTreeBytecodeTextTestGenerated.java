@@ -0,0 +1,91 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.codegen.ir;
+
+import com.intellij.testFramework.TestDataPath;
+import org.jetbrains.kotlin.test.JUnit3RunnerWithInners;
+import org.jetbrains.kotlin.test.KotlinTestUtils;
+import org.jetbrains.kotlin.test.TargetBackend;
+import org.jetbrains.kotlin.test.TestMetadata;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.regex.Pattern;
+
+/** This class is generated by {@link org.jetbrains.kotlin.generators.tests.TestsPackage}. DO NOT MODIFY MANUALLY */
+@SuppressWarnings("all")
+@TestMetadata("compiler/testData/codegen/bytecodeText/lineNumbers")
+@TestDataPath("$PROJECT_ROOT")
+@RunWith(JUnit3RunnerWithInners.class)
+public class FirLightTreeBytecodeTextTestGenerated extends AbstractFirLightTreeBytecodeTextTest {
+    private void runTest(String testDataFilePath) throws Exception {
+        KotlinTestUtils.runTestWithCustomIgnoreDirective(this::doTest, TargetBackend.JVM_IR, testDataFilePath, "// IGNORE_BACKEND_FIR: ");
+    }
+
+    public void testAllFilesPresentInLineNumbers() throws Exception {
+        KotlinTestUtils.assertAllTestsPresentByMetadataWithExcluded(this.getClass(), new File("compiler/testData/codegen/bytecodeText/lineNumbers"), Pattern.compile("^(.+)\\.kt$"), null, TargetBackend.JVM_IR, true);
+    }
+
+    @TestMetadata("ifConsts.kt")
+    public void testIfConsts() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/ifConsts.kt");
+    }
+
+    @TestMetadata("ifElse.kt")
+    public void testIfElse() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/ifElse.kt");
+    }
+
+    @TestMetadata("ifFalse.kt")
+    public void testIfFalse() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/ifFalse.kt");
+    }
+
+    @TestMetadata("ifFalseElse.kt")
+    public void testIfFalseElse() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/ifFalseElse.kt");
+    }
+
+    @TestMetadata("ifTrue.kt")
+    public void testIfTrue() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/ifTrue.kt");
+    }
+
+    @TestMetadata("ifTrueElse.kt")
+    public void testIfTrueElse() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/ifTrueElse.kt");
+    }
+
+    @TestMetadata("inlineCondition.kt")
+    public void testInlineCondition() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/inlineCondition.kt");
+    }
+
+    @TestMetadata("inlineCondition2.kt")
+    public void testInlineCondition2() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/inlineCondition2.kt");
+    }
+
+    @TestMetadata("inlineLambdaObjectInit.kt")
+    public void testInlineLambdaObjectInit() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/inlineLambdaObjectInit.kt");
+    }
+
+    @TestMetadata("singleThen.kt")
+    public void testSingleThen() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/singleThen.kt");
+    }
+
+    @TestMetadata("tryCatch.kt")
+    public void testTryCatch() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/tryCatch.kt");
+    }
+
+    @TestMetadata("when.kt")
+    public void testWhen() throws Exception {
+        runTest("compiler/testData/codegen/bytecodeText/lineNumbers/when.kt");
+    }
+}
@@ -467,11 +467,11 @@ class JavaSymbolProvider(
         }
     }
 
-    private val knownClassNamesInPackage = mutableMapOf<FqName, Set<String>?>()
+    private val knownClassNamesInPackage = SymbolProviderCache<FqName, Set<String>>()
 
     private fun hasTopLevelClassOf(classId: ClassId): Boolean {
-        val knownNames = knownClassNamesInPackage.getOrPut(classId.packageFqName) {
-            facade.knownClassNamesInPackage(classId.packageFqName, searchScope)
+        val knownNames = knownClassNamesInPackage.lookupCacheOrCalculate(classId.packageFqName) {
+            facade.knownClassNamesInPackage(it, searchScope)
         } ?: return true
         return classId.relativeClassName.topLevelName() in knownNames
     }
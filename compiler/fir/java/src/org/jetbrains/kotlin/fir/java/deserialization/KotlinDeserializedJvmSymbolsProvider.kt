@@ -66,7 +66,7 @@ class KotlinDeserializedJvmSymbolsProvider(
     private val typeAliasCache = SymbolProviderCache<ClassId, FirTypeAliasSymbol>()
     private val packagePartsCache = SymbolProviderCache<FqName, Collection<PackagePartsCacheData>>()
 
-    // TODO: implement thread safety for this property
+    // accessed only under the lock of symbol provider caches if they are thread-safe
     private val handledByJava = HashSet<ClassId>()
 
     private class PackagePartsCacheData(
@@ -88,13 +88,13 @@ class KotlinDeserializedJvmSymbolsProvider(
         }
     }
 
-    private val knownClassNamesInPackage = mutableMapOf<FqName, Set<String>?>()
+    private val knownClassNamesInPackage = SymbolProviderCache<FqName, Set<String>>()
 
     // This function returns true if we are sure that no top-level class with this id is available
     // If it returns false, it means we can say nothing about this id
     private fun hasNoTopLevelClassOf(classId: ClassId): Boolean {
-        val knownNames = knownClassNamesInPackage.getOrPut(classId.packageFqName) {
-            javaClassFinder.knownClassNamesInPackage(classId.packageFqName)
+        val knownNames = knownClassNamesInPackage.lookupCacheOrCalculate(classId.packageFqName) {
+            javaClassFinder.knownClassNamesInPackage(it)
         } ?: return false
         return classId.relativeClassName.topLevelName() !in knownNames
     }
@@ -306,7 +306,18 @@ class KotlinDeserializedJvmSymbolsProvider(
     ): FirRegularClassSymbol? {
         if (hasNoTopLevelClassOf(classId)) return null
         if (classId in classCache) return classCache[classId]
+        if (!classCache.isThreadSafe) return deserializeClass(classId, parentContext)
 
+        // the class becomes visible to other threads only when its annotations are loaded
+        return SymbolProviderCache.calculateSynchronized {
+            if (classId in classCache) classCache[classId] else deserializeClass(classId, parentContext)
+        }
+    }
+
+    private fun deserializeClass(
+        classId: ClassId,
+        parentContext: FirDeserializationContext?
+    ): FirRegularClassSymbol? {
         if (classId in handledByJava) return null
 
         val result = try {
@@ -17,12 +17,15 @@ import org.jetbrains.kotlin.cli.jvm.compiler.EnvironmentConfigFiles
 import org.jetbrains.kotlin.cli.jvm.compiler.KotlinCoreEnvironment
 import org.jetbrains.kotlin.cli.jvm.compiler.TopDownAnalyzerFacadeForJVM
 import org.jetbrains.kotlin.fir.analysis.FirCheckersResolveProcessor
+import org.jetbrains.kotlin.fir.analysis.FirParallelCheckersResolveProcessor
 import org.jetbrains.kotlin.fir.builder.RawFirBuilder
 import org.jetbrains.kotlin.fir.declarations.FirFile
 import org.jetbrains.kotlin.fir.dump.MultiModuleHtmlFirDump
 import org.jetbrains.kotlin.fir.lightTree.LightTree2Fir
+import org.jetbrains.kotlin.fir.lightTree.LightTreeCache
 import org.jetbrains.kotlin.fir.resolve.ScopeSession
 import org.jetbrains.kotlin.fir.resolve.firProvider
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
 import org.jetbrains.kotlin.fir.resolve.providers.impl.FirProviderImpl
 import org.jetbrains.kotlin.fir.resolve.transformers.createAllCompilerResolveProcessors
 import org.jetbrains.kotlin.fir.scopes.ProcessorAction
@@ -44,7 +47,9 @@ internal val PASSES = System.getProperty("fir.bench.passes")?.toInt() ?: 3
 internal val SEPARATE_PASS_DUMP = System.getProperty("fir.bench.dump.separate_pass", "false").toBooleanLenient()!!
 private val APPEND_ERROR_REPORTS = System.getProperty("fir.bench.report.errors.append", "false").toBooleanLenient()!!
 private val RUN_CHECKERS = System.getProperty("fir.bench.run.checkers", "false").toBooleanLenient()!!
-private val USE_LIGHT_TREE = System.getProperty("fir.bench.use.light.tree", "false").toBooleanLenient()!!
+// checkers are run in parallel if more than one thread is requested
+private val CHECKERS_THREADS = System.getProperty("fir.bench.checkers.threads")?.toInt() ?: 1
+internal val USE_LIGHT_TREE = System.getProperty("fir.bench.use.light.tree", "false").toBooleanLenient()!!
 private val DUMP_MEMORY = System.getProperty("fir.bench.dump.memory", "false").toBooleanLenient()!!
 
 private val ASYNC_PROFILER_LIB = System.getProperty("fir.bench.use.async.profiler.lib")
@@ -96,20 +101,21 @@ class FirResolveModularizedTotalKotlinTest : AbstractModularizedTest() {
         val scope = GlobalSearchScope.filesScope(project, ktFiles.map { it.virtualFile })
             .uniteWith(TopDownAnalyzerFacadeForJVM.AllJavaSourcesInProjectScope(project))
         val librariesScope = ProjectScope.getLibrariesScope(project)
+        if (RUN_CHECKERS && CHECKERS_THREADS > 1) {
+            // parallel checkers query the caches of the session from several threads
+            System.setProperty(SymbolProviderCache.THREAD_SAFE_PROPERTY, "true")
+        }
         val session = createSession(environment, scope, librariesScope, moduleData.qualifiedName)
         val scopeSession = ScopeSession()
-        val processors = createAllCompilerResolveProcessors(session, scopeSession).let {
-            if (RUN_CHECKERS) {
-                it + FirCheckersResolveProcessor(session, scopeSession)
-            } else {
-                it
-            }
-        }
 
         val firProvider = session.firProvider as FirProviderImpl
-        val firFiles = if (USE_LIGHT_TREE) {
-            val lightTree2Fir = LightTree2Fir(session, firProvider.kotlinScopeProvider, stubMode = false)
-
+        // with -Dkotlin.fir.light.tree.cache=true, passes after the first one reuse the light trees of the previous pass
+        val lightTree2Fir = if (USE_LIGHT_TREE) {
+            LightTree2Fir(session, firProvider.kotlinScopeProvider, stubMode = false, lightTreeCache = LightTreeCache.shared)
+        } else {
+            null
+        }
+        val firFiles = if (lightTree2Fir != null) {
             val allSourceFiles = moduleData.sources.flatMap {
                 if (it.isDirectory) {
                     it.walkTopDown().toList()
@@ -127,12 +133,20 @@ class FirResolveModularizedTotalKotlinTest : AbstractModularizedTest() {
 
         //println("Raw FIR up, files: ${firFiles.size}")
 
+        val processors = createAllCompilerResolveProcessors(session, scopeSession).let {
+            when {
+                !RUN_CHECKERS -> it
+                CHECKERS_THREADS > 1 -> it + FirParallelCheckersResolveProcessor(session, scopeSession, firFiles, CHECKERS_THREADS)
+                else -> it + FirCheckersResolveProcessor(session, scopeSession)
+            }
+        }
         bench.processFiles(firFiles, processors)
         createMemoryDump(moduleData)
 
         val disambiguatedName = moduleData.disambiguatedName()
         dumpFir(disambiguatedName, moduleData, firFiles)
         dumpFirHtml(disambiguatedName, moduleData, firFiles)
+        lightTree2Fir?.releaseLightTrees()
     }
 
     private fun dumpFir(disambiguatedName: String, moduleData: ModuleData, firFiles: List<FirFile>) {
@@ -188,6 +202,7 @@ class FirResolveModularizedTotalKotlinTest : AbstractModularizedTest() {
     override fun afterPass(pass: Int) {
         val statistics = bench.getTotalStatistics()
         statistics.report(System.out, "Pass $pass")
+        LightTreeCache.shared?.let { println(it.statistics) }
 
         saveReport(pass, statistics)
         if (statistics.totalTime < (bestStatistics?.totalTime ?: Long.MAX_VALUE)) {
@@ -199,6 +199,7 @@ class FullPipelineModularizedTest : AbstractModularizedTest() {
         args.reportPerf = true
         args.jvmTarget = "1.8"
         args.useFir = true
+        args.useFirLightTree = USE_LIGHT_TREE
         args.classpath = moduleData.classpath.joinToString(separator = ":") { it.absolutePath }
         args.javaSourceRoots = moduleData.javaSourceRoots.map { it.absolutePath }.toTypedArray()
         args.allowKotlinPackage = true
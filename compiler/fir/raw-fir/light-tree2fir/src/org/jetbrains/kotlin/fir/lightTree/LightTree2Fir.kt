@@ -24,8 +24,12 @@ import java.nio.file.Path
 class LightTree2Fir(
     val session: FirSession,
     private val scopeProvider: FirScopeProvider,
-    private val stubMode: Boolean = false
+    private val stubMode: Boolean = false,
+    private val lightTreeCache: LightTreeCache? = null
 ) {
+    // trees taken from the cache, which are given back by releaseLightTrees
+    private val leasedLightTrees = mutableListOf<Pair<LightTreeCache.Key, FlyweightCapableTreeStructure<LighterASTNode>>>()
+
     //private val ktDummyFile = KtFile(SingleRootFileViewProvider(PsiManager.getInstance(project), LightVirtualFile()), false)
 
     companion object {
@@ -64,9 +68,26 @@ class LightTree2Fir(
     }
 
     fun buildFirFile(code: String, fileName: String): FirFile {
-        val lightTree = buildLightTree(code)
+        val lightTree = if (lightTreeCache != null) {
+            val key = LightTreeCache.Key(code)
+            (lightTreeCache.take(key) ?: buildLightTree(code)).also { leasedLightTrees += key to it }
+        } else {
+            buildLightTree(code)
+        }
 
         return DeclarationsConverter(session, scopeProvider, stubMode, lightTree)
             .convertFile(lightTree.root, fileName)
     }
+
+    /**
+     * Returns the light trees of the files built so far to [lightTreeCache].
+     * Must be called only when the FIR built by this instance, which references the trees from its source elements, is not used anymore.
+     */
+    fun releaseLightTrees() {
+        if (lightTreeCache == null) return
+        for ((key, lightTree) in leasedLightTrees) {
+            lightTreeCache.release(key, lightTree)
+        }
+        leasedLightTrees.clear()
+    }
 }
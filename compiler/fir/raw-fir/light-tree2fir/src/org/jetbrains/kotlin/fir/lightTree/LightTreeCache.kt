@@ -0,0 +1,96 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir.lightTree
+
+import com.intellij.lang.LighterASTNode
+import com.intellij.util.diff.FlyweightCapableTreeStructure
+import java.security.MessageDigest
+
+/**
+ * Light trees of source files keyed by the hash of the file text, so that lexing and parsing of unchanged files is skipped
+ * when the same process compiles them again, e.g. in the daemon.
+ *
+ * A light tree is not thread-safe and is referenced from the source elements of the FIR built from it, so it is leased:
+ * [take] removes it from the cache, and it comes back with [release] once the FIR built from it is not used anymore.
+ * A compilation asking for a tree leased by another one parses the file anew.
+ *
+ * The cache lives in memory only, so the trees in it are always built by the running compiler.
+ * It is bounded by the total length of the texts of the cached trees; the least recently used trees are dropped first.
+ */
+class LightTreeCache(private val maxTextLength: Long = DEFAULT_MAX_TEXT_LENGTH) {
+    private val trees = LinkedHashMap<Key, FlyweightCapableTreeStructure<LighterASTNode>>(16, 0.75f, /* accessOrder = */ true)
+    private var textLength = 0L
+
+    private var hits = 0L
+    private var misses = 0L
+    private var evictions = 0L
+
+    @Synchronized
+    fun take(key: Key): FlyweightCapableTreeStructure<LighterASTNode>? {
+        val tree = trees.remove(key)
+        if (tree != null) {
+            hits++
+            textLength -= key.textLength
+        } else {
+            misses++
+        }
+        return tree
+    }
+
+    @Synchronized
+    fun release(key: Key, tree: FlyweightCapableTreeStructure<LighterASTNode>) {
+        if (key.textLength > maxTextLength) return
+        if (trees.put(key, tree) == null) {
+            textLength += key.textLength
+        }
+        val iterator = trees.entries.iterator()
+        while (textLength > maxTextLength && iterator.hasNext()) {
+            textLength -= iterator.next().key.textLength
+            iterator.remove()
+            evictions++
+        }
+    }
+
+    @Synchronized
+    fun clear() {
+        trees.clear()
+        textLength = 0
+    }
+
+    val statistics: String
+        @Synchronized
+        get() = "light tree cache: ${trees.size} trees of $textLength chars, hits $hits, misses $misses, evictions $evictions"
+
+    override fun toString(): String = statistics
+
+    /**
+     * Identifies a file text by its SHA-256 digest, so that the cache doesn't keep the texts themselves.
+     */
+    class Key(code: CharSequence) {
+        val textLength: Int = code.length
+        private val digest: ByteArray = MessageDigest.getInstance("SHA-256").digest(code.toString().toByteArray(Charsets.UTF_8))
+        private val hashCode: Int = digest.contentHashCode()
+
+        override fun equals(other: Any?): Boolean =
+            other is Key && textLength == other.textLength && digest.contentEquals(other.digest)
+
+        override fun hashCode(): Int = hashCode
+    }
+
+    companion object {
+        const val ENABLED_PROPERTY = "kotlin.fir.light.tree.cache"
+
+        private const val DEFAULT_MAX_TEXT_LENGTH = 16L * 1024 * 1024
+
+        val isEnabled: Boolean
+            get() = System.getProperty(ENABLED_PROPERTY)?.toBoolean() == true
+
+        /**
+         * The cache shared by all compilations in this process, if enabled with the [ENABLED_PROPERTY] system property.
+         */
+        val shared: LightTreeCache? by lazy { if (isEnabled) LightTreeCache() else null }
+    }
+}
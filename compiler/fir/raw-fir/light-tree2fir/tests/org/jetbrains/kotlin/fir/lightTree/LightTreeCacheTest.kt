@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir.lightTree
+
+import org.jetbrains.kotlin.fir.builder.AbstractRawFirBuilderTestCase
+import org.jetbrains.kotlin.fir.builder.StubFirScopeProvider
+import org.jetbrains.kotlin.fir.render
+import org.jetbrains.kotlin.fir.session.FirSessionFactory
+import org.jetbrains.kotlin.test.JUnit3RunnerWithInners
+import org.junit.runner.RunWith
+
+@RunWith(JUnit3RunnerWithInners::class)
+class LightTreeCacheTest : AbstractRawFirBuilderTestCase() {
+    private val code = """
+        package test
+
+        class A(val x: Int) {
+            fun foo(y: Int): Int = x + y
+        }
+    """.trimIndent()
+
+    private fun createConverter(cache: LightTreeCache) =
+        LightTree2Fir(FirSessionFactory.createEmptySession(), StubFirScopeProvider, stubMode = false, lightTreeCache = cache)
+
+    fun testReusedTreeGivesSameFir() {
+        val cache = LightTreeCache()
+
+        val first = createConverter(cache)
+        val expected = first.buildFirFile(code, "a.kt").render()
+        first.releaseLightTrees()
+
+        val second = createConverter(cache)
+        assertEquals(expected, second.buildFirFile(code, "a.kt").render())
+        assertNull("Leased tree must not be given to another converter", cache.take(LightTreeCache.Key(code)))
+        second.releaseLightTrees()
+
+        assertNotNull(cache.take(LightTreeCache.Key(code)))
+    }
+
+    fun testLeastRecentlyUsedTreeIsEvicted() {
+        val otherCode = code.replace("class A", "class B")
+        val cache = LightTreeCache(maxTextLength = code.length + otherCode.length - 1L)
+
+        val converter = createConverter(cache)
+        converter.buildFirFile(code, "a.kt")
+        converter.buildFirFile(otherCode, "b.kt")
+        converter.releaseLightTrees()
+
+        assertNull(cache.take(LightTreeCache.Key(code)))
+        assertNotNull(cache.take(LightTreeCache.Key(otherCode)))
+    }
+
+    fun testTreeIsFoundByEqualText() {
+        val cache = LightTreeCache()
+
+        val converter = createConverter(cache)
+        converter.buildFirFile(code, "a.kt")
+        converter.releaseLightTrees()
+
+        // the key depends on the content only, not on the text instance
+        assertNull(cache.take(LightTreeCache.Key(code.replace("class A", "class B"))))
+        assertNotNull(cache.take(LightTreeCache.Key(StringBuilder(code))))
+    }
+}
@@ -10,13 +10,14 @@ import org.jetbrains.kotlin.descriptors.Visibility
 import org.jetbrains.kotlin.fir.declarations.*
 import org.jetbrains.kotlin.fir.resolve.ScopeSession
 import org.jetbrains.kotlin.fir.resolve.firSymbolProvider
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
 import org.jetbrains.kotlin.fir.symbols.impl.FirClassLikeSymbol
 import org.jetbrains.kotlin.name.ClassId
 import org.jetbrains.kotlin.utils.addToStdlib.safeAs
 
 @ThreadSafeMutableState
 open class FirEffectiveVisibilityResolverImpl(private val session: FirSession) : FirEffectiveVisibilityResolver() {
-    private val cache = mutableMapOf<FirSourceElement, FirEffectiveVisibility>()
+    private val cache = SymbolProviderCache.createMap<FirSourceElement, FirEffectiveVisibility>()
 
     final override fun resolveFor(
         declaration: FirMemberDeclaration,
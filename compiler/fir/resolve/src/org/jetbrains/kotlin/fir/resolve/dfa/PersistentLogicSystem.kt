@@ -19,6 +19,8 @@ data class PersistentTypeStatement(
     override val exactNotType: PersistentSet<ConeKotlinType>
 ) : TypeStatement() {
     override operator fun plus(other: TypeStatement): PersistentTypeStatement {
+        // most of the statements added to a flow repeat the known ones, keep the existing nodes then
+        if (exactType.containsAll(other.exactType) && exactNotType.containsAll(other.exactNotType)) return this
         return PersistentTypeStatement(
             variable,
             exactType + other.exactType,
@@ -110,9 +112,13 @@ abstract class PersistentLogicSystem(context: ConeInferenceContext) : LogicSyste
             flows,
             mergeOperation = { statements -> this.or(statements).takeIf { it.isNotEmpty } },
             computeVariables = { computeVariablesDiffWithCommonFlow ->
-                flows.map {
-                    computeVariablesDiffWithCommonFlow(it).toList()
-                }.intersectSets().takeIf { it.isNotEmpty() }
+                val variablesOfFlows = ArrayList<List<RealVariable>>(flows.size)
+                for (flow in flows) {
+                    // nothing is known in all the flows if one of them adds nothing to the common flow
+                    val variables = computeVariablesDiffWithCommonFlow(flow).toList().takeIf { it.isNotEmpty() } ?: return@foldFlow null
+                    variablesOfFlows += variables
+                }
+                variablesOfFlows.intersectSets().takeIf { it.isNotEmpty() }
             }
         )
     }
@@ -160,6 +166,7 @@ abstract class PersistentLogicSystem(context: ConeInferenceContext) : LogicSyste
     ): MutableMap<RealVariable, RealVariableAndType> {
         val flowsSize = flows.size
         val aliasedVariablesThatDontChangeAlias = mutableMapOf<RealVariable, RealVariableAndType>()
+        if (flows.any { it.directAliasMap.isEmpty() }) return aliasedVariablesThatDontChangeAlias
 
         flows.flatMapTo(mutableSetOf()) { it.directAliasMap.keys }.forEach { aliasedVariable ->
             val originals = flows.map { it.directAliasMap[aliasedVariable] ?: return@forEach }
@@ -478,7 +485,8 @@ private fun PersistentApprovedTypeStatements.addTypeStatement(info: TypeStatemen
         val persistentInfo = if (info is PersistentTypeStatement) info else info.toPersistent()
         put(variable, persistentInfo)
     } else {
-        put(variable, existingInfo + info)
+        val newInfo = existingInfo + info
+        if (newInfo === existingInfo) this else put(variable, newInfo)
     }
 }
 
@@ -6,26 +6,53 @@
 package org.jetbrains.kotlin.fir.resolve.providers
 
 import org.jetbrains.kotlin.fir.PrivateForInline
+import java.util.concurrent.ConcurrentHashMap
 
-@Suppress("EXPERIMENTAL_FEATURE_WARNING")
-inline class SymbolProviderCache<K, V : Any> @PrivateForInline constructor(@PrivateForInline val cache: HashMap<K, Any>) {
-    @OptIn(PrivateForInline::class)
-    constructor() : this(HashMap())
+/**
+ * Cache of a symbol provider.
+ *
+ * By default it's a plain hash map for a session used by one thread, as in the compiler.
+ *
+ * If [isThreadSafe], the cache may be queried from several threads (e.g. by parallel checkers). Present values are looked up
+ * without locking. Missing values are calculated under one lock shared by all thread-safe caches, so calculations querying
+ * other providers can't dead-lock. Values calculated under the lock are visible to other threads only when the outermost
+ * calculation is finished, so other threads never see e.g. a class whose post-computation is in progress.
+ * Caches are thread-safe if they are created with -D[THREAD_SAFE_PROPERTY]=true, see [isThreadSafeByDefault].
+ */
+class SymbolProviderCache<K : Any, V : Any>(val isThreadSafe: Boolean = isThreadSafeByDefault) {
+    @PrivateForInline
+    val cache: MutableMap<K, Any> = if (isThreadSafe) ConcurrentHashMap() else HashMap()
+
+    // values calculated by the current thread, which are not published yet; accessed only under the lock
+    @PrivateForInline
+    val pending: HashMap<K, Any>? = if (isThreadSafe) HashMap() else null
 
     @PrivateForInline
     object NullValue
 
+    @PrivateForInline
+    object CalculationLock {
+        var depth = 0
+        val cachesWithPending = mutableListOf<SymbolProviderCache<*, *>>()
+
+        @OptIn(PrivateForInline::class)
+        fun publishPending() {
+            for (cache in cachesWithPending) {
+                cache.publishPending()
+            }
+            cachesWithPending.clear()
+        }
+    }
+
     @OptIn(PrivateForInline::class)
     inline fun lookupCacheOrCalculate(key: K, crossinline l: (K) -> V?): V? {
-        @Suppress("UNCHECKED_CAST")
-        return when (val value = cache[key]) {
-            null -> {
-                val calculated = l(key)
-                cache[key] = calculated ?: NullValue
-                calculated
-            }
-            NullValue -> null
-            else -> value as V
+        lookup(key)?.let { return unwrap(it) }
+        return calculateIfThreadSafe {
+            // another thread may have calculated the value while this one was waiting for the lock
+            if (isThreadSafe) lookup(key)?.let { return@calculateIfThreadSafe unwrap(it) }
+            val calculated = l(key)
+            put(key, calculated ?: NullValue)
+            calculated
         }
     }
 
@@ -33,33 +60,99 @@ inline class SymbolProviderCache<K, V : Any> @PrivateForInline constructor(@Priv
     inline fun <T> lookupCacheOrCalculateWithPostCompute(
         key: K, crossinline l: (K) -> Pair<V?, T>, postCompute: (V, T) -> Unit
     ): V? {
-        @Suppress("UNCHECKED_CAST")
-        return when (val value = cache[key]) {
-            null -> {
-                val calculated = l(key)
-                cache[key] = calculated.first ?: NullValue
-                calculated.first?.let { postCompute(it, calculated.second) }
-                calculated.first
-            }
-            NullValue -> null
-            else -> value as V
+        lookup(key)?.let { return unwrap(it) }
+        return calculateIfThreadSafe {
+            // another thread may have calculated the value while this one was waiting for the lock
+            if (isThreadSafe) lookup(key)?.let { return@calculateIfThreadSafe unwrap(it) }
+            val calculated = l(key)
+            put(key, calculated.first ?: NullValue)
+            calculated.first?.let { postCompute(it, calculated.second) }
+            calculated.first
         }
     }
 
     @OptIn(PrivateForInline::class)
-    operator fun contains(key: K): Boolean = key in cache
+    operator fun contains(key: K): Boolean = lookup(key) != null
 
-    @Suppress("UNCHECKED_CAST")
     @OptIn(PrivateForInline::class)
-    operator fun get(key: K): V? = cache[key].takeIf { it !== NullValue } as V?
+    operator fun get(key: K): V? = lookup(key)?.let { unwrap(it) }
 
     @OptIn(PrivateForInline::class)
     operator fun set(key: K, value: V) {
-        cache[key] = value
+        put(key, value)
     }
 
     @OptIn(PrivateForInline::class)
     fun remove(key: K) {
+        if (pending != null && Thread.holdsLock(CalculationLock)) {
+            pending.remove(key)
+        }
         cache.remove(key)
     }
+
+    @PrivateForInline
+    inline fun <R> calculateIfThreadSafe(block: () -> R): R =
+        if (isThreadSafe) calculateSynchronized(block) else block()
+
+    @PrivateForInline
+    fun lookup(key: K): Any? {
+        return cache[key] ?: if (pending != null && Thread.holdsLock(CalculationLock)) pending[key] else null
+    }
+
+    @PrivateForInline
+    fun put(key: K, value: Any) {
+        if (pending != null && Thread.holdsLock(CalculationLock)) {
+            if (pending.isEmpty()) {
+                CalculationLock.cachesWithPending += this
+            }
+            pending[key] = value
+        } else {
+            cache[key] = value
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    @PrivateForInline
+    fun unwrap(value: Any): V? = if (value === NullValue) null else value as V
+
+    @PrivateForInline
+    fun publishPending() {
+        cache.putAll(pending!!)
+        pending.clear()
+    }
+
+    companion object {
+        const val THREAD_SAFE_PROPERTY = "kotlin.fir.thread.safe.caches"
+
+        /**
+         * Whether caches of symbol providers and other session components are thread-safe. It's checked when a cache is created,
+         * so it should be set before sessions are created.
+         */
+        val isThreadSafeByDefault: Boolean
+            get() = System.getProperty(THREAD_SAFE_PROPERTY)?.toBoolean() == true
+
+        /**
+         * Map for another lazily filled cache of a session component, concurrent if [isThreadSafeByDefault].
+         */
+        fun <K : Any, V : Any> createMap(): MutableMap<K, V> =
+            if (isThreadSafeByDefault) ConcurrentHashMap() else LinkedHashMap()
+
+        /**
+         * Runs [block] under the lock used for calculations of all thread-safe symbol provider caches,
+         * for providers which fill them manually.
+         */
+        @OptIn(PrivateForInline::class)
+        inline fun <R> calculateSynchronized(block: () -> R): R {
+            synchronized(CalculationLock) {
+                CalculationLock.depth++
+                try {
+                    return block()
+                } finally {
+                    if (--CalculationLock.depth == 0) {
+                        CalculationLock.publishPending()
+                    }
+                }
+            }
+        }
+    }
 }
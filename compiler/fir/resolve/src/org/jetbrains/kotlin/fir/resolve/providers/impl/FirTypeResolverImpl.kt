@@ -16,6 +16,7 @@ import org.jetbrains.kotlin.fir.render
 import org.jetbrains.kotlin.fir.resolve.*
 import org.jetbrains.kotlin.fir.resolve.diagnostics.ConeWrongNumberOfTypeArgumentsError
 import org.jetbrains.kotlin.fir.resolve.getSymbolByLookupTag
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
 import org.jetbrains.kotlin.fir.resolve.substitution.ConeSubstitutor
 import org.jetbrains.kotlin.fir.scopes.FirScope
 import org.jetbrains.kotlin.fir.symbols.ConeTypeParameterLookupTag
@@ -35,7 +36,7 @@ class FirTypeResolverImpl(private val session: FirSession) : FirTypeResolver() {
 
     private data class ClassIdInSession(val session: FirSession, val id: ClassId)
 
-    private val implicitBuiltinTypeSymbols = mutableMapOf<ClassIdInSession, FirClassLikeSymbol<*>>()
+    private val implicitBuiltinTypeSymbols = SymbolProviderCache.createMap<ClassIdInSession, FirClassLikeSymbol<*>>()
 
     // TODO: get rid of session used here, and may be also of the cache above (see KT-30275)
     private fun resolveBuiltInQualified(id: ClassId, session: FirSession): FirClassLikeSymbol<*> {
@@ -135,6 +136,7 @@ class FirTypeResolverImpl(private val session: FirSession) : FirTypeResolver() {
             }
         }
         return symbol.constructType(typeArguments, typeRef.isMarkedNullable, typeRef.annotations.computeTypeAttributes())
+            .interned(session)
             .also {
                 val lookupTag = it.lookupTag
                 if (lookupTag is ConeClassLikeLookupTagImpl && symbol is FirClassLikeSymbol<*>) {
@@ -159,7 +161,7 @@ class FirTypeResolverImpl(private val session: FirSession) : FirTypeResolver() {
             parameters.toTypedArray(),
             typeRef.isMarkedNullable,
             attributes
-        )
+        ).interned(session)
     }
 
     override fun resolveType(
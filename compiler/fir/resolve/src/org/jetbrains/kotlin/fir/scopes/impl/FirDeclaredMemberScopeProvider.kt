@@ -11,15 +11,16 @@ import org.jetbrains.kotlin.fir.declarations.FirClass
 import org.jetbrains.kotlin.fir.declarations.classId
 import org.jetbrains.kotlin.fir.resolve.declaredMemberScopeProvider
 import org.jetbrains.kotlin.fir.resolve.providers.FirSymbolProvider
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
 import org.jetbrains.kotlin.fir.scopes.FirScope
 import org.jetbrains.kotlin.name.ClassId
 import org.jetbrains.kotlin.name.Name
-import org.jetbrains.kotlin.utils.getOrPutNullable
 
 @ThreadSafeMutableState
 class FirDeclaredMemberScopeProvider : FirSessionComponent {
-    private val declaredMemberCache = mutableMapOf<FirClass<*>, FirClassDeclaredMemberScope>()
-    private val nestedClassifierCache = mutableMapOf<FirClass<*>, FirNestedClassifierScope?>()
+    private val declaredMemberCache = SymbolProviderCache.createMap<FirClass<*>, FirClassDeclaredMemberScope>()
+    // empty scopes are cached too, since the concurrent map can't keep nulls
+    private val nestedClassifierCache = SymbolProviderCache.createMap<FirClass<*>, FirNestedClassifierScope>()
 
     fun getClassByClassId(classId: ClassId): FirClass<*>? {
         for ((clazz, _) in declaredMemberCache) {
@@ -51,9 +52,9 @@ class FirDeclaredMemberScopeProvider : FirSessionComponent {
     }
 
     fun nestedClassifierScope(klass: FirClass<*>): FirNestedClassifierScope? {
-        return nestedClassifierCache.getOrPutNullable(klass) {
-            FirNestedClassifierScope(klass).takeUnless { it.isEmpty() }
-        }
+        return nestedClassifierCache.getOrPut(klass) {
+            FirNestedClassifierScope(klass)
+        }.takeUnless { it.isEmpty() }
     }
 }
 
@@ -70,7 +70,7 @@ interface ConeInferenceContext : TypeSystemInferenceExtensionContext, ConeTypeCo
                 (arguments as List<ConeTypeProjection>).toTypedArray(),
                 nullable,
                 attributes,
-            )
+            ).interned(session)
             is ConeTypeParameterLookupTag -> ConeTypeParameterTypeImpl(
                 constructor,
                 nullable
@@ -10,6 +10,7 @@ import org.jetbrains.kotlin.fir.FirSessionComponent
 import org.jetbrains.kotlin.fir.ThreadSafeMutableState
 import org.jetbrains.kotlin.fir.declarations.FirClassLikeDeclaration
 import org.jetbrains.kotlin.fir.declarations.FirTypeParameterRefsOwner
+import org.jetbrains.kotlin.fir.resolve.providers.SymbolProviderCache
 import org.jetbrains.kotlin.fir.resolve.toSymbol
 import org.jetbrains.kotlin.fir.symbols.ConeClassLikeLookupTag
 import org.jetbrains.kotlin.fir.symbols.impl.FirClassLikeSymbol
@@ -17,11 +18,14 @@ import org.jetbrains.kotlin.types.AbstractTypeCheckerContext
 import org.jetbrains.kotlin.types.model.CaptureStatus
 import org.jetbrains.kotlin.types.model.SimpleTypeMarker
 import org.jetbrains.kotlin.types.model.TypeConstructorMarker
+import java.util.concurrent.ConcurrentHashMap
 
 @ThreadSafeMutableState
 class FirCorrespondingSupertypesCache(private val session: FirSession) : FirSessionComponent {
-    private val context = ConeTypeCheckerContext(isErrorTypeEqualsToAnything = false, isStubTypeEqualsToAnything = true, session = session)
-    private val cache = HashMap<ConeClassLikeLookupTag, Map<ConeClassLikeLookupTag, List<ConeClassLikeType>>?>(1000, 0.5f)
+    private val isThreadSafe = SymbolProviderCache.isThreadSafeByDefault
+    private val context = createContext()
+    private val cache: MutableMap<ConeClassLikeLookupTag, Map<ConeClassLikeLookupTag, List<ConeClassLikeType>>> =
+        if (isThreadSafe) ConcurrentHashMap(1000, 0.5f) else HashMap(1000, 0.5f)
 
     fun getCorrespondingSupertypes(
         type: ConeKotlinType,
@@ -32,11 +36,10 @@ class FirCorrespondingSupertypesCache(private val session: FirSession) : FirSess
         val lookupTag = type.lookupTag
         if (lookupTag == supertypeConstructor) return listOf(captureType(type))
 
-        if (lookupTag !in cache) {
-            cache[lookupTag] = computeSupertypesMap(lookupTag)
-        }
+        val supertypesMap = cache.getOrPut(lookupTag) { computeSupertypesMap(lookupTag) ?: NOT_A_CLASS }
+        if (supertypesMap === NOT_A_CLASS) return null
 
-        val resultTypes = cache[lookupTag]?.getOrDefault(supertypeConstructor, emptyList()) ?: return null
+        val resultTypes = supertypesMap.getOrDefault(supertypeConstructor, emptyList())
         if (type.typeArguments.isEmpty()) return resultTypes
 
         val capturedType = captureType(type)
@@ -46,6 +49,9 @@ class FirCorrespondingSupertypesCache(private val session: FirSession) : FirSess
         }
     }
 
+    private fun createContext(): ConeTypeCheckerContext =
+        ConeTypeCheckerContext(isErrorTypeEqualsToAnything = false, isStubTypeEqualsToAnything = true, session = session)
+
     private fun captureType(type: ConeClassLikeType): ConeClassLikeType =
         (context.captureFromArguments(type, CaptureStatus.FOR_SUBTYPING) ?: type) as ConeClassLikeType
 
@@ -61,7 +67,8 @@ class FirCorrespondingSupertypesCache(private val session: FirSession) : FirSess
             isNullable = false
         )
 
-        if (context.anySupertype(
+        // traversal of supertypes keeps its state in the context, so it can't be shared by threads
+        if ((if (isThreadSafe) createContext() else context).anySupertype(
                 defaultType,
                 { it !is ConeClassLikeType || it.lookupTag.toSymbol(session) !is FirClassLikeSymbol<*> }
             ) { supertype -> computeSupertypePolicyAndPutInMap(supertype, resultingMap) }
@@ -92,4 +99,9 @@ class FirCorrespondingSupertypesCache(private val session: FirSession) : FirSess
             }
         }
     }
+
+    private companion object {
+        // marks lookup tags which don't refer to classes, since the concurrent map can't keep nulls
+        val NOT_A_CLASS: Map<ConeClassLikeLookupTag, List<ConeClassLikeType>> = HashMap()
+    }
 }
@@ -0,0 +1,19 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir.types
+
+import org.jetbrains.kotlin.fir.FirSessionComponent
+import org.jetbrains.kotlin.fir.ThreadSafeMutableState
+import org.jetbrains.kotlin.types.SubtypingCache
+
+/**
+ * Session-wide results of subtyping checks made with [ConeTypeCheckerContext].
+ * Registered only if [SubtypingCache.isEnabled], and dropped together with the session.
+ */
+@ThreadSafeMutableState
+class FirSubtypingCache : FirSessionComponent {
+    val cache = SubtypingCache()
+}
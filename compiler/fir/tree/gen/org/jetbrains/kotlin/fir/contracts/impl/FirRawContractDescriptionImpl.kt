@@ -20,7 +20,7 @@ internal class FirRawContractDescriptionImpl(
     override val rawEffects: MutableList<FirExpression>,
 ) : FirRawContractDescription() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        rawEffects.forEach { it.accept(visitor, data) }
+        rawEffects.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirRawContractDescriptionImpl {
@@ -22,8 +22,8 @@ internal class FirResolvedContractDescriptionImpl(
     override val unresolvedEffects: MutableList<FirStatement>,
 ) : FirResolvedContractDescription() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        effects.forEach { it.accept(visitor, data) }
-        unresolvedEffects.forEach { it.accept(visitor, data) }
+        effects.acceptAll(visitor, data)
+        unresolvedEffects.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirResolvedContractDescriptionImpl {
@@ -52,15 +52,15 @@ internal class FirAnonymousFunctionImpl(
     }
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         returnTypeRef.accept(visitor, data)
         receiverTypeRef?.accept(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
-        valueParameters.forEach { it.accept(visitor, data) }
+        valueParameters.acceptAll(visitor, data)
         body?.accept(visitor, data)
         typeRef.accept(visitor, data)
         label?.accept(visitor, data)
-        typeParameters.forEach { it.accept(visitor, data) }
+        typeParameters.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirAnonymousFunctionImpl {
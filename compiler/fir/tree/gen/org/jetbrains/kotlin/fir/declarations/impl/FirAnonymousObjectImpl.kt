@@ -48,10 +48,10 @@ internal class FirAnonymousObjectImpl(
     }
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        typeParameters.forEach { it.accept(visitor, data) }
-        superTypeRefs.forEach { it.accept(visitor, data) }
-        declarations.forEach { it.accept(visitor, data) }
-        annotations.forEach { it.accept(visitor, data) }
+        typeParameters.acceptAll(visitor, data)
+        superTypeRefs.acceptAll(visitor, data)
+        declarations.acceptAll(visitor, data)
+        annotations.acceptAll(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
         typeRef.accept(visitor, data)
     }
@@ -55,11 +55,11 @@ internal class FirConstructorImpl(
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         returnTypeRef.accept(visitor, data)
         receiverTypeRef?.accept(visitor, data)
-        typeParameters.forEach { it.accept(visitor, data) }
+        typeParameters.acceptAll(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
-        valueParameters.forEach { it.accept(visitor, data) }
+        valueParameters.acceptAll(visitor, data)
         status.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         delegatedConstructor?.accept(visitor, data)
         body?.accept(visitor, data)
     }
@@ -63,7 +63,7 @@ internal class FirDefaultSetterValueParameter(
         delegate?.accept(visitor, data)
         getter?.accept(visitor, data)
         setter?.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
         defaultValue?.accept(visitor, data)
     }
@@ -59,8 +59,8 @@ internal class FirEnumEntryImpl(
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         returnTypeRef.accept(visitor, data)
         initializer?.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        typeParameters.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        typeParameters.acceptAll(visitor, data)
         status.accept(visitor, data)
     }
 
@@ -49,11 +49,11 @@ internal class FirErrorFunctionImpl(
     }
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         returnTypeRef.accept(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
-        valueParameters.forEach { it.accept(visitor, data) }
-        typeParameters.forEach { it.accept(visitor, data) }
+        valueParameters.acceptAll(visitor, data)
+        typeParameters.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirErrorFunctionImpl {
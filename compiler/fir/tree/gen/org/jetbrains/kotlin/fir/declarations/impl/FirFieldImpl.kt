@@ -58,8 +58,8 @@ internal class FirFieldImpl(
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         returnTypeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        typeParameters.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        typeParameters.acceptAll(visitor, data)
         status.accept(visitor, data)
     }
 
@@ -35,9 +35,9 @@ internal class FirFileImpl(
     override val packageFqName: FqName,
 ) : FirFile() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
-        imports.forEach { it.accept(visitor, data) }
-        declarations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        imports.acceptAll(visitor, data)
+        declarations.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirFileImpl {
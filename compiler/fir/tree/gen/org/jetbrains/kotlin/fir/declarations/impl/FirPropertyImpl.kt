@@ -69,8 +69,8 @@ internal class FirPropertyImpl(
         delegate?.accept(visitor, data)
         getter?.accept(visitor, data)
         setter?.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        typeParameters.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        typeParameters.acceptAll(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
         status.accept(visitor, data)
     }
@@ -58,12 +58,12 @@ open class FirSimpleFunctionImpl @FirImplementationDetail constructor(
         returnTypeRef.accept(visitor, data)
         receiverTypeRef?.accept(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
-        valueParameters.forEach { it.accept(visitor, data) }
+        valueParameters.acceptAll(visitor, data)
         body?.accept(visitor, data)
         status.accept(visitor, data)
         contractDescription.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        typeParameters.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        typeParameters.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirSimpleFunctionImpl {
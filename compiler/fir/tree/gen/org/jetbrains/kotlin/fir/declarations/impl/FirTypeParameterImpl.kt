@@ -41,8 +41,8 @@ internal class FirTypeParameterImpl(
     }
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        bounds.forEach { it.accept(visitor, data) }
-        annotations.forEach { it.accept(visitor, data) }
+        bounds.acceptAll(visitor, data)
+        annotations.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirTypeParameterImpl {
@@ -59,7 +59,7 @@ open class FirValueParameterImpl @FirImplementationDetail constructor(
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         returnTypeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         controlFlowGraphReference?.accept(visitor, data)
         defaultValue?.accept(visitor, data)
     }
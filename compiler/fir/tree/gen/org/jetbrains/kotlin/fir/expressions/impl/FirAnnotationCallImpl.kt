@@ -31,7 +31,7 @@ internal class FirAnnotationCallImpl(
     override val typeRef: FirTypeRef get() = annotationTypeRef
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         argumentList.accept(visitor, data)
         calleeReference.accept(visitor, data)
         annotationTypeRef.accept(visitor, data)
@@ -20,7 +20,7 @@ internal class FirArgumentListImpl(
     override val arguments: MutableList<FirExpression>,
 ) : FirArgumentList() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        arguments.forEach { it.accept(visitor, data) }
+        arguments.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirArgumentListImpl {
@@ -25,7 +25,7 @@ internal class FirArrayOfCallImpl(
 ) : FirArrayOfCall() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         argumentList.accept(visitor, data)
     }
 
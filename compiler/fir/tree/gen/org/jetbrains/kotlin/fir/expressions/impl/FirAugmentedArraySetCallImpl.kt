@@ -28,7 +28,7 @@ internal class FirAugmentedArraySetCallImpl(
     override var calleeReference: FirReference,
 ) : FirAugmentedArraySetCall() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         assignCall.accept(visitor, data)
         setGetBlock.accept(visitor, data)
         calleeReference.accept(visitor, data)
@@ -26,8 +26,8 @@ internal class FirBlockImpl(
     override var typeRef: FirTypeRef = FirImplicitTypeRefImpl(null)
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
-        statements.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        statements.acceptAll(visitor, data)
         typeRef.accept(visitor, data)
     }
 
@@ -33,8 +33,8 @@ internal class FirCallableReferenceAccessImpl(
 ) : FirCallableReferenceAccess() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        typeArguments.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        typeArguments.acceptAll(visitor, data)
         explicitReceiver?.accept(visitor, data)
         if (dispatchReceiver !== explicitReceiver) {
             dispatchReceiver.accept(visitor, data)
@@ -26,7 +26,7 @@ internal class FirClassReferenceExpressionImpl(
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         classTypeRef.accept(visitor, data)
     }
 
@@ -41,8 +41,8 @@ internal class FirComponentCallImpl(
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        typeArguments.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        typeArguments.acceptAll(visitor, data)
         argumentList.accept(visitor, data)
         calleeReference.accept(visitor, data)
         explicitReceiver.accept(visitor, data)
@@ -33,7 +33,7 @@ internal class FirDelegatedConstructorCallImpl(
     override val isSuper: Boolean get() = !isThis
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         argumentList.accept(visitor, data)
         constructedTypeRef.accept(visitor, data)
         calleeReference.accept(visitor, data)
@@ -31,7 +31,7 @@ internal class FirErrorLoopImpl(
     override var condition: FirExpression = FirErrorExpressionImpl(source, ConeStubDiagnostic(diagnostic))
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         block.accept(visitor, data)
         condition.accept(visitor, data)
         label?.accept(visitor, data)
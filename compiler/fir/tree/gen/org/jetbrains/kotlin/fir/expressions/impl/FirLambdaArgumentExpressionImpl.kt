@@ -26,7 +26,7 @@ internal class FirLambdaArgumentExpressionImpl(
     override val isSpread: Boolean get() = false
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         expression.accept(visitor, data)
     }
 
@@ -30,7 +30,7 @@ internal class FirSafeCallExpressionImpl(
 ) : FirSafeCallExpression() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         receiver.accept(visitor, data)
         regularQualifiedAccess.accept(visitor, data)
     }
@@ -26,7 +26,7 @@ internal class FirSpreadArgumentExpressionImpl(
     override val isSpread: Boolean get() = true
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         expression.accept(visitor, data)
     }
 
@@ -26,8 +26,8 @@ internal class FirVarargArgumentsExpressionImpl(
 ) : FirVarargArgumentsExpression() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
-        arguments.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        arguments.acceptAll(visitor, data)
         varargElementType.accept(visitor, data)
     }
 
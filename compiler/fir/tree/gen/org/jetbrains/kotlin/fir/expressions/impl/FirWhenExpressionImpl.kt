@@ -32,7 +32,7 @@ internal class FirWhenExpressionImpl(
 ) : FirWhenExpression() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
         typeRef.accept(visitor, data)
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         calleeReference.accept(visitor, data)
         val subjectVariable_ = subjectVariable
         if (subjectVariable_ != null) {
@@ -40,7 +40,7 @@ internal class FirWhenExpressionImpl(
         } else {
             subject?.accept(visitor, data)
         }
-        branches.forEach { it.accept(visitor, data) }
+        branches.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirWhenExpressionImpl {
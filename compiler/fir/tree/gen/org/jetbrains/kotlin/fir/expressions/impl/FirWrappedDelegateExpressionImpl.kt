@@ -26,7 +26,7 @@ internal class FirWrappedDelegateExpressionImpl(
     override val typeRef: FirTypeRef get() = expression.typeRef
 
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         expression.accept(visitor, data)
         delegateProvider.accept(visitor, data)
     }
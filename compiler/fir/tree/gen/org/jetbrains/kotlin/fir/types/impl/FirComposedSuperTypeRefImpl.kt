@@ -22,8 +22,8 @@ internal class FirComposedSuperTypeRefImpl(
     override val superTypeRefs: MutableList<FirResolvedTypeRef>,
 ) : FirComposedSuperTypeRef() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
-        superTypeRefs.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
+        superTypeRefs.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirComposedSuperTypeRefImpl {
@@ -21,7 +21,7 @@ internal class FirDynamicTypeRefImpl(
     override val isMarkedNullable: Boolean,
 ) : FirDynamicTypeRef() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
     }
 
     override fun <D> transformChildren(transformer: FirTransformer<D>, data: D): FirDynamicTypeRefImpl {
@@ -27,9 +27,9 @@ internal class FirFunctionTypeRefImpl(
     override val isSuspend: Boolean,
 ) : FirFunctionTypeRef() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         receiverTypeRef?.accept(visitor, data)
-        valueParameters.forEach { it.accept(visitor, data) }
+        valueParameters.acceptAll(visitor, data)
         returnTypeRef.accept(visitor, data)
     }
 
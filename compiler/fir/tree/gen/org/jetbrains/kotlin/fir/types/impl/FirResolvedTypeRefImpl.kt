@@ -25,7 +25,7 @@ class FirResolvedTypeRefImpl @FirImplementationDetail constructor(
     override var delegatedTypeRef: FirTypeRef?,
 ) : FirResolvedTypeRef() {
     override fun <R, D> acceptChildren(visitor: FirVisitor<R, D>, data: D) {
-        annotations.forEach { it.accept(visitor, data) }
+        annotations.acceptAll(visitor, data)
         delegatedTypeRef?.accept(visitor, data)
     }
 
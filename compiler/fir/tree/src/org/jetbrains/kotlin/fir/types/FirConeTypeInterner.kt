@@ -0,0 +1,68 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir.types
+
+import org.jetbrains.kotlin.fir.FirSession
+import org.jetbrains.kotlin.fir.FirSessionComponent
+import org.jetbrains.kotlin.fir.ThreadSafeMutableState
+import org.jetbrains.kotlin.fir.types.impl.ConeClassLikeTypeImpl
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Session-wide table of class-like types, so that equal types built by type resolution, deserialization and inference
+ * share one instance (together with its arguments and cached expansion), and most of the equality checks
+ * between them succeed on the reference comparison.
+ *
+ * Types with attributes (including attributes of type arguments) are not interned: attributes do not take part
+ * in the equality of types, so two equal types with different attributes may not replace each other.
+ *
+ * The table is bounded: when it grows over [maxSize] it is dropped entirely, so that it doesn't keep every type
+ * of the session alive. Types interned before that stay valid, they are just not shared with the new ones.
+ * Registered only if [isEnabled].
+ */
+@ThreadSafeMutableState
+class FirConeTypeInterner(private val maxSize: Int = DEFAULT_MAX_SIZE) : FirSessionComponent {
+    private val classLikeTypes = ConcurrentHashMap<ConeClassLikeTypeImpl, ConeClassLikeTypeImpl>()
+
+    fun intern(type: ConeClassLikeTypeImpl): ConeClassLikeTypeImpl {
+        if (!type.hasNoAttributes()) return type
+        classLikeTypes[type]?.let { return it }
+        if (classLikeTypes.size >= maxSize) {
+            classLikeTypes.clear()
+        }
+        return classLikeTypes.putIfAbsent(type, type) ?: type
+    }
+
+    private fun ConeKotlinType.hasNoAttributes(): Boolean {
+        if (attributes !== ConeAttributes.Empty) return false
+        return when (this) {
+            is ConeClassLikeTypeImpl -> typeArguments.all { it !is ConeKotlinTypeProjection || it.type.hasNoAttributes() }
+            is ConeTypeParameterType -> true
+            else -> false
+        }
+    }
+
+    val size: Int
+        get() = classLikeTypes.size
+
+    companion object {
+        const val ENABLED_PROPERTY = "kotlin.fir.types.interning"
+
+        private const val DEFAULT_MAX_SIZE = 100_000
+
+        val isEnabled: Boolean
+            get() = System.getProperty(ENABLED_PROPERTY)?.toBoolean() == true
+    }
+}
+
+val FirSession.coneTypeInterner: FirConeTypeInterner? by FirSession.nullableSessionComponentAccessor()
+
+@Suppress("UNCHECKED_CAST")
+fun <T : ConeKotlinType> T.interned(session: FirSession): T {
+    if (this !is ConeClassLikeTypeImpl) return this
+    val interner = session.coneTypeInterner ?: return this
+    return interner.intern(this) as T
+}
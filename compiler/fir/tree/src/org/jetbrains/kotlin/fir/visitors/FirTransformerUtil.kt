@@ -13,6 +13,28 @@ fun <T : FirElement, D> T.transformSingle(transformer: FirTransformer<D>, data:
 }
 
 fun <T : FirElement, D> MutableList<T>.transformInplace(transformer: FirTransformer<D>, data: D) {
+    if (this !is RandomAccess) return transformInplaceWithIterator(transformer, data)
+    // indexed loop doesn't allocate an iterator, and unchanged elements are not written back
+    var index = 0
+    while (index < size) {
+        val next = this[index] as FirPureAbstractElement
+        val result = next.transform<T, D>(transformer, data)
+        if (result.isSingle) {
+            val single = result.single
+            if (single !== next) {
+                this[index] = single
+            }
+            index++
+        } else {
+            val list = result.list
+            removeAt(index)
+            addAll(index, list)
+            index += list.size
+        }
+    }
+}
+
+private fun <T : FirElement, D> MutableList<T>.transformInplaceWithIterator(transformer: FirTransformer<D>, data: D) {
     val iterator = this.listIterator()
     while (iterator.hasNext()) {
         val next = iterator.next() as FirPureAbstractElement
@@ -40,15 +62,15 @@ sealed class TransformData<out D> {
 }
 
 inline fun <T : FirElement, D> MutableList<T>.transformInplace(transformer: FirTransformer<D>, dataProducer: (Int) -> TransformData<D>) {
-    val iterator = this.listIterator()
-    var index = 0
-    while (iterator.hasNext()) {
-        val next = iterator.next() as FirPureAbstractElement
-        val data = when (val data = dataProducer(index++)) {
+    for (index in indices) {
+        val data = when (val data = dataProducer(index)) {
             is TransformData.Data<D> -> data.value
             TransformData.Nothing -> continue
         }
+        val next = this[index] as FirPureAbstractElement
         val result = next.transform<T, D>(transformer, data).single
-        iterator.set(result)
+        if (result !== next) {
+            this[index] = result
+        }
     }
 }
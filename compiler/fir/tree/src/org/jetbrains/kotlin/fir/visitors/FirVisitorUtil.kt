@@ -0,0 +1,21 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.fir.visitors
+
+import org.jetbrains.kotlin.fir.FirElement
+
+// Used by generated acceptChildren: child lists are array lists, so the indexed loop saves allocating an iterator per list
+fun <R, D> List<FirElement>.acceptAll(visitor: FirVisitor<R, D>, data: D) {
+    if (this is RandomAccess) {
+        for (index in indices) {
+            this[index].accept(visitor, data)
+        }
+    } else {
+        for (element in this) {
+            element.accept(visitor, data)
+        }
+    }
+}
@@ -165,7 +165,7 @@ fun SmartPrinter.printImplementation(implementation: Implementation) {
                                             }
 
                                             is FieldList -> {
-                                                println("${field.name}.forEach { it.accept(visitor, data) }")
+                                                println("${field.name}.acceptAll(visitor, data)")
                                             }
 
                                             else -> throw IllegalStateException()
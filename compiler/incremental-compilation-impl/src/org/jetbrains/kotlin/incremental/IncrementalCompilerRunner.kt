@@ -81,8 +81,10 @@ abstract class IncrementalCompilerRunner<
         }
 
         return try {
-            val changedFiles = providedChangedFiles ?: caches.inputsCache.sourceSnapshotMap.compareAndUpdate(allSourceFiles)
-            val compilationMode = sourcesToCompile(caches, changedFiles, args, messageCollector)
+            val compilationMode = measure(IncrementalCompilationPhase.CHANGES_DETECTION) {
+                val changedFiles = providedChangedFiles ?: caches.inputsCache.sourceSnapshotMap.compareAndUpdate(allSourceFiles)
+                sourcesToCompile(caches, changedFiles, args, messageCollector)
+            }
 
             val exitCode = when (compilationMode) {
                 is CompilationMode.Incremental -> {
@@ -93,7 +95,8 @@ abstract class IncrementalCompilerRunner<
                 }
             }
 
-            if (!caches.close(flush = true)) throw RuntimeException("Could not flush caches")
+            val flushed = measure(IncrementalCompilationPhase.CACHES_UPDATE) { caches.close(flush = true) }
+            if (!flushed) throw RuntimeException("Could not flush caches")
 
             return exitCode
         } catch (e: Exception) {
@@ -102,6 +105,15 @@ abstract class IncrementalCompilerRunner<
         }
     }
 
+    private inline fun <T> measure(phase: IncrementalCompilationPhase, body: () -> T): T {
+        val startNs = System.nanoTime()
+        try {
+            return body()
+        } finally {
+            reporter.reportPhaseTime(phase, System.nanoTime() - startNs)
+        }
+    }
+
     private fun clearLocalStateOnRebuild(args: Args) {
         val destinationDir = destinationDir(args)
 
@@ -223,10 +235,12 @@ abstract class IncrementalCompilerRunner<
         var exitCode = ExitCode.OK
 
         while (dirtySources.any() || runWithNoDirtyKotlinSources(caches)) {
-            val complementaryFiles = caches.platformCache.getComplementaryFilesRecursive(dirtySources)
-            dirtySources.addAll(complementaryFiles)
-            caches.platformCache.markDirty(dirtySources)
-            caches.inputsCache.removeOutputForSourceFiles(dirtySources)
+            measure(IncrementalCompilationPhase.DIRTY_SET_EXPANSION) {
+                val complementaryFiles = caches.platformCache.getComplementaryFilesRecursive(dirtySources)
+                dirtySources.addAll(complementaryFiles)
+                caches.platformCache.markDirty(dirtySources)
+                caches.inputsCache.removeOutputForSourceFiles(dirtySources)
+            }
 
             val lookupTracker = LookupTrackerImpl(LookupTracker.DO_NOTHING)
             val expectActualTracker = ExpectActualTrackerImpl()
@@ -246,13 +260,17 @@ abstract class IncrementalCompilerRunner<
             val bufferingMessageCollector = BufferingMessageCollector()
             val messageCollectorAdapter = MessageCollectorToOutputItemsCollectorAdapter(bufferingMessageCollector, outputItemsCollector)
 
-            exitCode = runCompiler(sourcesToCompile.toSet(), args, caches, services, messageCollectorAdapter)
+            exitCode = measure(IncrementalCompilationPhase.COMPILATION) {
+                runCompiler(sourcesToCompile.toSet(), args, caches, services, messageCollectorAdapter)
+            }
 
             val generatedFiles = outputItemsCollector.outputs.map(SimpleOutputItem::toGeneratedFile)
             if (compilationMode is CompilationMode.Incremental) {
                 // todo: feels dirty, can this be refactored?
                 val dirtySourcesSet = dirtySources.toHashSet()
-                val additionalDirtyFiles = additionalDirtyFiles(caches, generatedFiles, services).filter { it !in dirtySourcesSet }
+                val additionalDirtyFiles = measure(IncrementalCompilationPhase.DIRTY_SET_EXPANSION) {
+                    additionalDirtyFiles(caches, generatedFiles, services).filter { it !in dirtySourcesSet }
+                }
                 if (additionalDirtyFiles.isNotEmpty()) {
                     dirtySources.addAll(additionalDirtyFiles)
                     generatedFiles.forEach { it.outputFile.delete() }
@@ -267,28 +285,33 @@ abstract class IncrementalCompilerRunner<
 
             dirtySourcesSinceLastTimeFile.delete()
 
-            caches.platformCache.updateComplementaryFiles(dirtySources, expectActualTracker)
-            caches.inputsCache.registerOutputForSourceFiles(generatedFiles)
-            caches.lookupCache.update(lookupTracker, sourcesToCompile, removedKotlinSources)
             val changesCollector = ChangesCollector()
-            updateCaches(services, caches, generatedFiles, changesCollector)
+            measure(IncrementalCompilationPhase.CACHES_UPDATE) {
+                caches.platformCache.updateComplementaryFiles(dirtySources, expectActualTracker)
+                caches.inputsCache.registerOutputForSourceFiles(generatedFiles)
+                caches.lookupCache.update(lookupTracker, sourcesToCompile, removedKotlinSources)
+                updateCaches(services, caches, generatedFiles, changesCollector)
+            }
 
             if (compilationMode is CompilationMode.Rebuild) break
 
-            val (dirtyLookupSymbols, dirtyClassFqNames) = changesCollector.getDirtyData(listOf(caches.platformCache), reporter)
-            val compiledInThisIterationSet = sourcesToCompile.toHashSet()
-
-            with(dirtySources) {
-                clear()
-                addAll(mapLookupSymbolsToFiles(caches.lookupCache, dirtyLookupSymbols, reporter, excludes = compiledInThisIterationSet))
-                addAll(
-                    mapClassesFqNamesToFiles(
-                        listOf(caches.platformCache),
-                        dirtyClassFqNames,
-                        reporter,
-                        excludes = compiledInThisIterationSet
+            val (dirtyLookupSymbols, dirtyClassFqNames) = measure(IncrementalCompilationPhase.DIRTY_SET_EXPANSION) {
+                val dirtyData = changesCollector.getDirtyData(listOf(caches.platformCache), reporter)
+                val compiledInThisIterationSet = sourcesToCompile.toHashSet()
+
+                with(dirtySources) {
+                    clear()
+                    addAll(mapLookupSymbolsToFiles(caches.lookupCache, dirtyData.dirtyLookupSymbols, reporter, excludes = compiledInThisIterationSet))
+                    addAll(
+                        mapClassesFqNamesToFiles(
+                            listOf(caches.platformCache),
+                            dirtyData.dirtyClassesFqNames,
+                            reporter,
+                            excludes = compiledInThisIterationSet
+                        )
                     )
-                )
+                }
+                dirtyData
             }
 
             buildDirtyLookupSymbols.addAll(dirtyLookupSymbols)
@@ -303,7 +326,9 @@ abstract class IncrementalCompilerRunner<
         }
 
         val dirtyData = DirtyData(buildDirtyLookupSymbols, buildDirtyFqNames)
-        processChangesAfterBuild(compilationMode, currentBuildInfo, dirtyData)
+        measure(IncrementalCompilationPhase.CACHES_UPDATE) {
+            processChangesAfterBuild(compilationMode, currentBuildInfo, dirtyData)
+        }
 
         return exitCode
     }
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.incremental
+
+import com.intellij.openapi.util.io.FileUtil
+import org.jetbrains.kotlin.cli.common.ExitCode
+import org.jetbrains.kotlin.cli.common.arguments.CommonCompilerArguments
+import org.jetbrains.kotlin.cli.common.arguments.K2JSCompilerArguments
+import org.jetbrains.kotlin.cli.common.arguments.K2JVMCompilerArguments
+import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity
+import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSourceLocation
+import org.jetbrains.kotlin.cli.common.messages.MessageCollector
+import org.jetbrains.kotlin.cli.common.messages.OutputMessageUtil
+import org.jetbrains.kotlin.incremental.testingUtils.TouchPolicy
+import org.jetbrains.kotlin.incremental.testingUtils.copyTestSources
+import org.jetbrains.kotlin.incremental.testingUtils.getModificationsToPerform
+import org.jetbrains.kotlin.test.KotlinTestUtils
+import org.junit.Ignore
+import org.junit.Test
+import java.io.File
+import java.util.*
+
+/**
+ * Drives [IncrementalJvmCompilerRunner] and [IncrementalJsCompilerRunner] through recorded edit scenarios and reports
+ * the time of every [IncrementalCompilationPhase] of each incremental build, together with the number of recompiled files.
+ *
+ * A scenario is a directory in the format of incremental compilation tests: a project snapshot and numbered
+ * `.new`/`.touch`/`.delete` edits, e.g. from `jps-plugin/testData/incremental`. Scenarios are taken from
+ * the `kotlin.ic.benchmark.scenarios` system property (a list separated with the path separator) if it is set.
+ *
+ * The minimum number of files to recompile after an edit is estimated as the number of edited Kotlin files plus
+ * the recompiled files whose bytecode actually changed; outputs produced from several sources (e.g. JS) are not considered.
+ */
+@Ignore
+class IncrementalCompilationBenchmark {
+    @Test
+    fun runJvmScenarios() {
+        runScenarios(JvmBenchmarkPlatform)
+    }
+
+    @Test
+    fun runJsScenarios() {
+        runScenarios(JsBenchmarkPlatform)
+    }
+
+    private fun <Args : CommonCompilerArguments> runScenarios(platform: BenchmarkPlatform<Args>) {
+        for (scenarioDir in scenarios) {
+            if (!platform.supportsJava && scenarioDir.walk().any { it.extension == "java" }) continue
+
+            val results = (1..WARMUPS + REPETITIONS).map { runScenario(platform, scenarioDir) }.drop(WARMUPS)
+
+            for (step in results.first().indices) {
+                val stepResults = results.map { it[step] }
+                val phaseTimes = IncrementalCompilationPhase.values().joinToString { phase ->
+                    val averageMs = stepResults.map { it.phaseTimesNs[phase] ?: 0L }.average() / 1_000_000
+                    "${phase.name.toLowerCase().replace('_', ' ')} ${"%.1f".format(averageMs)} ms"
+                }
+                val last = stepResults.last()
+                println(
+                    "[${platform.name}] ${scenarioDir.name}, step #${step + 1}: $phaseTimes; " +
+                            "recompiled ${last.compiledFiles} files, minimum ${last.minimumCompiledFiles}"
+                )
+            }
+        }
+    }
+
+    private class StepResult(
+        val phaseTimesNs: Map<IncrementalCompilationPhase, Long>,
+        val compiledFiles: Int,
+        val minimumCompiledFiles: Int
+    )
+
+    private fun <Args : CommonCompilerArguments> runScenario(platform: BenchmarkPlatform<Args>, scenarioDir: File): List<StepResult> {
+        val workingDir = FileUtil.createTempDirectory(scenarioDir.name, null, /* deleteOnExit = */ true)
+        try {
+            val srcDir = File(workingDir, "src").apply { mkdirs() }
+            val cacheDir = File(workingDir, "incremental-data").apply { mkdirs() }
+            val outDir = File(workingDir, "out").apply { mkdirs() }
+
+            val mapWorkingToOriginalFile = HashMap(copyTestSources(scenarioDir, srcDir, filePrefix = ""))
+            val args = platform.createArguments(outDir, scenarioDir.name)
+
+            val outputs = OutputsSnapshot()
+            val initialBuild = make(platform, cacheDir, srcDir, args)
+            check(initialBuild.collector.errors.isEmpty()) { "Initial build failed: \n${initialBuild.collector.errors.joinToString("\n")}" }
+            outputs.update(initialBuild.collector)
+
+            val modifications = getModificationsToPerform(
+                scenarioDir,
+                moduleNames = null,
+                allowNoFilesWithSuffixInTestData = false,
+                touchPolicy = TouchPolicy.CHECKSUM
+            )
+
+            return modifications.map { step ->
+                val modifiedKotlinFiles = step.mapNotNullTo(HashSet()) { modification ->
+                    modification.perform(workingDir, mapWorkingToOriginalFile)?.takeIf { it.extension == "kt" }?.canonicalFile
+                }
+
+                val build = make(platform, cacheDir, srcDir, args)
+                val changedOutputSources = outputs.update(build.collector)
+                val minimum = build.reporter.compiledSources.count { it in modifiedKotlinFiles || it in changedOutputSources }
+
+                StepResult(build.reporter.phaseTimesNs, build.reporter.compiledSources.size, minimum)
+            }
+        } finally {
+            workingDir.deleteRecursively()
+        }
+    }
+
+    private class Build(val reporter: PhaseTimesICReporter, val collector: OutputsCollector)
+
+    private fun <Args : CommonCompilerArguments> make(platform: BenchmarkPlatform<Args>, cacheDir: File, srcDir: File, args: Args): Build {
+        val reporter = PhaseTimesICReporter()
+        val collector = OutputsCollector()
+        platform.make(cacheDir, listOf(srcDir), args, collector, reporter)
+        return Build(reporter, collector)
+    }
+
+    private class PhaseTimesICReporter : ICReporterBase() {
+        val phaseTimesNs = EnumMap<IncrementalCompilationPhase, Long>(IncrementalCompilationPhase::class.java)
+        val compiledSources = LinkedHashSet<File>()
+
+        override fun report(message: () -> String) {
+        }
+
+        override fun reportVerbose(message: () -> String) {
+        }
+
+        override fun reportCompileIteration(incremental: Boolean, sourceFiles: Collection<File>, exitCode: ExitCode) {
+            sourceFiles.mapTo(compiledSources) { it.canonicalFile }
+        }
+
+        override fun reportPhaseTime(phase: IncrementalCompilationPhase, timeNs: Long) {
+            phaseTimesNs[phase] = (phaseTimesNs[phase] ?: 0L) + timeNs
+        }
+    }
+
+    private class OutputsCollector : MessageCollector {
+        val errors = ArrayList<String>()
+        val outputsBySource = HashMap<File, MutableSet<File>>()
+
+        override fun report(severity: CompilerMessageSeverity, message: String, location: CompilerMessageSourceLocation?) {
+            when {
+                severity == CompilerMessageSeverity.OUTPUT -> {
+                    val output = OutputMessageUtil.parseOutputMessage(message) ?: return
+                    val outputFile = output.outputFile ?: return
+                    val source = output.sourceFiles.singleOrNull() ?: return
+                    outputsBySource.getOrPut(source.canonicalFile) { HashSet() }.add(outputFile.canonicalFile)
+                }
+                severity.isError -> errors.add(message)
+            }
+        }
+
+        override fun clear() {
+            errors.clear()
+            outputsBySource.clear()
+        }
+
+        override fun hasErrors(): Boolean =
+            errors.isNotEmpty()
+    }
+
+    // contents of the outputs of every source, as of the last build which compiled it
+    private class OutputsSnapshot {
+        private val outputsBySource = HashMap<File, Map<File, Int>>()
+
+        // returns the sources whose outputs differ from the previous snapshot
+        fun update(collector: OutputsCollector): Set<File> {
+            val changed = HashSet<File>()
+            for ((source, outputFiles) in collector.outputsBySource) {
+                val outputs = outputFiles.associateWith { if (it.isFile) it.readBytes().contentHashCode() else 0 }
+                if (outputsBySource.put(source, outputs) != outputs) {
+                    changed.add(source)
+                }
+            }
+            return changed
+        }
+    }
+
+    private abstract class BenchmarkPlatform<Args : CommonCompilerArguments>(val name: String, val supportsJava: Boolean) {
+        abstract fun createArguments(destinationDir: File, moduleName: String): Args
+
+        abstract fun make(cacheDir: File, sourceRoots: Iterable<File>, args: Args, messageCollector: MessageCollector, reporter: ICReporter)
+    }
+
+    private object JvmBenchmarkPlatform : BenchmarkPlatform<K2JVMCompilerArguments>("JVM", supportsJava = true) {
+        override fun createArguments(destinationDir: File, moduleName: String): K2JVMCompilerArguments =
+            K2JVMCompilerArguments().apply {
+                this.moduleName = moduleName
+                destination = destinationDir.path
+                classpath = listOf(
+                    File(DIST_KOTLINC_LIB, "kotlin-stdlib.jar"),
+                    KotlinTestUtils.getAnnotationsJar()
+                ).joinToString(File.pathSeparator) { it.canonicalPath }
+            }
+
+        override fun make(
+            cacheDir: File,
+            sourceRoots: Iterable<File>,
+            args: K2JVMCompilerArguments,
+            messageCollector: MessageCollector,
+            reporter: ICReporter
+        ) {
+            makeIncrementally(cacheDir, sourceRoots, args, messageCollector, reporter)
+        }
+    }
+
+    private object JsBenchmarkPlatform : BenchmarkPlatform<K2JSCompilerArguments>("JS", supportsJava = false) {
+        override fun createArguments(destinationDir: File, moduleName: String): K2JSCompilerArguments =
+            K2JSCompilerArguments().apply {
+                outputFile = File(destinationDir, "$moduleName.js").path
+                metaInfo = true
+            }
+
+        override fun make(
+            cacheDir: File,
+            sourceRoots: Iterable<File>,
+            args: K2JSCompilerArguments,
+            messageCollector: MessageCollector,
+            reporter: ICReporter
+        ) {
+            makeJsIncrementally(cacheDir, sourceRoots, args, messageCollector, reporter)
+        }
+    }
+
+    companion object {
+        private const val WARMUPS = 3
+        private const val REPETITIONS = 10
+
+        private val DIST_KOTLINC_LIB = File("dist/kotlinc/lib")
+
+        private val DEFAULT_SCENARIOS = listOf(
+            // ABI change
+            "jps-plugin/testData/incremental/pureKotlin/classSignatureChanged",
+            // body-only change
+            "jps-plugin/testData/incremental/pureKotlin/classSignatureUnchanged",
+            "jps-plugin/testData/incremental/pureKotlin/packageFileAdded",
+            "jps-plugin/testData/incremental/pureKotlin/packageFileRemoved",
+            // Java change
+            "jps-plugin/testData/incremental/withJava/javaUsedInKotlin/changeSignature"
+        )
+
+        private val scenarios: List<File>
+            get() = (System.getProperty("kotlin.ic.benchmark.scenarios")?.split(File.pathSeparator) ?: DEFAULT_SCENARIOS).map(::File)
+    }
+}
@@ -350,7 +350,8 @@ class ClassCodegen private constructor(
             override fun visitLineNumber(line: Int, start: Label) =
                 super.visitLineNumber(smapCopier.mapLineNumber(line), start)
         }
-        if (method.hasContinuation()) {
+        // The body may be skipped in ABI mode, in which case there is no state machine to build.
+        if (method.hasContinuation() && node.instructions.size() > 0) {
             // Generate a state machine within this method. The continuation class for it should be generated
             // lazily so that if tail call optimization kicks in, the unused class will not be written to the output.
             val continuationClass = method.continuationClass() // null if `SuspendLambda.invokeSuspend` - `this` is continuation itself
@@ -12,6 +12,7 @@ import org.jetbrains.kotlin.backend.jvm.JvmBackendContext
 import org.jetbrains.kotlin.backend.jvm.JvmLoweredDeclarationOrigin
 import org.jetbrains.kotlin.backend.jvm.lower.suspendFunctionOriginal
 import org.jetbrains.kotlin.codegen.AsmUtil
+import org.jetbrains.kotlin.codegen.ClassBuilderMode
 import org.jetbrains.kotlin.codegen.inline.MethodBodyVisitor
 import org.jetbrains.kotlin.codegen.inline.SMAP
 import org.jetbrains.kotlin.codegen.inline.SMAPAndMethodNode
@@ -91,7 +92,9 @@ class FunctionCodegen(
         // `$$forInline` versions of suspend functions have the same bodies as the originals, but with different
         // name/flags/annotations and with no state machine.
         val notForInline = irFunction.suspendForInlineToOriginal()
-        val smap = if (!context.state.classBuilderMode.generateBodies || flags.and(Opcodes.ACC_ABSTRACT) != 0 || irFunction.isExternal) {
+        val smap = if (!context.state.classBuilderMode.generateBodies || flags.and(Opcodes.ACC_ABSTRACT) != 0 || irFunction.isExternal ||
+            shouldSkipMethodBodyInAbiMode()
+        ) {
             generateAnnotationDefaultValueIfNeeded(methodVisitor)
             SMAP(listOf())
         } else if (notForInline != null) {
@@ -115,6 +118,10 @@ class FunctionCodegen(
         return SMAPAndMethodNode(methodNode, smap)
     }
 
+    // Only bodies of inline functions and of declarations inside them are part of the ABI; the rest would be dropped anyway.
+    private fun shouldSkipMethodBodyInAbiMode(): Boolean =
+        context.state.classBuilderMode == ClassBuilderMode.ABI && inlinedInto == null && !irFunction.isInlineOrInsideInline()
+
     private fun shouldGenerateAnnotationsOnValueParameters(): Boolean =
         when {
             irFunction.origin == JvmLoweredDeclarationOrigin.SYNTHETIC_METHOD_FOR_PROPERTY_ANNOTATIONS ->
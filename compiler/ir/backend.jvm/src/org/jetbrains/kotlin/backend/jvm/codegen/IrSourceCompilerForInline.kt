@@ -154,7 +154,7 @@ class IrSourceCompilerForInline(
     private fun findElement() = callElement.psiElement as? KtElement
 }
 
-private tailrec fun IrDeclaration.isInlineOrInsideInline(): Boolean {
+internal tailrec fun IrDeclaration.isInlineOrInsideInline(): Boolean {
     val original = (this as? IrAttributeContainer)?.attributeOwnerId as? IrDeclaration ?: this
     if (original is IrSimpleFunction && original.isInline) return true
     val parent = original.parent
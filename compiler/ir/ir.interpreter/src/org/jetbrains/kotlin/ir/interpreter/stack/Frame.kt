@@ -46,7 +46,7 @@ internal class InterpreterFrame(
     }
 
     override fun contains(symbol: IrSymbol): Boolean {
-        return (typeArguments + pool).any { it.symbol == symbol }
+        return typeArguments.any { it.symbol == symbol } || pool.any { it.symbol == symbol }
     }
 
     override fun pushReturnValue(state: State) {
@@ -42,9 +42,14 @@ internal class StackImpl : Stack {
     private fun getCurrentFrame() = frameList.last()
 
     override fun newFrame(asSubFrame: Boolean, initPool: List<Variable>, block: () -> ExecutionResult): ExecutionResult {
-        val typeArgumentsPool = initPool.filter { it.symbol is IrTypeParameterSymbol }
-        val valueArguments = initPool.filter { it.symbol !is IrTypeParameterSymbol }
-        val newFrame = InterpreterFrame(valueArguments.toMutableList(), typeArgumentsPool)
+        val newFrame = when {
+            initPool.isEmpty() -> InterpreterFrame()
+            initPool.none { it.symbol is IrTypeParameterSymbol } -> InterpreterFrame(ArrayList(initPool))
+            else -> {
+                val (typeArgumentsPool, valueArguments) = initPool.partition { it.symbol is IrTypeParameterSymbol }
+                InterpreterFrame(valueArguments.toMutableList(), typeArgumentsPool)
+            }
+        }
         if (asSubFrame) getCurrentFrame().addSubFrame(newFrame) else frameList.add(FrameContainer(newFrame))
 
         return try {
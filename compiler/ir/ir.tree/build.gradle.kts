@@ -8,9 +8,13 @@ dependencies {
     compile(project(":compiler:util"))
     compile(project(":compiler:frontend"))
     compileOnly(intellijCoreDep()) { includeJars("intellij-core") }
+
+    testCompile(commonDep("junit:junit"))
 }
 
 sourceSets {
     "main" { projectDefault() }
-    "test" {}
-}
\ No newline at end of file
+    "test" { projectDefault() }
+}
+
+projectTest()
\ No newline at end of file
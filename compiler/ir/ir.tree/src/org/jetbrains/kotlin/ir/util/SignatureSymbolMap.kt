@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.ir.util
+
+import org.jetbrains.kotlin.ir.symbols.IrSymbol
+
+/**
+ * Insertion-ordered map from [IdSignature] to public symbols, where the key of every entry is the signature of its symbol.
+ *
+ * Since the key is never stored separately, the map keeps only the list of symbols and an open-addressing table
+ * of indices into that list, avoiding per-entry objects of [LinkedHashMap]. Entries are never removed.
+ */
+internal class SignatureSymbolMap<S : IrSymbol> {
+    private val symbols = ArrayList<S>()
+
+    // Contains (index in [symbols] + 1) for occupied slots and 0 for empty ones
+    private var table = IntArray(INITIAL_CAPACITY)
+
+    val size: Int get() = symbols.size
+
+    val values: List<S> get() = symbols
+
+    operator fun get(signature: IdSignature): S? {
+        val index = table[findSlot(signature)]
+        return if (index == 0) null else symbols[index - 1]
+    }
+
+    fun put(symbol: S) {
+        val slot = findSlot(symbol.signature)
+        val index = table[slot]
+        if (index != 0) {
+            symbols[index - 1] = symbol
+            return
+        }
+
+        symbols.add(symbol)
+        table[slot] = symbols.size
+        if (symbols.size * 2 > table.size) {
+            rehash(table.size * 2)
+        }
+    }
+
+    inline fun forEach(block: (S) -> Unit) {
+        for (i in 0 until size) {
+            block(values[i])
+        }
+    }
+
+    private fun findSlot(signature: IdSignature): Int {
+        val mask = table.size - 1
+        var slot = spread(signature.hashCode()) and mask
+        while (true) {
+            val index = table[slot]
+            if (index == 0) return slot
+            val existing = symbols[index - 1].signature
+            if (existing === signature || existing == signature) return slot
+            slot = (slot + 1) and mask
+        }
+    }
+
+    private fun rehash(newCapacity: Int) {
+        val newTable = IntArray(newCapacity)
+        val mask = newCapacity - 1
+        for (i in symbols.indices) {
+            var slot = spread(symbols[i].signature.hashCode()) and mask
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) and mask
+            }
+            newTable[slot] = i + 1
+        }
+        table = newTable
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+
+        fun spread(hash: Int): Int = (hash * -0x61c88647).let { it xor (it ushr 16) }
+    }
+}
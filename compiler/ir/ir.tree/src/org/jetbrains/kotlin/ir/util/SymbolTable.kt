@@ -192,7 +192,7 @@ class SymbolTable(
     private open inner class FlatSymbolTable<D : DeclarationDescriptor, B : IrSymbolOwner, S : IrBindableSymbol<D, B>> :
         SymbolTableBase<D, B, S>() {
         val descriptorToSymbol = linkedMapOf<D, S>()
-        val idSigToSymbol = linkedMapOf<IdSignature, S>()
+        val idSigToSymbol = SignatureSymbolMap<S>()
 
         protected open fun signature(descriptor: D): IdSignature? = signaturer.composeSignature(descriptor)
 
@@ -217,7 +217,7 @@ class SymbolTable(
 
         override fun set(d: D, s: S) {
             if (s.isPublicApi) {
-                idSigToSymbol[s.signature] = s
+                idSigToSymbol.put(s)
             } else {
                 descriptorToSymbol[d] = s
             }
@@ -237,15 +237,16 @@ class SymbolTable(
     private inner class ScopedSymbolTable<D : DeclarationDescriptor, B : IrSymbolOwner, S : IrBindableSymbol<D, B>>
         : SymbolTableBase<D, B, S>() {
         inner class Scope(val owner: DeclarationDescriptor, val parent: Scope?) {
-            private val descriptorToSymbol = linkedMapOf<D, S>()
-            private val idSigToSymbol = linkedMapOf<IdSignature, S>()
+            // Most scopes (e.g. of functions without local declarations) stay empty, so the maps are allocated on demand
+            private var descriptorToSymbol: MutableMap<D, S>? = null
+            private var idSigToSymbol: SignatureSymbolMap<S>? = null
 
             private fun getByDescriptor(d: D): S? {
-                return descriptorToSymbol[d] ?: parent?.getByDescriptor(d)
+                return descriptorToSymbol?.get(d) ?: parent?.getByDescriptor(d)
             }
 
             private fun getByIdSignature(sig: IdSignature): S? {
-                return idSigToSymbol[sig] ?: parent?.getByIdSignature(sig)
+                return idSigToSymbol?.get(sig) ?: parent?.getByIdSignature(sig)
             }
 
             operator fun get(d: D): S? {
@@ -261,25 +262,25 @@ class SymbolTable(
                 }
             }
 
-            fun getLocal(d: D) = descriptorToSymbol[d]
+            fun getLocal(d: D) = descriptorToSymbol?.get(d)
 
             operator fun set(d: D, s: S) {
                 if (s.isPublicApi) {
                     require(d is TypeParameterDescriptor)
-                    idSigToSymbol[s.signature] = s
+                    (idSigToSymbol ?: SignatureSymbolMap<S>().also { idSigToSymbol = it }).put(s)
                 } else {
-                    descriptorToSymbol[d] = s
+                    (descriptorToSymbol ?: linkedMapOf<D, S>().also { descriptorToSymbol = it })[d] = s
                 }
             }
 
-            operator fun get(sig: IdSignature): S? = idSigToSymbol[sig] ?: parent?.get(sig)
+            operator fun get(sig: IdSignature): S? = getByIdSignature(sig)
 
             fun dumpTo(stringBuilder: StringBuilder): StringBuilder =
                 stringBuilder.also {
                     it.append("owner=")
                     it.append(owner)
                     it.append("; ")
-                    descriptorToSymbol.keys.joinTo(prefix = "[", postfix = "]", buffer = it)
+                    descriptorToSymbol?.keys.orEmpty().joinTo(prefix = "[", postfix = "]", buffer = it)
                     it.append('\n')
                     parent?.dumpTo(it)
                 }
@@ -1047,7 +1048,7 @@ class SymbolTable(
     private inline fun <D : DeclarationDescriptor, IR : IrSymbolOwner, S : IrBindableSymbol<D, IR>> FlatSymbolTable<D, IR, S>.forEachPublicSymbolImpl(
         block: (IrSymbol) -> Unit
     ) {
-        idSigToSymbol.forEach { (_, sym) ->
+        idSigToSymbol.forEach { sym ->
             assert(sym.isPublicApi)
             block(sym)
         }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.ir.util
+
+import junit.framework.TestCase
+import org.jetbrains.kotlin.descriptors.DeclarationDescriptor
+import org.jetbrains.kotlin.ir.ObsoleteDescriptorBasedAPI
+import org.jetbrains.kotlin.ir.symbols.IrSymbol
+import org.jetbrains.kotlin.ir.symbols.IrSymbolOwner
+import java.util.*
+
+class SignatureSymbolMapTest : TestCase() {
+    private class TestSymbol(override val signature: IdSignature) : IrSymbol {
+        override val owner: IrSymbolOwner get() = error("Unbound test symbol for $signature")
+
+        @ObsoleteDescriptorBasedAPI
+        override val descriptor: DeclarationDescriptor get() = error("No descriptor for $signature")
+
+        override val isBound: Boolean get() = false
+
+        override val isPublicApi: Boolean get() = true
+    }
+
+    private val container = IdSignature.PublicSignature("test", "A", null, 0)
+
+    private fun publicSignature(i: Int) = IdSignature.PublicSignature("test", "f$i", i.toLong(), 0)
+
+    // signatures with ids differing only in the high bits have equal hash codes, but aren't equal
+    private fun collidingSignature(i: Int) = IdSignature.FileLocalSignature(container, (i.toLong() shl 32) + 7)
+
+    fun testGrowthKeepsAllEntries() {
+        val map = SignatureSymbolMap<TestSymbol>()
+        val symbols = (0 until 1000).map { TestSymbol(publicSignature(it)) }
+        symbols.forEach { map.put(it) }
+
+        assertEquals(symbols.size, map.size)
+        for (symbol in symbols) {
+            // equal signature, but another instance
+            assertSame(symbol, map[publicSignature((symbol.signature as IdSignature.PublicSignature).id!!.toInt())])
+        }
+    }
+
+    fun testCollidingSignatures() {
+        val map = SignatureSymbolMap<TestSymbol>()
+        val symbols = (0 until 100).map { TestSymbol(collidingSignature(it)) }
+        assertEquals(symbols.first().signature.hashCode(), symbols.last().signature.hashCode())
+        symbols.forEach { map.put(it) }
+
+        assertEquals(symbols.size, map.size)
+        for ((i, symbol) in symbols.withIndex()) {
+            assertSame(symbol, map[collidingSignature(i)])
+        }
+        assertNull(map[collidingSignature(symbols.size)])
+    }
+
+    fun testInsertionOrder() {
+        val map = SignatureSymbolMap<TestSymbol>()
+        val symbols = (0 until 100).map { TestSymbol(if (it % 2 == 0) publicSignature(it) else collidingSignature(it)) }
+        val expectedOrder = symbols.shuffled(Random(42))
+        expectedOrder.forEach { map.put(it) }
+        assertEquals(expectedOrder, map.values)
+
+        // replacing a symbol keeps its position
+        val replacement = TestSymbol(expectedOrder[10].signature)
+        map.put(replacement)
+
+        assertEquals(expectedOrder.size, map.size)
+        assertEquals(expectedOrder.map { it.signature }, map.values.map { it.signature })
+        assertSame(replacement, map.values[10])
+        assertSame(replacement, map[replacement.signature])
+
+        val iterated = mutableListOf<TestSymbol>()
+        map.forEach { iterated += it }
+        assertEquals(map.values, iterated)
+    }
+
+    fun testMissingSignatures() {
+        val map = SignatureSymbolMap<TestSymbol>()
+        assertNull(map[publicSignature(0)])
+
+        (0 until 20).forEach { map.put(TestSymbol(publicSignature(it))) }
+        assertNull(map[publicSignature(20)])
+        assertNull(map[IdSignature.PublicSignature("other", "f0", 0, 0)])
+        assertNull(map[collidingSignature(0)])
+        assertEquals(20, map.size)
+    }
+}
@@ -40,19 +40,37 @@ abstract class GlobalDeclarationTable(
         }
     }
 
+    // Could be called concurrently when files are serialized in parallel
+    @Synchronized
     open fun computeSignatureByDeclaration(declaration: IrDeclaration): IdSignature {
         return table.getOrPut(declaration) {
             signaturer.composePublicIdSignature(declaration).also { clashTracker.commit(declaration, it) }
         }
     }
 
+    /**
+     * Returns `null` for a declaration which is not exported, its signature is local to the file being serialized.
+     *
+     * Exported declarations may belong to other files or modules, e.g. be lazy IR or deserialized lazily, which is not thread-safe.
+     * When files are serialized in parallel, such declarations are only read under this lock.
+     */
+    @Synchronized
+    fun computeSignatureIfExported(declaration: IrDeclaration): IdSignature? =
+        if (isExportedDeclaration(declaration)) computeSignatureByDeclaration(declaration) else null
+
     fun isExportedDeclaration(declaration: IrDeclaration): Boolean = with(mangler) { declaration.isExported() }
+
+    /**
+     * File-local signatures are computed by a separate serializer for each file,
+     * so that files don't share local indices and could be serialized independently.
+     */
+    open fun createFileSignaturer(): IdSignatureSerializer = IdSignatureSerializer(mangler)
 }
 
 open class DeclarationTable(private val globalDeclarationTable: GlobalDeclarationTable) {
+    // Signatures of file-local declarations and cached signatures of exported ones referenced from this file
     private val table = mutableMapOf<IrDeclaration, IdSignature>()
-    private val signaturer = globalDeclarationTable.signaturer.also {
-        it.reset()
+    private val signaturer = globalDeclarationTable.createFileSignaturer().also {
         it.table = this
     }
 
@@ -66,9 +84,13 @@ open class DeclarationTable(private val globalDeclarationTable: GlobalDeclaratio
 
     private fun computeSignatureByDeclaration(declaration: IrDeclaration): IdSignature {
         tryComputeBackendSpecificSignature(declaration)?.let { return it }
-        return if (declaration.isLocalDeclaration()) {
-            table.getOrPut(declaration) { signaturer.composeFileLocalIdSignature(declaration) }
-        } else globalDeclarationTable.computeSignatureByDeclaration(declaration)
+        table[declaration]?.let { return it }
+        val exportedSignature = globalDeclarationTable.computeSignatureIfExported(declaration)
+        if (exportedSignature != null) {
+            table[declaration] = exportedSignature
+            return exportedSignature
+        }
+        return table.getOrPut(declaration) { signaturer.composeFileLocalIdSignature(declaration) }
     }
 
     fun privateDeclarationSignature(declaration: IrDeclaration, builder: () -> IdSignature): IdSignature {
@@ -11,8 +11,17 @@ import org.jetbrains.kotlin.ir.declarations.IrFile
 import org.jetbrains.kotlin.ir.declarations.IrModuleFragment
 import org.jetbrains.kotlin.library.SerializedIrFile
 import org.jetbrains.kotlin.library.SerializedIrModule
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
 
-abstract class IrModuleSerializer<F : IrFileSerializer>(protected val logger: LoggingContext) {
+abstract class IrModuleSerializer<F : IrFileSerializer>(
+    protected val logger: LoggingContext,
+    private val serializationThreads: Int = 1
+) {
+    /**
+     * Must be thread-safe if [serializationThreads] is greater than one, files are serialized concurrently then.
+     */
     abstract fun createSerializerForFile(file: IrFile): F
 
     /**
@@ -29,10 +38,31 @@ abstract class IrModuleSerializer<F : IrFileSerializer>(protected val logger: Lo
     }
 
     fun serializedIrModule(module: IrModuleFragment): SerializedIrModule {
-        val serializedFiles = module.files
+        val files = module.files
             .filter { it.packageFragmentDescriptor !is FunctionInterfacePackageFragment }
             .filter(this::backendSpecificFileFilter)
-            .map(this::serializeIrFile)
+        val serializedFiles = if (serializationThreads > 1 && files.size > 1) {
+            serializeIrFilesInParallel(files)
+        } else {
+            files.map(this::serializeIrFile)
+        }
         return SerializedIrModule(serializedFiles)
     }
+
+    // Every file has its own string, type and signature tables, so the result doesn't depend on the order of serialization
+    private fun serializeIrFilesInParallel(files: List<IrFile>): List<SerializedIrFile> {
+        val executor = Executors.newFixedThreadPool(minOf(serializationThreads, files.size))
+        try {
+            val serializedFiles = files.map { file -> executor.submit(Callable { serializeIrFile(file) }) }
+            return serializedFiles.map { future ->
+                try {
+                    future.get()
+                } catch (e: ExecutionException) {
+                    throw e.cause ?: e
+                }
+            }
+        } finally {
+            executor.shutdownNow()
+        }
+    }
 }
\ No newline at end of file
@@ -493,7 +493,8 @@ fun serializeModuleIntoKlib(
             emptyLoggingContext,
             moduleFragment.irBuiltins,
             expectDescriptorToSymbol = expectDescriptorToSymbol,
-            skipExpects = !configuration.expectActualLinker
+            skipExpects = !configuration.expectActualLinker,
+            serializationThreads = configuration.get(JSConfigurationKeys.KLIB_SERIALIZATION_THREADS, 1)
         ).serializedIrModule(moduleFragment)
 
     val moduleDescriptor = moduleFragment.descriptor
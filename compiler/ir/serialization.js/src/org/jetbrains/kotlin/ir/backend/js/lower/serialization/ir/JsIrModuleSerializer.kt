@@ -13,13 +13,18 @@ import org.jetbrains.kotlin.descriptors.DeclarationDescriptor
 import org.jetbrains.kotlin.ir.declarations.IrFile
 import org.jetbrains.kotlin.ir.descriptors.IrBuiltIns
 import org.jetbrains.kotlin.ir.symbols.IrSymbol
+import java.util.Collections
 
 class JsIrModuleSerializer(
     logger: LoggingContext,
     irBuiltIns: IrBuiltIns,
-    private val expectDescriptorToSymbol: MutableMap<DeclarationDescriptor, IrSymbol>,
-    val skipExpects: Boolean
-) : IrModuleSerializer<JsIrFileSerializer>(logger) {
+    expectDescriptorToSymbol: MutableMap<DeclarationDescriptor, IrSymbol>,
+    val skipExpects: Boolean,
+    serializationThreads: Int = 1
+) : IrModuleSerializer<JsIrFileSerializer>(logger, serializationThreads) {
+
+    private val expectDescriptorToSymbol =
+        if (serializationThreads > 1) Collections.synchronizedMap(expectDescriptorToSymbol) else expectDescriptorToSymbol
 
     private val signaturer = IdSignatureSerializer(JsManglerIr)
     private val globalDeclarationTable = JsGlobalDeclarationTable(signaturer, irBuiltIns)
@@ -47,6 +47,43 @@ class MutableVariableWithConstraints private constructor(
 
     private var simplifiedConstraints: SmartList<Constraint>? = mutableConstraints
 
+    // simplified constraints by type variables which occur in their types, built on demand by incorporation
+    // and dropped together with the simplified constraints
+    private var constraintsByTypeVariablesInType: MutableMap<TypeConstructorMarker, SmartList<Constraint>>? = null
+
+    /**
+     * Same as constraints whose type contains a type with [typeConstructor], as a snapshot which isn't affected by new constraints
+     */
+    fun getConstraintsContainingTypeVariable(typeConstructor: TypeConstructorMarker): List<Constraint> {
+        val index = constraintsByTypeVariablesInType ?: buildConstraintsByTypeVariablesInType()
+        return index[typeConstructor]?.let { SmartList(it) } ?: emptyList()
+    }
+
+    private fun buildConstraintsByTypeVariablesInType(): MutableMap<TypeConstructorMarker, SmartList<Constraint>> {
+        val index = HashMap<TypeConstructorMarker, SmartList<Constraint>>()
+        for (constraint in constraints) {
+            index.addConstraint(constraint)
+        }
+        constraintsByTypeVariablesInType = index
+        return index
+    }
+
+    private fun MutableMap<TypeConstructorMarker, SmartList<Constraint>>.addConstraint(constraint: Constraint) {
+        with(context) {
+            constraint.type.contains {
+                val typeConstructor = it.typeConstructor()
+                if (typeConstructor.isTypeVariable()) {
+                    val constraints = getOrPut(typeConstructor) { SmartList() }
+                    // a type variable may occur in the type several times
+                    if (constraints.lastOrNull() !== constraint) {
+                        constraints.add(constraint)
+                    }
+                }
+                false
+            }
+        }
+    }
+
     // return new actual constraint, if this constraint is new
     fun addConstraint(constraint: Constraint): Constraint? {
         val isLowerAndFlexibleTypeWithDefNotNullLowerBound = constraint.isLowerAndFlexibleTypeWithDefNotNullLowerBound()
@@ -73,6 +110,7 @@ class MutableVariableWithConstraints private constructor(
                     )
                     mutableConstraints.add(actualConstraint)
                     simplifiedConstraints = null
+                    constraintsByTypeVariablesInType = null
                     return actualConstraint
                 }
             }
@@ -93,6 +131,12 @@ class MutableVariableWithConstraints private constructor(
             simplifiedConstraints = null
         }
 
+        if (simplifiedConstraints == null) {
+            constraintsByTypeVariablesInType = null
+        } else {
+            constraintsByTypeVariablesInType?.addConstraint(constraint)
+        }
+
         return constraint
     }
 
@@ -103,6 +147,7 @@ class MutableVariableWithConstraints private constructor(
         if (simplifiedConstraints !== mutableConstraints) {
             simplifiedConstraints = null
         }
+        constraintsByTypeVariablesInType = null
     }
 
     // This method should be used only when constraint system has state COMPLETION
@@ -111,6 +156,7 @@ class MutableVariableWithConstraints private constructor(
         if (simplifiedConstraints !== mutableConstraints) {
             simplifiedConstraints = null
         }
+        constraintsByTypeVariablesInType = null
     }
 
     private fun newConstraintIsUseless(old: Constraint, new: Constraint): Boolean {
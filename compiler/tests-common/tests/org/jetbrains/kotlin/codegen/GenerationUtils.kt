@@ -116,7 +116,10 @@ object GenerationUtils {
         val session = createSession(project, scope, librariesScope, "main", packagePartProvider)
 
         // TODO: add running checkers and check that it's safe to compile
-        val firAnalyzerFacade = FirAnalyzerFacade(session, configuration.languageVersionSettings, files)
+        val firAnalyzerFacade = FirAnalyzerFacade(
+            session, configuration.languageVersionSettings, files,
+            useLightTree = configuration.getBoolean(CommonConfigurationKeys.USE_FIR_LIGHT_TREE)
+        )
         val (moduleFragment, symbolTable, sourceManager, components) = firAnalyzerFacade.convertToIr()
         val dummyBindingContext = NoScopeRecordCliBindingTrace().bindingContext
 
@@ -0,0 +1,19 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.codegen.ir
+
+import org.jetbrains.kotlin.config.CommonConfigurationKeys
+import org.jetbrains.kotlin.config.CompilerConfiguration
+
+/**
+ * Checks that offsets of light tree sources give the same line numbers in the bytecode as PSI.
+ */
+abstract class AbstractFirLightTreeBytecodeTextTest : AbstractFirBytecodeTextTest() {
+    override fun updateConfiguration(configuration: CompilerConfiguration) {
+        super.updateConfiguration(configuration)
+        configuration.put(CommonConfigurationKeys.USE_FIR_LIGHT_TREE, true)
+    }
+}
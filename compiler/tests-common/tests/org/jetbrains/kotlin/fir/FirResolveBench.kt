@@ -9,6 +9,7 @@ import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.util.text.StringUtil
 import com.intellij.openapi.vfs.CharsetToolkit
 import com.intellij.psi.PsiElement
+import org.jetbrains.kotlin.fir.analysis.FirParallelCheckersResolveProcessor
 import org.jetbrains.kotlin.fir.builder.RawFirBuilder
 import org.jetbrains.kotlin.fir.declarations.FirFile
 import org.jetbrains.kotlin.fir.diagnostics.ConeStubDiagnostic
@@ -145,12 +146,13 @@ class FirResolveBench(val withProgress: Boolean) {
         }
     }
 
-    private fun recordTime(stageClass: KClass<*>, diff: VMCounters, time: Long) {
+    private fun recordTime(stageClass: KClass<*>, diff: VMCounters, time: Long, isMultiThreaded: Boolean = false) {
         timePerTransformer.computeIfAbsent(stageClass) { Measure() }.apply {
             this.time += time
             this.files += 1
-            this.user += diff.userTime
-            this.cpu += diff.cpuTime
+            // thread times are measured for the calling thread only, which just waits for the workers of multi-threaded stages
+            this.user += if (isMultiThreaded) time else diff.userTime
+            this.cpu += if (isMultiThreaded) time else diff.cpuTime
             this.gcCollections += diff.gcInfo.values.sumBy { it.collections.toInt() }
             this.gcTime += diff.gcInfo.values.sumByLong { it.gcTime }
         }
@@ -185,7 +187,8 @@ class FirResolveBench(val withProgress: Boolean) {
     private fun runStage(processor: FirGlobalResolveProcessor) {
         processWithTimeMeasure(
             processor::class,
-            { processor.process() }
+            { processor.process() },
+            isMultiThreaded = processor is FirParallelCheckersResolveProcessor
         ) { e ->
             val message = "Fail on stage ${processor::class}"
             println(message)
@@ -196,6 +199,7 @@ class FirResolveBench(val withProgress: Boolean) {
     private inline fun processWithTimeMeasure(
         kClass: KClass<*>,
         block: () -> Unit,
+        isMultiThreaded: Boolean = false,
         catchBlock: (Throwable) -> FailureInfo
     ) {
         var fail = false
@@ -211,7 +215,7 @@ class FirResolveBench(val withProgress: Boolean) {
         if (!fail) {
             val after = vmStateSnapshot()
             val diff = after - before
-            recordTime(kClass, diff, time)
+            recordTime(kClass, diff, time, isMultiThreaded)
         }
     }
 
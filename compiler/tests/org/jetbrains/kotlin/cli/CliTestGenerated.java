@@ -300,6 +300,21 @@ public class CliTestGenerated extends AbstractCliTest {
             runTest("compiler/testData/cli/jvm/firHello.args");
         }
 
+        @TestMetadata("firLightTreeError.args")
+        public void testFirLightTreeError() throws Exception {
+            runTest("compiler/testData/cli/jvm/firLightTreeError.args");
+        }
+
+        @TestMetadata("firLightTreeHello.args")
+        public void testFirLightTreeHello() throws Exception {
+            runTest("compiler/testData/cli/jvm/firLightTreeHello.args");
+        }
+
+        @TestMetadata("firLightTreeKotlinPackage.args")
+        public void testFirLightTreeKotlinPackage() throws Exception {
+            runTest("compiler/testData/cli/jvm/firLightTreeKotlinPackage.args");
+        }
+
         @TestMetadata("flagAllowingResultAsReturnType.args")
         public void testFlagAllowingResultAsReturnType() throws Exception {
             runTest("compiler/testData/cli/jvm/flagAllowingResultAsReturnType.args");
@@ -898,6 +913,11 @@ public class CliTestGenerated extends AbstractCliTest {
             runTest("compiler/testData/cli/js/irApiVersionUnsupported.args");
         }
 
+        @TestMetadata("irKlibSerializationThreadsInvalid.args")
+        public void testIrKlibSerializationThreadsInvalid() throws Exception {
+            runTest("compiler/testData/cli/js/irKlibSerializationThreadsInvalid.args");
+        }
+
         @TestMetadata("irLanguageVersionUnsupported.args")
         public void testIrLanguageVersionUnsupported() throws Exception {
             runTest("compiler/testData/cli/js/irLanguageVersionUnsupported.args");
@@ -549,6 +549,10 @@ fun main(args: Array<String>) {
                 model("codegen/bytecodeText", targetBackend = TargetBackend.JVM_IR, excludeDirs = listOf("oldLanguageVersions"))
             }
 
+            testClass<AbstractFirLightTreeBytecodeTextTest> {
+                model("codegen/bytecodeText/lineNumbers", targetBackend = TargetBackend.JVM_IR)
+            }
+
             testClass<AbstractFirCompileKotlinAgainstKotlinTest> {
                 model("compileKotlinAgainstKotlin", targetBackend = TargetBackend.JVM_IR)
             }
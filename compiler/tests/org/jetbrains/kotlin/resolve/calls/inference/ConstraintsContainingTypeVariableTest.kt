@@ -0,0 +1,114 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.resolve.calls.inference
+
+import org.jetbrains.kotlin.builtins.DefaultBuiltIns
+import org.jetbrains.kotlin.config.LanguageVersionSettingsImpl
+import org.jetbrains.kotlin.resolve.calls.components.ClassicTypeSystemContextForCS
+import org.jetbrains.kotlin.resolve.calls.inference.components.ClassicConstraintSystemUtilContext
+import org.jetbrains.kotlin.resolve.calls.inference.components.ConstraintIncorporator
+import org.jetbrains.kotlin.resolve.calls.inference.components.ConstraintInjector
+import org.jetbrains.kotlin.resolve.calls.inference.components.TrivialConstraintTypeInferenceOracle
+import org.jetbrains.kotlin.resolve.calls.inference.model.*
+import org.jetbrains.kotlin.test.testFramework.KtUsefulTestCase
+import org.jetbrains.kotlin.types.KotlinType
+import org.jetbrains.kotlin.types.TypeApproximator
+import org.jetbrains.kotlin.types.Variance
+import org.jetbrains.kotlin.types.checker.KotlinTypeRefiner
+
+/**
+ * Checks that [MutableVariableWithConstraints.getConstraintsContainingTypeVariable] used by incorporation returns
+ * the same constraints as the scan of all constraints of the variable, while the constraint system adds, simplifies and removes them.
+ */
+class ConstraintsContainingTypeVariableTest : KtUsefulTestCase() {
+    private val builtIns = DefaultBuiltIns.Instance
+    private val context = ClassicTypeSystemContextForCS(builtIns)
+
+    private val t = TypeVariableForLambdaReturnType(builtIns, "T")
+    private val r = TypeVariableForLambdaReturnType(builtIns, "R")
+    private val s = TypeVariableForLambdaReturnType(builtIns, "S")
+
+    private fun createConstraintSystem(): NewConstraintSystemImpl {
+        val approximator = TypeApproximator(builtIns)
+        val incorporator = ConstraintIncorporator(
+            approximator,
+            TrivialConstraintTypeInferenceOracle(context),
+            ClassicConstraintSystemUtilContext(KotlinTypeRefiner.Default, builtIns)
+        )
+        return NewConstraintSystemImpl(ConstraintInjector(incorporator, approximator, LanguageVersionSettingsImpl.DEFAULT), context).apply {
+            registerVariable(t)
+            registerVariable(r)
+            registerVariable(s)
+        }
+    }
+
+    private fun array(type: KotlinType) = builtIns.getArrayType(Variance.INVARIANT, type)
+
+    private fun NewConstraintSystemImpl.subtype(lower: KotlinType, upper: KotlinType) {
+        addSubtypeConstraint(lower, upper, SimpleConstraintSystemConstraintPosition)
+        assertSameAsScan()
+    }
+
+    private fun NewConstraintSystemImpl.assertSameAsScan() {
+        for (variableWithConstraints in notFixedTypeVariables.values) {
+            for (typeVariable in listOf(t, r, s)) {
+                val typeConstructor = typeVariable.freshTypeConstructor
+                val expected = with(context) {
+                    variableWithConstraints.constraints.filter { constraint -> constraint.type.contains { it.typeConstructor() == typeConstructor } }
+                }
+                assertEquals(
+                    "Constraints of ${variableWithConstraints.typeVariable} containing $typeVariable",
+                    expected,
+                    variableWithConstraints.getConstraintsContainingTypeVariable(typeConstructor)
+                )
+            }
+        }
+    }
+
+    fun testAddedConstraints() {
+        with(createConstraintSystem()) {
+            subtype(array(r.defaultType), t.defaultType)
+            subtype(builtIns.intType, r.defaultType)
+            subtype(t.defaultType, builtIns.anyType)
+            subtype(array(array(s.defaultType)), t.defaultType)
+            subtype(s.defaultType, r.defaultType)
+        }
+    }
+
+    fun testSimplifiedConstraints() {
+        with(createConstraintSystem()) {
+            subtype(array(r.defaultType), t.defaultType)
+            subtype(array(s.defaultType), t.defaultType)
+            // the lower and the upper constraint with the same type are replaced with the equality one
+            subtype(t.defaultType, array(r.defaultType))
+            subtype(builtIns.intType, s.defaultType)
+        }
+    }
+
+    fun testConstraintsRemovedByTransaction() {
+        with(createConstraintSystem()) {
+            subtype(array(r.defaultType), t.defaultType)
+            runTransaction {
+                subtype(array(s.defaultType), t.defaultType)
+                subtype(r.defaultType, s.defaultType)
+                false
+            }
+            assertSameAsScan()
+            subtype(builtIns.intType, r.defaultType)
+        }
+    }
+
+    fun testConstraintsRemovedByFixation() {
+        with(createConstraintSystem()) {
+            subtype(array(r.defaultType), t.defaultType)
+            subtype(r.defaultType, s.defaultType)
+            subtype(builtIns.intType, r.defaultType)
+            fixVariable(r, builtIns.intType, FixVariableConstraintPositionImpl(r, null))
+            assertSameAsScan()
+            subtype(array(s.defaultType), t.defaultType)
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.types
+
+import org.jetbrains.kotlin.builtins.DefaultBuiltIns
+import org.jetbrains.kotlin.test.testFramework.KtUsefulTestCase
+import org.jetbrains.kotlin.types.checker.ClassicTypeCheckerContext
+
+class SubtypingCacheTest : KtUsefulTestCase() {
+    private val builtIns = DefaultBuiltIns.Instance
+
+    private fun isSubtypeOf(cache: SubtypingCache, subType: KotlinType, superType: KotlinType, errorTypeEqualsToAnything: Boolean = false) =
+        AbstractTypeChecker.isSubtypeOf(
+            ClassicTypeCheckerContext(errorTypeEqualsToAnything, subtypingCache = cache),
+            subType.unwrap(),
+            superType.unwrap()
+        )
+
+    fun testRepeatedCheckIsHit() {
+        val cache = SubtypingCache()
+
+        assertTrue(isSubtypeOf(cache, builtIns.intType, builtIns.numberType))
+        assertFalse(isSubtypeOf(cache, builtIns.stringType, builtIns.numberType))
+
+        val before = SubtypingCache.statistics()
+        assertTrue(isSubtypeOf(cache, builtIns.intType, builtIns.numberType))
+        assertFalse(isSubtypeOf(cache, builtIns.stringType, builtIns.numberType))
+        val after = SubtypingCache.statistics()
+
+        assertEquals(2L, after.hits - before.hits)
+        assertEquals(0L, after.misses - before.misses)
+    }
+
+    fun testFlagsOfContextArePartOfKey() {
+        val cache = SubtypingCache()
+        val errorType = ErrorUtils.createErrorType("error")
+
+        assertTrue(isSubtypeOf(cache, errorType, builtIns.intType, errorTypeEqualsToAnything = true))
+        assertFalse(isSubtypeOf(cache, errorType, builtIns.intType, errorTypeEqualsToAnything = false))
+        assertTrue(isSubtypeOf(cache, errorType, builtIns.intType, errorTypeEqualsToAnything = true))
+    }
+
+    fun testCacheIsDroppedWhenOverSizeBound() {
+        val cache = SubtypingCache(maxSize = 2)
+        val before = SubtypingCache.statistics()
+
+        isSubtypeOf(cache, builtIns.intType, builtIns.numberType)
+        isSubtypeOf(cache, builtIns.longType, builtIns.numberType)
+        assertEquals(2, cache.size)
+
+        isSubtypeOf(cache, builtIns.stringType, builtIns.numberType)
+        assertEquals(1, cache.size)
+        assertEquals(1L, SubtypingCache.statistics().evictions - before.evictions)
+
+        // the dropped result is computed again
+        assertTrue(isSubtypeOf(cache, builtIns.intType, builtIns.numberType))
+    }
+
+    fun testInvalidate() {
+        val cache = SubtypingCache()
+        isSubtypeOf(cache, builtIns.intType, builtIns.numberType)
+        assertEquals(1, cache.size)
+
+        cache.invalidate()
+        assertEquals(0, cache.size)
+
+        val before = SubtypingCache.statistics()
+        assertTrue(isSubtypeOf(cache, builtIns.intType, builtIns.numberType))
+        val after = SubtypingCache.statistics()
+        assertEquals(0L, after.hits - before.hits)
+        assertEquals(1L, after.misses - before.misses)
+    }
+}
@@ -28,6 +28,12 @@ abstract class AbstractTypeCheckerContext : TypeSystemContext {
 
     open fun customIsSubtypeOf(subType: KotlinTypeMarker, superType: KotlinTypeMarker): Boolean = true
 
+    /**
+     * Cache for results of [AbstractTypeChecker.isSubtypeOf], see [SubtypingCache] for the contexts which may provide it
+     */
+    open val subtypingCache: SubtypingCache?
+        get() = null
+
     abstract val isErrorTypeEqualsToAnything: Boolean
 
     abstract val isStubTypeEqualsToAnything: Boolean
@@ -193,11 +199,18 @@ object AbstractTypeChecker {
 
         if (!context.customIsSubtypeOf(subType, superType)) return false
 
-        return with(context) {
-            completeIsSubTypeOf(prepareType(refineType(subType)), prepareType(refineType(superType)), isFromNullabilityConstraint)
+        val cache = context.subtypingCache ?: return context.prepareAndCompleteIsSubTypeOf(subType, superType, isFromNullabilityConstraint)
+        return cache.getOrCompute(context, subType, superType, isFromNullabilityConstraint) {
+            context.prepareAndCompleteIsSubTypeOf(subType, superType, isFromNullabilityConstraint)
         }
     }
 
+    private fun AbstractTypeCheckerContext.prepareAndCompleteIsSubTypeOf(
+        subType: KotlinTypeMarker,
+        superType: KotlinTypeMarker,
+        isFromNullabilityConstraint: Boolean
+    ): Boolean = completeIsSubTypeOf(prepareType(refineType(subType)), prepareType(refineType(superType)), isFromNullabilityConstraint)
+
     fun equalTypes(context: AbstractTypeCheckerContext, a: KotlinTypeMarker, b: KotlinTypeMarker): Boolean = with(context) {
         if (a === b) return true
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.types
+
+import org.jetbrains.kotlin.types.model.KotlinTypeMarker
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Memoized results of [AbstractTypeChecker.isSubtypeOf] for contexts which return it from
+ * [AbstractTypeCheckerContext.subtypingCache].
+ *
+ * Results are keyed by the pair of types (compared with `equals`) and the flags of the check which affect the answer,
+ * so a cache may be shared only by contexts with the same type system and the same refinement, e.g. within one session.
+ * Contexts which record constraints or customize subtyping must not use it.
+ *
+ * The cache is bounded: when it grows over [maxSize] it is dropped entirely, which is cheaper than tracking usage.
+ * Hits, misses and evictions are counted for all caches of the process, see [statistics].
+ */
+class SubtypingCache(private val maxSize: Int = DEFAULT_MAX_SIZE) {
+    @PublishedApi
+    internal class Key(val subType: KotlinTypeMarker, val superType: KotlinTypeMarker, val flags: Int) {
+        private val hashCode = (subType.hashCode() * 31 + superType.hashCode()) * 31 + flags
+
+        override fun hashCode(): Int = hashCode
+
+        override fun equals(other: Any?): Boolean {
+            if (this === other) return true
+            if (other !is Key) return false
+            return hashCode == other.hashCode && flags == other.flags && subType == other.subType && superType == other.superType
+        }
+    }
+
+    class Statistics(val hits: Long, val misses: Long, val evictions: Long) {
+        override fun toString(): String = "hits $hits, misses $misses, evictions $evictions"
+    }
+
+    private val results = ConcurrentHashMap<Key, Boolean>()
+
+    val size: Int
+        get() = results.size
+
+    inline fun getOrCompute(
+        context: AbstractTypeCheckerContext,
+        subType: KotlinTypeMarker,
+        superType: KotlinTypeMarker,
+        isFromNullabilityConstraint: Boolean,
+        compute: () -> Boolean
+    ): Boolean {
+        val key = createKey(context, subType, superType, isFromNullabilityConstraint)
+        get(key)?.let { return it }
+        return compute().also { put(key, it) }
+    }
+
+    @PublishedApi
+    internal fun createKey(
+        context: AbstractTypeCheckerContext,
+        subType: KotlinTypeMarker,
+        superType: KotlinTypeMarker,
+        isFromNullabilityConstraint: Boolean
+    ): Key {
+        val flags = (if (context.isErrorTypeEqualsToAnything) 1 else 0) or
+                (if (context.isStubTypeEqualsToAnything) 2 else 0) or
+                (if (isFromNullabilityConstraint) 4 else 0)
+        return Key(subType, superType, flags)
+    }
+
+    @PublishedApi
+    internal fun get(key: Key): Boolean? {
+        val result = results[key]
+        if (result != null) hits.increment() else misses.increment()
+        return result
+    }
+
+    @PublishedApi
+    internal fun put(key: Key, result: Boolean) {
+        if (results.size >= maxSize) {
+            evictions.increment()
+            results.clear()
+        }
+        results[key] = result
+    }
+
+    fun invalidate() {
+        results.clear()
+    }
+
+    override fun toString(): String = "subtyping cache: size $size"
+
+    companion object {
+        const val ENABLED_PROPERTY = "kotlin.types.subtyping.cache"
+
+        private const val DEFAULT_MAX_SIZE = 100_000
+
+        private val hits = LongAdder()
+        private val misses = LongAdder()
+        private val evictions = LongAdder()
+
+        val isEnabled: Boolean
+            get() = System.getProperty(ENABLED_PROPERTY)?.toBoolean() == true
+
+        fun createIfEnabled(): SubtypingCache? = if (isEnabled) SubtypingCache() else null
+
+        fun statistics(): Statistics = Statistics(hits.sum(), misses.sum(), evictions.sum())
+    }
+}
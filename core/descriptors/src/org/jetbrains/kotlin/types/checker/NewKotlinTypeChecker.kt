@@ -71,15 +71,21 @@ interface NewKotlinTypeChecker : KotlinTypeChecker {
 }
 
 
-class NewKotlinTypeCheckerImpl(override val kotlinTypeRefiner: KotlinTypeRefiner) : NewKotlinTypeChecker {
+open class NewKotlinTypeCheckerImpl protected constructor(
+    override val kotlinTypeRefiner: KotlinTypeRefiner,
+    val subtypingCache: SubtypingCache?
+) : NewKotlinTypeChecker {
+    constructor(kotlinTypeRefiner: KotlinTypeRefiner) : this(kotlinTypeRefiner, subtypingCache = null)
+
     override val overridingUtil: OverridingUtil = OverridingUtil.createWithTypeRefiner(kotlinTypeRefiner)
 
     override fun isSubtypeOf(subtype: KotlinType, supertype: KotlinType): Boolean =
-        ClassicTypeCheckerContext(true, kotlinTypeRefiner = kotlinTypeRefiner)
+        ClassicTypeCheckerContext(true, kotlinTypeRefiner = kotlinTypeRefiner, subtypingCache = subtypingCache)
             .isSubtypeOf(subtype.unwrap(), supertype.unwrap()) // todo fix flag errorTypeEqualsToAnything
 
     override fun equalTypes(a: KotlinType, b: KotlinType): Boolean =
-        ClassicTypeCheckerContext(false, kotlinTypeRefiner = kotlinTypeRefiner).equalTypes(a.unwrap(), b.unwrap())
+        ClassicTypeCheckerContext(false, kotlinTypeRefiner = kotlinTypeRefiner, subtypingCache = subtypingCache)
+            .equalTypes(a.unwrap(), b.unwrap())
 
     fun ClassicTypeCheckerContext.equalTypes(a: UnwrappedType, b: UnwrappedType): Boolean {
         return AbstractTypeChecker.equalTypes(this as AbstractTypeCheckerContext, a, b)
@@ -144,6 +150,13 @@ class NewKotlinTypeCheckerImpl(override val kotlinTypeRefiner: KotlinTypeRefiner
         }.inheritEnhancement(type)
 }
 
+/**
+ * The checker of the module resolution container. It lives as long as the resolution of the module,
+ * so it owns a [SubtypingCache] if the cache [is enabled][SubtypingCache.isEnabled].
+ */
+class ModuleNewKotlinTypeChecker(kotlinTypeRefiner: KotlinTypeRefiner) :
+    NewKotlinTypeCheckerImpl(kotlinTypeRefiner, SubtypingCache.createIfEnabled())
+
 object NullabilityChecker {
 
     fun isSubtypeOfAny(type: UnwrappedType): Boolean =
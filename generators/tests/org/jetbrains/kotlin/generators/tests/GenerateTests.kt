@@ -154,6 +154,7 @@ import org.jetbrains.kotlin.jps.incremental.AbstractJsProtoComparisonTest
 import org.jetbrains.kotlin.jps.incremental.AbstractJvmProtoComparisonTest
 import org.jetbrains.kotlin.jvm.abi.AbstractCompareJvmAbiTest
 import org.jetbrains.kotlin.jvm.abi.AbstractCompileAgainstJvmAbiTest
+import org.jetbrains.kotlin.jvm.abi.AbstractIrCompileAgainstJvmAbiTest
 import org.jetbrains.kotlin.jvm.abi.AbstractJvmAbiContentTest
 import org.jetbrains.kotlin.kapt.cli.test.AbstractArgumentParsingTest
 import org.jetbrains.kotlin.kapt.cli.test.AbstractKaptToolIntegrationTest
@@ -1599,6 +1600,10 @@ fun main(args: Array<String>) {
             testClass<AbstractCompileAgainstJvmAbiTest> {
                 model("compile", recursive = false, extension = null)
             }
+
+            testClass<AbstractIrCompileAgainstJvmAbiTest> {
+                model("compile", recursive = false, extension = null)
+            }
         }
 
         testGroup("plugins/kapt3/kapt3-compiler/test", "plugins/kapt3/kapt3-compiler/testData") {
@@ -18,8 +18,10 @@ package org.jetbrains.kotlin.compilerRunner
 
 import org.jetbrains.kotlin.daemon.client.CompilerCallbackServicesFacadeServer
 import org.jetbrains.kotlin.daemon.client.reportFromDaemon
+import org.jetbrains.kotlin.daemon.common.CompilerServicesFacadeWithPackedReports
 import org.jetbrains.kotlin.daemon.common.JpsCompilerServicesFacade
 import org.jetbrains.kotlin.daemon.common.SOCKET_ANY_FREE_PORT
+import org.jetbrains.kotlin.daemon.common.reportFromPacked
 import org.jetbrains.kotlin.incremental.components.ExpectActualTracker
 import org.jetbrains.kotlin.incremental.components.LookupTracker
 import org.jetbrains.kotlin.incremental.js.IncrementalDataProvider
@@ -39,7 +41,7 @@ internal class JpsCompilerServicesFacadeImpl(
     env.services[IncrementalResultsConsumer::class.java],
     env.services[IncrementalDataProvider::class.java],
     port
-), JpsCompilerServicesFacade {
+), JpsCompilerServicesFacade, CompilerServicesFacadeWithPackedReports {
 
     override fun report(category: Int, severity: Int, message: String?, attachment: Serializable?) {
         env.messageCollector.reportFromDaemon(
@@ -47,4 +49,8 @@ internal class JpsCompilerServicesFacadeImpl(
             category, severity, message, attachment
         )
     }
+
+    override fun reportPacked(packedReports: ByteArray) {
+        reportFromPacked(packedReports)
+    }
 }
\ No newline at end of file
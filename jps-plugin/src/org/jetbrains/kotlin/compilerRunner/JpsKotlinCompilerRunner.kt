@@ -76,6 +76,12 @@ class JpsKotlinCompilerRunner {
         }
 
         const val FAIL_ON_FALLBACK_PROPERTY = "test.kotlin.jps.compiler.runner.fail.on.fallback"
+
+        /**
+         * Keeps the application environment of the in-process compiler alive between chunks, so that the following chunks
+         * don't create it from scratch. Off by default, because the environment then stays in the memory of the build process.
+         */
+        const val KEEP_COMPILER_ENVIRONMENT_PROPERTY = "kotlin.jps.keep.compiler.environment"
     }
 
     fun classesFqNamesByFiles(
@@ -283,8 +289,11 @@ class JpsKotlinCompilerRunner {
 
         // the property should be set at least for parallel builds to avoid parallel building problems (racing between destroying and using environment)
         // unfortunately it cannot be currently set by default globally, because it breaks many tests
-        // since there is no reliable way so far to detect running under tests, switching it on only for parallel builds
-        if (System.getProperty(GlobalOptions.COMPILE_PARALLEL_OPTION, "false").toBoolean())
+        // since there is no reliable way so far to detect running under tests, switching it on only for parallel builds,
+        // or if it's explicitly requested with KEEP_COMPILER_ENVIRONMENT_PROPERTY
+        if (System.getProperty(GlobalOptions.COMPILE_PARALLEL_OPTION, "false").toBoolean() ||
+            System.getProperty(KEEP_COMPILER_ENVIRONMENT_PROPERTY, "false").toBoolean()
+        )
             System.setProperty(KOTLIN_COMPILER_ENVIRONMENT_KEEPALIVE_PROPERTY, "true")
 
         val rc = environment.withProgressReporter { progress ->
@@ -31,6 +31,7 @@ import org.jetbrains.jps.model.JpsProject
 import org.jetbrains.kotlin.build.GeneratedFile
 import org.jetbrains.kotlin.cli.common.ExitCode
 import org.jetbrains.kotlin.cli.common.arguments.CommonCompilerArguments
+import org.jetbrains.kotlin.cli.common.arguments.copyBean
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity.*
 import org.jetbrains.kotlin.cli.common.messages.MessageCollectorUtil
@@ -95,6 +96,7 @@ class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR) {
         LOG.info("is Kotlin incremental compilation enabled for JVM: ${IncrementalCompilation.isEnabledForJvm()}")
         LOG.info("is Kotlin incremental compilation enabled for JS: ${IncrementalCompilation.isEnabledForJs()}")
         LOG.info("is Kotlin compiler daemon enabled: ${isDaemonEnabled()}")
+        LOG.info("is Kotlin compiler environment kept between chunks: ${System.getProperty(JpsKotlinCompilerRunner.KEEP_COMPILER_ENVIRONMENT_PROPERTY)}")
 
         val historyLabel = context.getBuilderParameter("history label")
         if (historyLabel != null) {
@@ -403,6 +405,16 @@ class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR) {
             messageCollector
         ) ?: return ABORT
 
+        var compilerArguments = kotlinChunk.compilerArguments
+        if (statisticsLogger.isOnTeamcity) {
+            // the time of the compiler environment setup is known only to the compiler, so its performance report is requested
+            messageCollector.performanceReportListener = { statisticsLogger.registerPerformanceReport(chunk, it) }
+            if (!compilerArguments.reportPerf) {
+                compilerArguments = copyBean(compilerArguments).apply { reportPerf = true }
+                messageCollector.showPerformanceReport = false
+            }
+        }
+
         context.testingContext?.buildLogger?.compilingFiles(
             kotlinDirtyFilesHolder.allDirtyFiles,
             kotlinDirtyFilesHolder.allRemovedFilesFiles
@@ -416,7 +428,7 @@ class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR) {
         val outputItemCollector = doCompileModuleChunk(
             kotlinChunk,
             representativeTarget,
-            kotlinChunk.compilerArguments,
+            compilerArguments,
             context,
             kotlinDirtyFilesHolder,
             fsOperations,
@@ -583,7 +595,7 @@ class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR) {
             build()
         }
 
-        val paths = computeKotlinPathsForJpsPlugin()
+        val paths = kotlinPathsForJpsPlugin
         if (paths == null || !paths.homePath.exists()) {
             messageCollector.report(
                 ERROR, "Cannot find kotlinc home. Make sure the plugin is properly installed, " +
@@ -602,6 +614,9 @@ class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR) {
         )
     }
 
+    // computed once per build process: all chunks use the same compiler, so they can share its class loader and warmed up environment
+    private val kotlinPathsForJpsPlugin: KotlinPaths? by lazy { computeKotlinPathsForJpsPlugin() }
+
     // When JPS is run on TeamCity, it can not rely on Kotlin plugin layout,
     // so the path to Kotlin is specified in a system property
     private fun computeKotlinPathsForJpsPlugin(): KotlinPaths? {
@@ -21,9 +21,22 @@ class MessageCollectorAdapter(
 ) : MessageCollector {
     private var hasErrors = false
 
+    /**
+     * Receives the compiler performance report ("PERF: ..." messages), if set.
+     * The report is not shown in the build log if it was requested only for the listener, see [showPerformanceReport].
+     */
+    var performanceReportListener: ((String) -> Unit)? = null
+    var showPerformanceReport = true
+
     override fun report(severity: CompilerMessageSeverity, message: String, location: CompilerMessageSourceLocation?) {
         hasErrors = hasErrors || severity.isError
 
+        val listener = performanceReportListener
+        if (listener != null && severity == CompilerMessageSeverity.INFO && message.startsWith(PERF_PREFIX)) {
+            listener(message.removePrefix(PERF_PREFIX))
+            if (!showPerformanceReport) return
+        }
+
         var prefix = ""
         if (severity == CompilerMessageSeverity.EXCEPTION) {
             prefix = CompilerRunnerConstants.INTERNAL_ERROR_PREFIX
@@ -69,4 +82,8 @@ class MessageCollectorAdapter(
             else -> throw IllegalArgumentException("Unsupported severity: $severity")
         }
     }
-}
\ No newline at end of file
+
+    companion object {
+        private const val PERF_PREFIX = "PERF: "
+    }
+}
@@ -21,9 +21,10 @@ import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicLong
 
 class TeamcityStatisticsLogger {
-    private val isOnTeamcity = System.getenv("TEAMCITY_VERSION") != null
+    val isOnTeamcity = System.getenv("TEAMCITY_VERSION") != null
 
     private val totalTime = AtomicLong()
+    private val totalSetupTimeMs = AtomicLong()
 
     //NOTE: mostly copied from TeamCityBuildInfoPrinter
     private fun escapedChar(c: Char): Char {
@@ -62,6 +63,20 @@ class TeamcityStatisticsLogger {
         printPerChunkStatistics(moduleChunk, timeToCompileNs)
     }
 
+    /**
+     * Registers the time of the compiler environment setup, taken from the "INIT" line of the compiler performance report
+     */
+    fun registerPerformanceReport(moduleChunk: ModuleChunk, reportLine: String) {
+        if (!isOnTeamcity) return
+
+        val timeToSetupMs = COMPILER_INITIALIZED_REGEX.matchEntire(reportLine)?.groupValues?.get(1)?.toLongOrNull() ?: return
+        totalSetupTimeMs.addAndGet(timeToSetupMs)
+        printStatisticMessage(
+            "${KotlinBuilder.KOTLIN_BUILDER_NAME} for ${moduleChunk.presentableShortName} compiler setup time, ms",
+            timeToSetupMs.toString()
+        )
+    }
+
     private fun printPerChunkStatistics(moduleChunk: ModuleChunk, timeToCompileNs: Long) {
         printStatisticMessage(
             "${KotlinBuilder.KOTLIN_BUILDER_NAME} for ${moduleChunk.presentableShortName} compilation time, ms",
@@ -76,6 +91,10 @@ class TeamcityStatisticsLogger {
             "${KotlinBuilder.KOTLIN_BUILDER_NAME} total compilation time, ms",
             totalTime.get().nanosToMillis().toString()
         )
+        printStatisticMessage(
+            "${KotlinBuilder.KOTLIN_BUILDER_NAME} total compiler setup time, ms",
+            totalSetupTimeMs.get().toString()
+        )
     }
 
 
@@ -84,4 +103,9 @@ class TeamcityStatisticsLogger {
     }
 
     private fun Long.nanosToMillis() = TimeUnit.NANOSECONDS.toMillis(this)
+
+    companion object {
+        // see CompilerInitializationMeasurement
+        private val COMPILER_INITIALIZED_REGEX = Regex("INIT: Compiler initialized in (\\d+) ms")
+    }
 }
\ No newline at end of file
@@ -69,13 +69,14 @@ class FunctionReader(
      * kotlinVariable: kotlin object variable.
      *     The default variable is Kotlin, but it can be renamed by minifier.
      */
-    class ModuleInfo(
+    class ModuleInfo internal constructor(
         val filePath: String,
         val fileContent: String,
         val moduleVariable: String,
         val kotlinVariable: String,
         specialFunctionsProvider: () -> Map<String, SpecialFunction>,
         offsetToSourceMappingProvider: () -> OffsetToSourceMapping,
+        functionTagIndexProvider: () -> FunctionTagIndex,
         sourceMapProvider: () -> SourceMap?,
         val outputDir: File?
     ) {
@@ -83,6 +84,8 @@ class FunctionReader(
 
         val offsetToSourceMapping by lazy(offsetToSourceMappingProvider)
 
+        internal val functionTagIndex by lazy(functionTagIndexProvider)
+
         val sourceMap: SourceMap? by lazy(sourceMapProvider)
 
         val wrapFunctionRegex by lazy {
@@ -98,6 +101,9 @@ class FunctionReader(
         JsLibraryUtils.traverseJsLibraries(config.libraries.map(::File)) { (content, path, sourceMapContent, file) ->
             var current = 0
 
+            // One file can define several modules, build the index for the whole file only once
+            val functionTagIndex by lazy { FunctionTagIndex(content) }
+
             while (true) {
                 var index = content.indexOf(DEFINE_MODULE_FIND_PATTERN, current)
                 if (index < 0) break
@@ -142,6 +148,7 @@ class FunctionReader(
                     kotlinVariable = kotlinVariable,
                     specialFunctionsProvider = specialFunctionsProvider,
                     offsetToSourceMappingProvider = { OffsetToSourceMapping(content) },
+                    functionTagIndexProvider = { functionTagIndex },
                     sourceMapProvider = sourceMapProvider,
                     outputDir = file?.parentFile
                 )
@@ -177,7 +184,7 @@ class FunctionReader(
 
     object NotFoundMarker
 
-    private val functionCache = object : SLRUCache<CallableDescriptor, Any>(50, 50) {
+    private val functionCache = object : SLRUCache<CallableDescriptor, Any>(256, 256) {
         override fun createValue(key: CallableDescriptor): Any =
             readFunction(key) ?: NotFoundMarker
     }
@@ -237,13 +244,13 @@ class FunctionReader(
     private fun readFunctionFromSource(descriptor: CallableDescriptor, info: ModuleInfo): FunctionWithWrapper? {
         val source = info.fileContent
         var tag = Namer.getFunctionTag(descriptor, config, bindingContext)
-        var index = source.indexOf(tag)
+        var index = info.functionTagIndex.indexOf(tag)
 
         // Hack for compatibility with old versions of stdlib
         // TODO: remove in 1.2
         if (index < 0 && tag == "kotlin.untypedCharArrayF") {
             tag = "kotlin.charArrayF"
-            index = source.indexOf(tag)
+            index = info.functionTagIndex.indexOf(tag)
         }
 
         if (index < 0) return null
@@ -435,3 +442,45 @@ private class ShallowSubSequence(private val underlying: CharSequence, private v
     override fun subSequence(startIndex: Int, endIndex: Int): CharSequence =
         ShallowSubSequence(underlying, start + startIndex, start + endIndex)
 }
+
+/**
+ * Offsets of string literals passed as the first argument of a call, i.e. `defineInlineFunction('tag', ...)`,
+ * possibly with renamed callee. Built with a single pass over the file, so that looking up each inline function
+ * does not require scanning the whole library content again.
+ *
+ * Each literal is checked on its own, so a quote which doesn't start a literal (e.g. in a comment or a regular expression)
+ * doesn't make the scanner skip the following ones. Tags which can't be found in the index (e.g. ones containing escaped
+ * characters) are searched in the text directly.
+ */
+internal class FunctionTagIndex(private val content: String) {
+    private val offsets: Map<String, Int> = buildIndex()
+
+    fun indexOf(tag: String): Int = offsets[tag] ?: content.indexOf(tag)
+
+    private fun buildIndex(): Map<String, Int> {
+        val result = hashMapOf<String, Int>()
+        for (index in content.indices) {
+            val quote = content[index]
+            if (quote != '\'' && quote != '"' || !isFirstArgument(index)) continue
+
+            val start = index + 1
+            var end = start
+            while (end < content.length && content[end] != quote && content[end] != '\\' && content[end] != '\n') {
+                end++
+            }
+
+            if (end < content.length && content[end] == quote && end > start) {
+                result.getOrPut(content.substring(start, end)) { start }
+            }
+        }
+        return result
+    }
+
+    private fun isFirstArgument(quoteIndex: Int): Boolean {
+        var index = quoteIndex - 1
+        while (index >= 0 && content[index].isWhitespace()) {
+            index--
+        }
+        return index >= 0 && content[index] == '('
+    }
+}
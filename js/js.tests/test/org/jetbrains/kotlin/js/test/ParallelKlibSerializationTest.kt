@@ -0,0 +1,127 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.js.test
+
+import org.jetbrains.kotlin.cli.common.messages.AnalyzerWithCompilerReport
+import org.jetbrains.kotlin.cli.common.messages.MessageCollector
+import org.jetbrains.kotlin.cli.js.messageCollectorLogger
+import org.jetbrains.kotlin.cli.jvm.compiler.EnvironmentConfigFiles
+import org.jetbrains.kotlin.cli.jvm.compiler.KotlinCoreEnvironment
+import org.jetbrains.kotlin.config.CommonConfigurationKeys
+import org.jetbrains.kotlin.config.CompilerConfiguration
+import org.jetbrains.kotlin.ir.backend.js.MainModule
+import org.jetbrains.kotlin.ir.backend.js.emptyLoggingContext
+import org.jetbrains.kotlin.ir.backend.js.jsResolveLibraries
+import org.jetbrains.kotlin.ir.backend.js.loadIr
+import org.jetbrains.kotlin.ir.backend.js.lower.serialization.ir.JsIrModuleSerializer
+import org.jetbrains.kotlin.ir.declarations.IrModuleFragment
+import org.jetbrains.kotlin.ir.declarations.persistent.PersistentIrFactory
+import org.jetbrains.kotlin.library.SerializedIrFile
+import org.jetbrains.kotlin.test.KotlinTestUtils
+import org.jetbrains.kotlin.test.KotlinTestWithEnvironment
+import java.io.File
+
+class ParallelKlibSerializationTest : KotlinTestWithEnvironment() {
+
+    fun testParallelSerializationGivesSameBytes() {
+        val module = loadModule(
+            "a.kt" to """
+                package a
+
+                import b.*
+
+                class A<T>(val value: T) : Base() {
+                    override fun foo(): String = "A" + helper(value.toString())
+                    inline fun <reified R> cast(): R? = value as? R
+                }
+
+                private fun helper(s: String) = s.map { it.toUpperCase() }.joinToString("")
+
+                fun useAll(): Int {
+                    val local = object : Base() { override fun foo() = "local" }
+                    return A(42).foo().length + local.foo().length + Kind.SECOND.ordinal + Registry.count
+                }
+            """,
+            "b.kt" to """
+                package b
+
+                abstract class Base {
+                    abstract fun foo(): String
+                    open val name: String get() = foo()
+                }
+
+                enum class Kind { FIRST, SECOND }
+
+                object Registry {
+                    var count = 0
+                    fun register(base: Base) { count += base.name.length }
+                }
+            """,
+            "c.kt" to """
+                package a
+
+                import b.*
+
+                private val cache = mutableMapOf<Kind, Base>()
+
+                fun lookup(kind: Kind): Base = cache.getOrPut(kind) {
+                    A(kind).also { Registry.register(it) }
+                }
+
+                fun <T : Comparable<T>> maxOf3(x: T, y: T, z: T): T = listOf(x, y, z).maxOrNull()!!
+            """
+        )
+
+        val sequential = serialize(module, threads = 1)
+        val parallel = serialize(module, threads = 3)
+
+        assertEquals(sequential.map { it.path }, parallel.map { it.path })
+        for ((expected, actual) in sequential.zip(parallel)) {
+            val path = expected.path
+            assertEquals(path, expected.fqName, actual.fqName)
+            assertBytesEqual("$path: file data", expected.fileData, actual.fileData)
+            assertBytesEqual("$path: types", expected.types, actual.types)
+            assertBytesEqual("$path: signatures", expected.signatures, actual.signatures)
+            assertBytesEqual("$path: strings", expected.strings, actual.strings)
+            assertBytesEqual("$path: bodies", expected.bodies, actual.bodies)
+            assertBytesEqual("$path: declarations", expected.declarations, actual.declarations)
+        }
+    }
+
+    private fun assertBytesEqual(message: String, expected: ByteArray, actual: ByteArray) {
+        assertTrue(message, expected.contentEquals(actual))
+    }
+
+    private fun loadModule(vararg files: Pair<String, String>): IrModuleFragment {
+        val configuration = environment.configuration.copy()
+        configuration.put(CommonConfigurationKeys.MODULE_NAME, "parallelSerialization")
+
+        val ktFiles = files.map { (name, text) -> KotlinTestUtils.createFile(name, text.trimIndent(), environment.project) }
+        val resolvedLibraries = jsResolveLibraries(
+            listOf(File(System.getProperty("kotlin.js.full.stdlib.path")).absolutePath),
+            messageCollectorLogger(MessageCollector.NONE)
+        )
+
+        return loadIr(
+            environment.project,
+            MainModule.SourceFiles(ktFiles),
+            AnalyzerWithCompilerReport(configuration),
+            configuration,
+            resolvedLibraries,
+            emptyList(),
+            PersistentIrFactory
+        ).module
+    }
+
+    private fun serialize(module: IrModuleFragment, threads: Int): List<SerializedIrFile> =
+        JsIrModuleSerializer(
+            emptyLoggingContext, module.irBuiltins, mutableMapOf(), skipExpects = true, serializationThreads = threads
+        ).serializedIrModule(module).files.toList()
+
+    override fun createEnvironment(): KotlinCoreEnvironment {
+        return KotlinCoreEnvironment.createForTests(TestDisposable(), CompilerConfiguration(), EnvironmentConfigFiles.JS_CONFIG_FILES)
+    }
+}
@@ -16,6 +16,8 @@ dependencies {
     compile(project(":js:js.parser"))
     compileOnly(intellijCoreDep()) { includeJars("intellij-core") }
     compileOnly(intellijDep()) { includeJars("trove4j", "guava", rootProject = rootProject) }
+
+    testCompile(commonDep("junit:junit"))
 }
 
 sourceSets {
@@ -23,7 +25,13 @@ sourceSets {
         projectDefault()
         java.srcDir("../js.inliner/src")
     }
-    "test" {}
+    "test" { projectDefault() }
+}
+
+projectTest {
+    // FunctionTagIndexTest reads the JS stdlib built by the current compiler
+    dependsOn(":dist")
+    workingDir = rootDir
 }
 
 configure<IdeaModel> {
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.js.inline
+
+import junit.framework.TestCase
+import java.io.File
+
+class FunctionTagIndexTest : TestCase() {
+    fun testStdlibTagsAreFoundAtSameOffsetsAsByTextSearch() {
+        val content = File("dist/js/kotlin.js").readText()
+        val tags = DEFINE_INLINE_FUNCTION.findAll(content).map { it.groupValues[2] }.toList()
+        assertTrue("No inline functions found in the stdlib", tags.isNotEmpty())
+
+        val index = FunctionTagIndex(content)
+        for (tag in tags) {
+            assertEquals(tag, content.indexOf(tag), index.indexOf(tag))
+        }
+    }
+
+    fun testStrayQuotesDontHideFollowingTags() {
+        val content = """
+            /* ( " */ var re = /(')/;
+            _.defineInlineFunction('a.foo_s8ev3n${'$'}', function () {});
+            _.defineInlineFunction("a.bar_s8ev3n${'$'}", function () {});
+        """.trimIndent()
+
+        val index = FunctionTagIndex(content)
+        for (tag in listOf("a.foo_s8ev3n$", "a.bar_s8ev3n$", "missing")) {
+            assertEquals(tag, content.indexOf(tag), index.indexOf(tag))
+        }
+    }
+
+    companion object {
+        private val DEFINE_INLINE_FUNCTION = Regex("defineInlineFunction\\(\\s*(['\"])([^'\"\\\\]+)\\1")
+    }
+}
@@ -21,7 +21,7 @@ internal open class GradleCompilerServicesFacadeImpl(
     private val compilerMessageCollector: GradleBufferingMessageCollector,
     port: Int = SOCKET_ANY_FREE_PORT
 ) : UnicastRemoteObject(port, LoopbackNetworkInterface.clientLoopbackSocketFactory, LoopbackNetworkInterface.serverLoopbackSocketFactory),
-    CompilerServicesFacadeBase,
+    CompilerServicesFacadeWithPackedReports,
     Remote {
 
     override fun report(category: Int, severity: Int, message: String?, attachment: Serializable?) {
@@ -43,6 +43,10 @@ internal open class GradleCompilerServicesFacadeImpl(
             }
         }
     }
+
+    override fun reportPacked(packedReports: ByteArray) {
+        reportFromPacked(packedReports)
+    }
 }
 
 internal class GradleIncrementalCompilerServicesFacadeImpl(
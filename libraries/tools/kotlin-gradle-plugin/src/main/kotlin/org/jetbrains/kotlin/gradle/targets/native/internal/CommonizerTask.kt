@@ -54,6 +54,10 @@ internal data class CommonizerTaskParams(
 
     @get:Nested val subtasks: List<CommonizerSubtaskParams>
 ) {
+    // Commonized libraries reused between the runs, pruned by the commonizer itself.
+    @get:Internal
+    val cacheDir: File get() = cacheDir(baseDestinationDir)
+
     @get:Internal
     lateinit var commandLineArguments: List<String>
 
@@ -67,6 +71,11 @@ internal data class CommonizerTaskParams(
         private const val SUCCESS_MARKER = ".commonized"
         private const val SUCCESS_MARKER_CONTENT = "1"
 
+        // commonized libraries shared between target groups and Kotlin/Native distributions
+        private const val CACHE_DIR_NAME = ".cache"
+
+        private fun cacheDir(baseDestinationDir: File): File = baseDestinationDir.resolve(CACHE_DIR_NAME)
+
         fun build(
             kotlinVersion: String,
             targetGroups: List<Set<KonanTarget>>,
@@ -118,6 +127,8 @@ internal data class CommonizerTaskParams(
                         commandLineArguments += destinationTmpDir.toString()
                         commandLineArguments += "-targets"
                         commandLineArguments += orderedTargetNames.joinToString(separator = ",")
+                        commandLineArguments += "-cache-path"
+                        commandLineArguments += cacheDir(baseDestinationDir).toString()
 
                         successPostActions.add {
                             renameDirectory(destinationTmpDir, destinationDir)
@@ -205,7 +216,7 @@ internal open class CommonizerTask @Inject constructor(
         // that accidentally were not cleaned up before
         cleanUp(
             baseDirectory = params.baseDestinationDir,
-            excludedDirectories = params.subtasks.map { it.destinationDir }
+            excludedDirectories = params.subtasks.map { it.destinationDir } + params.cacheDir
         )
 
         try {
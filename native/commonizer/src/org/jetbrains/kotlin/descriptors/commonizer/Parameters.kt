@@ -26,6 +26,9 @@ class Parameters(
     // only for test purposes
     internal var commonModulesProvider: ModulesProvider? = null
 
+    // only for test purposes
+    internal var parallelCommonization: Boolean = true
+
     fun addTarget(targetProvider: TargetProvider): Parameters {
         require(targetProvider.target !in _targetProviders) { "Target ${targetProvider.target} is already added" }
         _targetProviders[targetProvider.target] = targetProvider
@@ -7,6 +7,7 @@ package org.jetbrains.kotlin.descriptors.commonizer.cir.factory
 
 import gnu.trove.THashMap
 import org.jetbrains.kotlin.descriptors.annotations.AnnotationDescriptor
+import org.jetbrains.kotlin.descriptors.annotations.Annotations
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirAnnotation
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirSimpleType
 import org.jetbrains.kotlin.descriptors.commonizer.cir.impl.CirAnnotationImpl
@@ -19,6 +20,16 @@ import org.jetbrains.kotlin.resolve.constants.ConstantValue
 
 object CirAnnotationFactory {
     private val interner = Interner<CirAnnotation>()
+    private val listInterner = Interner<List<CirAnnotation>>()
+
+    // the same annotation lists are repeated across many declarations and targets
+    fun createList(source: Annotations): List<CirAnnotation> {
+        if (source.isEmpty())
+            return emptyList()
+
+        val annotations = source.map(::create)
+        return listInterner.intern(if (annotations.size == 1) listOf(annotations[0]) else ArrayList(annotations))
+    }
 
     fun create(source: AnnotationDescriptor): CirAnnotation {
         val type = CirTypeFactory.create(source.type) as CirSimpleType
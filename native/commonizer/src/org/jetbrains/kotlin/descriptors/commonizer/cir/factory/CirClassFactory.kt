@@ -14,14 +14,15 @@ import org.jetbrains.kotlin.descriptors.commonizer.cir.CirClass
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirType
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirTypeParameter
 import org.jetbrains.kotlin.descriptors.commonizer.cir.impl.CirClassImpl
+import org.jetbrains.kotlin.descriptors.commonizer.utils.compactMap
 import org.jetbrains.kotlin.descriptors.commonizer.utils.intern
 import org.jetbrains.kotlin.name.Name
 
 object CirClassFactory {
     fun create(source: ClassDescriptor): CirClass = create(
-        annotations = source.annotations.map(CirAnnotationFactory::create),
+        annotations = CirAnnotationFactory.createList(source.annotations),
         name = source.name.intern(),
-        typeParameters = source.declaredTypeParameters.map(CirTypeParameterFactory::create),
+        typeParameters = source.declaredTypeParameters.compactMap(CirTypeParameterFactory::create),
         visibility = source.visibility,
         modality = source.modality,
         kind = source.kind,
@@ -31,7 +32,9 @@ object CirClassFactory {
         isInline = source.isInline,
         isInner = source.isInner,
         isExternal = source.isExternal,
-        supertypes = source.typeConstructor.supertypes.mapTo(mutableListOf()) { CirTypeFactory.create(it) }
+        supertypes = source.typeConstructor.supertypes.let { supertypes ->
+            supertypes.mapTo(ArrayList(supertypes.size)) { CirTypeFactory.create(it) }
+        }
     )
 
     @Suppress("NOTHING_TO_INLINE")
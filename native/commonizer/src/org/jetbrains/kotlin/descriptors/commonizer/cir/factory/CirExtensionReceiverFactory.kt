@@ -13,7 +13,7 @@ import org.jetbrains.kotlin.descriptors.commonizer.cir.impl.CirExtensionReceiver
 
 object CirExtensionReceiverFactory {
     fun create(source: ReceiverParameterDescriptor): CirExtensionReceiver = create(
-        annotations = source.annotations.map(CirAnnotationFactory::create),
+        annotations = CirAnnotationFactory.createList(source.annotations),
         type = CirTypeFactory.create(source.type)
     )
 
@@ -8,18 +8,19 @@ package org.jetbrains.kotlin.descriptors.commonizer.cir.factory
 import org.jetbrains.kotlin.descriptors.*
 import org.jetbrains.kotlin.descriptors.commonizer.cir.*
 import org.jetbrains.kotlin.descriptors.commonizer.cir.impl.CirFunctionImpl
+import org.jetbrains.kotlin.descriptors.commonizer.utils.compactMap
 import org.jetbrains.kotlin.descriptors.commonizer.utils.intern
 import org.jetbrains.kotlin.name.Name
 
 object CirFunctionFactory {
     fun create(source: SimpleFunctionDescriptor): CirFunction = create(
-        annotations = source.annotations.map(CirAnnotationFactory::create),
+        annotations = CirAnnotationFactory.createList(source.annotations),
         name = source.name.intern(),
-        typeParameters = source.typeParameters.map(CirTypeParameterFactory::create),
+        typeParameters = source.typeParameters.compactMap(CirTypeParameterFactory::create),
         visibility = source.visibility,
         modality = source.modality,
         containingClassDetails = CirContainingClassDetailsFactory.create(source),
-        valueParameters = source.valueParameters.map(CirValueParameterFactory::create),
+        valueParameters = source.valueParameters.compactMap(CirValueParameterFactory::create),
         hasStableParameterNames = source.hasStableParameterNames(),
         extensionReceiver = source.extensionReceiverParameter?.let(CirExtensionReceiverFactory::create),
         returnType = CirTypeFactory.create(source.returnType!!),
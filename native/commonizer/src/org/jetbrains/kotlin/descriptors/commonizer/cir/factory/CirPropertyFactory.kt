@@ -12,6 +12,7 @@ import org.jetbrains.kotlin.descriptors.DescriptorVisibility
 import org.jetbrains.kotlin.descriptors.commonizer.cir.*
 import org.jetbrains.kotlin.descriptors.commonizer.cir.impl.CirPropertyImpl
 import org.jetbrains.kotlin.descriptors.commonizer.utils.checkConstantSupportedInCommonization
+import org.jetbrains.kotlin.descriptors.commonizer.utils.compactMap
 import org.jetbrains.kotlin.descriptors.commonizer.utils.intern
 import org.jetbrains.kotlin.name.Name
 import org.jetbrains.kotlin.resolve.constants.ConstantValue
@@ -28,9 +29,9 @@ object CirPropertyFactory {
         }
 
         return create(
-            annotations = source.annotations.map(CirAnnotationFactory::create),
+            annotations = CirAnnotationFactory.createList(source.annotations),
             name = source.name.intern(),
-            typeParameters = source.typeParameters.map(CirTypeParameterFactory::create),
+            typeParameters = source.typeParameters.compactMap(CirTypeParameterFactory::create),
             visibility = source.visibility,
             modality = source.modality,
             containingClassDetails = CirContainingClassDetailsFactory.create(source),
@@ -44,8 +45,8 @@ object CirPropertyFactory {
             isDelegate = source.isDelegated,
             getter = source.getter?.let(CirPropertyGetterFactory::create),
             setter = source.setter?.let(CirPropertySetterFactory::create),
-            backingFieldAnnotations = source.backingField?.annotations?.map(CirAnnotationFactory::create),
-            delegateFieldAnnotations = source.delegateField?.annotations?.map(CirAnnotationFactory::create),
+            backingFieldAnnotations = source.backingField?.annotations?.let(CirAnnotationFactory::createList),
+            delegateFieldAnnotations = source.delegateField?.annotations?.let(CirAnnotationFactory::createList),
             compileTimeInitializer = source.compileTimeInitializer
         )
     }
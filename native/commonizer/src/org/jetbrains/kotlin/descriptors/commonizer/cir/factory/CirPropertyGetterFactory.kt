@@ -27,7 +27,7 @@ object CirPropertyGetterFactory {
             DEFAULT_NO_ANNOTATIONS
         else
             create(
-                annotations = source.annotations.map(CirAnnotationFactory::create),
+                annotations = CirAnnotationFactory.createList(source.annotations),
                 isDefault = source.isDefault,
                 isExternal = source.isExternal,
                 isInline = source.isInline
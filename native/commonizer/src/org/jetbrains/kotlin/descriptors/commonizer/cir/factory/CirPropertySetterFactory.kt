@@ -17,8 +17,8 @@ object CirPropertySetterFactory {
     private val interner = Interner<CirPropertySetter>()
 
     fun create(source: PropertySetterDescriptor): CirPropertySetter = create(
-        annotations = source.annotations.map(CirAnnotationFactory::create),
-        parameterAnnotations = source.valueParameters[0].annotations.map(CirAnnotationFactory::create),
+        annotations = CirAnnotationFactory.createList(source.annotations),
+        parameterAnnotations = CirAnnotationFactory.createList(source.valueParameters[0].annotations),
         visibility = source.visibility,
         isDefault = source.isDefault,
         isExternal = source.isExternal,
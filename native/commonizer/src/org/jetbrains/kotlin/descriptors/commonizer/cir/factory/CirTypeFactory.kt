@@ -12,16 +12,18 @@ import org.jetbrains.kotlin.descriptors.DescriptorVisibility
 import org.jetbrains.kotlin.descriptors.commonizer.cir.*
 import org.jetbrains.kotlin.descriptors.commonizer.cir.impl.CirSimpleTypeImpl
 import org.jetbrains.kotlin.descriptors.commonizer.utils.Interner
+import org.jetbrains.kotlin.descriptors.commonizer.utils.compactMap
 import org.jetbrains.kotlin.descriptors.commonizer.utils.declarationDescriptor
 import org.jetbrains.kotlin.types.*
 
 object CirTypeFactory {
     private val interner = Interner<CirSimpleType>()
+    private val flexibleTypeInterner = Interner<CirFlexibleType>()
 
     fun create(source: KotlinType): CirType = source.unwrap().run {
         when (this) {
             is SimpleType -> create(this)
-            is FlexibleType -> CirFlexibleType(create(lowerBound), create(upperBound))
+            is FlexibleType -> flexibleTypeInterner.intern(CirFlexibleType(create(lowerBound), create(upperBound)))
         }
     }
 
@@ -33,7 +35,7 @@ object CirTypeFactory {
         return create(
             classifierId = CirClassifierIdFactory.create(classifierDescriptor),
             visibility = (classifierDescriptor as? ClassifierDescriptorWithTypeParameters)?.visibility ?: DescriptorVisibilities.UNKNOWN,
-            arguments = source.arguments.map { projection ->
+            arguments = source.arguments.compactMap { projection ->
                 CirTypeProjection(
                     projectionKind = projection.projectionKind,
                     isStarProjection = projection.isStarProjection,
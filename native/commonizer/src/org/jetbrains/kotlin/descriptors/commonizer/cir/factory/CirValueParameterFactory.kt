@@ -18,7 +18,7 @@ object CirValueParameterFactory {
     private val interner = Interner<CirValueParameter>()
 
     fun create(source: ValueParameterDescriptor): CirValueParameter = create(
-        annotations = source.annotations.map(CirAnnotationFactory::create),
+        annotations = CirAnnotationFactory.createList(source.annotations),
         name = source.name.intern(),
         returnType = CirTypeFactory.create(source.returnType!!),
         varargElementType = source.varargElementType?.let(CirTypeFactory::create),
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.descriptors.commonizer.cli
+
+import java.io.File
+
+internal object CacheOptionType : OptionType<File>(
+    "cache-path",
+    "Directory to reuse commonized libraries between runs (optional);\nonly libraries with changed inputs are commonized again",
+    mandatory = false
+) {
+    override fun parse(rawValue: String, onError: (reason: String) -> Nothing): Option<File> {
+        val file = File(rawValue)
+        if (file.exists() && !file.isDirectory) onError("Cache path is not a directory: $rawValue")
+
+        return Option(this, file)
+    }
+}
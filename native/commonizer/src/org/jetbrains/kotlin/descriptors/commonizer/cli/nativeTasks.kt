@@ -46,6 +46,7 @@ internal class NativeDistributionCommonize(options: Collection<Option<*>>) : Tas
         val copyStdlib = getOptional<Boolean, BooleanOptionType> { it == "copy-stdlib" } ?: false
         val copyEndorsedLibs = getOptional<Boolean, BooleanOptionType> { it == "copy-endorsed-libs" } ?: false
         val statsType = getOptional<StatsType, StatsTypeOptionType> { it == "log-stats" } ?: StatsType.NONE
+        val cacheDirectory = getOptional<File, CacheOptionType>()
 
         val targetNames = targets.joinToString { "[${it.name}]" }
         val descriptionSuffix = estimateLibrariesCount(distribution, targets)?.let { " ($it items)" } ?: ""
@@ -60,7 +61,8 @@ internal class NativeDistributionCommonize(options: Collection<Option<*>>) : Tas
             copyStdlib = copyStdlib,
             copyEndorsedLibs = copyEndorsedLibs,
             statsType = statsType,
-            logger = CliLoggerAdapter(2)
+            logger = CliLoggerAdapter(2),
+            cacheDirectory = cacheDirectory
         ).run()
 
         println("$description: Done")
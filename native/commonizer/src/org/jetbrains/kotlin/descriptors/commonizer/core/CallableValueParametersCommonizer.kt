@@ -5,7 +5,7 @@
 
 package org.jetbrains.kotlin.descriptors.commonizer.core
 
-import com.intellij.util.containers.FactoryMap
+import com.intellij.util.containers.ConcurrentFactoryMap
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirCallableMemberWithParameters
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirClassifierId
 import org.jetbrains.kotlin.descriptors.commonizer.cir.CirHasAnnotations
@@ -224,7 +224,7 @@ class CallableValueParametersCommonizer(
         private const val REGULAR_ARGUMENT_PREFIX = "arg"
 
         private val VARIADIC_ARGUMENTS_NAME = Name.identifier(VARIADIC_ARGUMENTS).intern()
-        private val REGULAR_ARGUMENT_NAMES = FactoryMap.create<Int, Name> { index ->
+        private val REGULAR_ARGUMENT_NAMES = ConcurrentFactoryMap.createMap<Int, Name> { index ->
             Name.identifier(REGULAR_ARGUMENT_PREFIX + index).intern()
         }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.descriptors.commonizer.core
+
+import org.jetbrains.kotlin.descriptors.commonizer.Parameters
+import org.jetbrains.kotlin.descriptors.commonizer.mergedtree.CirClassNode
+import org.jetbrains.kotlin.descriptors.commonizer.mergedtree.CirNode
+import org.jetbrains.kotlin.descriptors.commonizer.mergedtree.CirRootNode
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+import kotlin.system.measureTimeMillis
+
+/**
+ * Commonizes the whole merged tree using [ForkJoinPool.commonPool].
+ *
+ * Classes and type aliases are commonized first, sequentially and in the tree order: their common declarations are requested
+ * from any other node (through [org.jetbrains.kotlin.descriptors.commonizer.mergedtree.CirClassifiersCache]), and recursion
+ * between them is resolved by recursion markers, which would make the result dependent on the thread scheduling otherwise.
+ *
+ * Then all top-level declarations of all packages are visited with [CommonizationVisitor] in parallel. At that point each
+ * remaining common declaration is computed by exactly one task, and the shared classifiers are only read, so the result
+ * is the same as of the sequential commonization.
+ *
+ * The duration of each of the two phases is reported to [Parameters.statsCollector].
+ */
+internal fun CirRootNode.commonizeInParallel(parameters: Parameters) {
+    checkNotNull(commonDeclaration()) // root should already be commonized
+
+    parameters.logPhase("Commonized classifiers") {
+        modules.values.forEach { module ->
+            module.packages.values.forEach { pkg ->
+                pkg.classes.values.forEach(::commonizeClassifiers)
+                pkg.typeAliases.values.forEach { it.commonDeclaration() }
+            }
+        }
+    }
+
+    parameters.logPhase("Commonized declarations") {
+        val visitor = CommonizationVisitor(this)
+        val tasks = ArrayList<ForkJoinTask<*>>()
+        modules.values.forEach { module ->
+            module.commonDeclaration() // commonize module
+
+            module.packages.values.forEach { pkg ->
+                pkg.commonDeclaration() // commonize package
+
+                pkg.properties.values.forEach { tasks += visitTask(it, visitor) }
+                pkg.functions.values.forEach { tasks += visitTask(it, visitor) }
+                pkg.classes.values.forEach { tasks += visitTask(it, visitor) }
+                pkg.typeAliases.values.forEach { tasks += visitTask(it, visitor) }
+            }
+        }
+
+        ForkJoinTask.invokeAll(tasks) // tasks are forked into the common pool, exceptions are rethrown as is
+    }
+}
+
+private inline fun Parameters.logPhase(phase: String, body: () -> Unit) {
+    val millis = measureTimeMillis(body)
+    statsCollector?.logPhaseTime(phase, millis)
+    progressLogger?.invoke(phase)
+}
+
+private fun commonizeClassifiers(node: CirClassNode) {
+    node.commonDeclaration()
+    node.classes.values.forEach(::commonizeClassifiers)
+}
+
+private fun visitTask(node: CirNode<*, *>, visitor: CommonizationVisitor): ForkJoinTask<*> =
+    ForkJoinTask.adapt { node.accept(visitor, Unit) }
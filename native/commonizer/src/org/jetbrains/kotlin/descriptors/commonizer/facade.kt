@@ -9,6 +9,7 @@ import org.jetbrains.kotlin.descriptors.commonizer.builder.DeclarationsBuilderVi
 import org.jetbrains.kotlin.descriptors.commonizer.builder.DeclarationsBuilderVisitor2
 import org.jetbrains.kotlin.descriptors.commonizer.builder.createGlobalBuilderComponents
 import org.jetbrains.kotlin.descriptors.commonizer.core.CommonizationVisitor
+import org.jetbrains.kotlin.descriptors.commonizer.core.commonizeInParallel
 import org.jetbrains.kotlin.descriptors.commonizer.mergedtree.CirTreeMerger
 import org.jetbrains.kotlin.storage.LockBasedStorageManager
 
@@ -23,8 +24,10 @@ fun runCommonization(parameters: Parameters): Result {
 
     // commonize:
     val mergedTree = mergeResult.root
-    mergedTree.accept(CommonizationVisitor(mergedTree), Unit)
-    parameters.progressLogger?.invoke("Commonized declarations")
+    if (parameters.parallelCommonization)
+        mergedTree.commonizeInParallel(parameters)
+    else
+        mergedTree.accept(CommonizationVisitor(mergedTree), Unit)
 
     // build resulting descriptors:
     val components = mergedTree.createGlobalBuilderComponents(storageManager, parameters)
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.descriptors.commonizer.konan
+
+import org.jetbrains.kotlin.backend.common.serialization.metadata.KlibMetadataVersion
+import org.jetbrains.kotlin.config.KotlinCompilerVersion
+import org.jetbrains.kotlin.descriptors.commonizer.InputTarget
+import org.jetbrains.kotlin.konan.library.KONAN_DISTRIBUTION_COMMON_LIBS_DIR
+import org.jetbrains.kotlin.konan.library.KONAN_DISTRIBUTION_PLATFORM_LIBS_DIR
+import org.jetbrains.kotlin.konan.library.KONAN_STDLIB_NAME
+import java.io.File
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.*
+
+/**
+ * Persistent cache of commonized platform libraries shared between runs of [NativeDistributionCommonizer].
+ *
+ * Each library that is present in all commonized targets is stored under a key computed from the contents of the library
+ * in every target, the keys of its dependencies, the contents of the standard library, the list of targets and the version
+ * of the commonizer. Libraries with cached keys are restored without commonization. The rest of them are commonized
+ * together with their dependencies, which are needed to resolve their declarations.
+ *
+ * Layout of an entry: `<cache>/<key>/common/<library>` and `<cache>/<key>/platform/<target>/<library>`.
+ */
+internal class CommonizedLibrariesCache(
+    private val cacheDirectory: File,
+    private val librariesByTargets: Map<InputTarget, NativeDistributionLibraries>
+) {
+    private val targets = librariesByTargets.keys.toList()
+
+    private val librariesByNames: List<Map<String, NativeDistributionLibrary>> =
+        targets.map { target -> librariesByTargets.getValue(target).platformLibs.associateBy { it.manifestData.uniqueName } }
+
+    /** Names of the libraries present in all targets, i.e. of those that are commonized. */
+    val commonLibraryNames: Set<String> = librariesByNames.map { it.keys }.reduce { a, b -> a intersect b }
+
+    private val contentHashes = HashMap<File, String>()
+    private val keys = HashMap<String, String>()
+
+    private val commonKeyPart: String by lazy {
+        buildString {
+            append(CACHE_FORMAT_VERSION).append('\n')
+            append(KotlinCompilerVersion.VERSION).append('\n')
+            append(KlibMetadataVersion.INSTANCE).append('\n')
+            targets.joinTo(this, separator = ",", postfix = "\n") { it.name }
+            append(contentHash(librariesByTargets.values.first().stdlib.location)).append('\n')
+        }
+    }
+
+    class Stats(val cachedLibraries: List<String>, val commonizedLibraries: List<String>)
+
+    /**
+     * Writes commonized libraries to [destination], restoring the cached ones and running [commonize] for the rest of them.
+     *
+     * [commonize] gets the libraries missing in the cache together with their dependencies, and should write the commonized
+     * libraries to [destination]. It is not called if all libraries are cached. The libraries absent in some targets are
+     * copied to [destination] as is.
+     */
+    fun commonize(destination: File, commonize: (Map<InputTarget, NativeDistributionLibraries>) -> Unit): Stats {
+        val (cachedLibraries, librariesToCommonize) = commonLibraryNames.partition(::isCached)
+
+        // dependencies are needed to resolve declarations, even if they are cached
+        val librariesToLoad = withDependencies(librariesToCommonize)
+        if (librariesToCommonize.isNotEmpty()) {
+            commonize(librariesByTargets.mapValues { (_, libraries) -> libraries.filter { it.manifestData.uniqueName in librariesToLoad } })
+            librariesToCommonize.forEach { store(it, destination) }
+        }
+
+        destination.resolve(KONAN_DISTRIBUTION_COMMON_LIBS_DIR).mkdirs()
+        cachedLibraries.forEach { if (it !in librariesToLoad) restore(it, destination) }
+        librariesByTargets.forEach { (target, libraries) ->
+            val librariesDestination = destination.resolve(KONAN_DISTRIBUTION_PLATFORM_LIBS_DIR).resolve(target.name)
+            librariesDestination.mkdirs()
+            libraries.platformLibs.forEach { library ->
+                val name = library.manifestData.uniqueName
+                // the libraries passed to commonization are already written, including the ones absent in some targets
+                if (name !in commonLibraryNames && name !in librariesToLoad)
+                    library.location.copyRecursively(librariesDestination.resolve(library.location.name))
+            }
+        }
+
+        removeUnusedEntries()
+        return Stats(cachedLibraries, librariesToCommonize)
+    }
+
+    private fun isCached(libraryName: String): Boolean = entry(libraryName).isDirectory
+
+    /**
+     * Returns the given libraries together with all their (transitive) dependencies in any of the targets,
+     * except for the standard library.
+     */
+    private fun withDependencies(libraryNames: Collection<String>): Set<String> {
+        val result = LinkedHashSet<String>()
+        val queue = ArrayDeque(libraryNames)
+        while (queue.isNotEmpty()) {
+            val name = queue.removeFirst()
+            if (!result.add(name)) continue
+            for (libraries in librariesByNames) {
+                libraries[name]?.manifestData?.dependencies?.filterTo(queue) { it != KONAN_STDLIB_NAME && it !in result }
+            }
+        }
+        return result
+    }
+
+    /** Copies commonized library from the cache to [destination]. */
+    private fun restore(libraryName: String, destination: File) {
+        val entry = entry(libraryName)
+        copyLibrary(libraryName, from = entry, to = destination)
+        entry.setLastModified(System.currentTimeMillis()) // mark as recently used
+    }
+
+    /** Removes the entries that were not used for [UNUSED_ENTRY_TTL_MS]. */
+    private fun removeUnusedEntries() {
+        val threshold = System.currentTimeMillis() - UNUSED_ENTRY_TTL_MS
+        cacheDirectory.listFiles()?.forEach { entry ->
+            if (entry.lastModified() < threshold) entry.deleteRecursively()
+        }
+    }
+
+    /** Stores the library commonized into [destination]. Failures to write the cache are not fatal. */
+    private fun store(libraryName: String, destination: File) {
+        val entry = entry(libraryName)
+        if (entry.isDirectory) return
+
+        cacheDirectory.mkdirs()
+        val temporaryEntry = createTempDir(prefix = entry.name, suffix = ".tmp", directory = cacheDirectory)
+        try {
+            copyLibrary(libraryName, from = destination, to = temporaryEntry)
+            // the entry appears at once, so a partially written one is never used
+            if (!temporaryEntry.renameTo(entry)) temporaryEntry.deleteRecursively()
+        } catch (e: IOException) {
+            temporaryEntry.deleteRecursively()
+        }
+    }
+
+    private fun copyLibrary(libraryName: String, from: File, to: File) {
+        val directories = listOf(KONAN_DISTRIBUTION_COMMON_LIBS_DIR) +
+                targets.map { KONAN_DISTRIBUTION_PLATFORM_LIBS_DIR + File.separator + it.name }
+
+        for (directory in directories) {
+            val source = from.resolve(directory).resolve(libraryName)
+            if (source.exists()) source.copyRecursively(to.resolve(directory).resolve(libraryName), overwrite = true)
+        }
+    }
+
+    private fun entry(libraryName: String): File = cacheDirectory.resolve(key(libraryName))
+
+    private fun key(libraryName: String): String = keys[libraryName] ?: run {
+        // put a placeholder first to break (not expected) dependency cycles
+        keys[libraryName] = libraryName
+
+        val digest = MessageDigest.getInstance(DIGEST_ALGORITHM)
+        digest.update(commonKeyPart.toByteArray())
+        digest.update(libraryName.toByteArray())
+        for (libraries in librariesByNames) {
+            val library = libraries[libraryName]
+            if (library == null) {
+                digest.update(0)
+                continue
+            }
+            digest.update(contentHash(library.location).toByteArray())
+            for (dependency in library.manifestData.dependencies) {
+                if (dependency == KONAN_STDLIB_NAME) continue
+                digest.update(dependency.toByteArray())
+                if (libraries.containsKey(dependency)) digest.update(key(dependency).toByteArray())
+            }
+        }
+
+        digest.digest().toHexString().also { keys[libraryName] = it }
+    }
+
+    private fun contentHash(location: File): String = contentHashes.getOrPut(location) {
+        val digest = MessageDigest.getInstance(DIGEST_ALGORITHM)
+        val buffer = ByteArray(64 * 1024)
+        location.walkTopDown()
+            .filter { it.isFile }
+            .sortedBy { it.relativeTo(location).invariantSeparatorsPath }
+            .forEach { file ->
+                digest.update(file.relativeTo(location).invariantSeparatorsPath.toByteArray())
+                file.inputStream().use { input ->
+                    while (true) {
+                        val read = input.read(buffer)
+                        if (read < 0) break
+                        digest.update(buffer, 0, read)
+                    }
+                }
+            }
+        digest.digest().toHexString()
+    }
+
+    private companion object {
+        const val CACHE_FORMAT_VERSION = 1
+        const val DIGEST_ALGORITHM = "SHA-256"
+        const val UNUSED_ENTRY_TTL_MS = 31L * 24 * 60 * 60 * 1000
+
+        fun ByteArray.toHexString(): String = joinToString(separator = "") { String.format("%02x", it) }
+    }
+}
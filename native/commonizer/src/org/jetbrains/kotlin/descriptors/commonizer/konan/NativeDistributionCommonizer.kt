@@ -17,6 +17,7 @@ import org.jetbrains.kotlin.descriptors.commonizer.konan.NativeDistributionCommo
 import org.jetbrains.kotlin.descriptors.commonizer.stats.AggregatedStatsCollector
 import org.jetbrains.kotlin.descriptors.commonizer.stats.FileStatsOutput
 import org.jetbrains.kotlin.descriptors.commonizer.stats.RawStatsCollector
+import org.jetbrains.kotlin.descriptors.commonizer.stats.StatsOutput
 import org.jetbrains.kotlin.descriptors.commonizer.utils.ResettableClockMark
 import org.jetbrains.kotlin.descriptors.konan.NATIVE_STDLIB_MODULE_NAME
 import org.jetbrains.kotlin.konan.library.*
@@ -33,6 +34,8 @@ import org.jetbrains.kotlin.serialization.konan.impl.KlibResolvedModuleDescripto
 import org.jetbrains.kotlin.storage.LockBasedStorageManager
 import org.jetbrains.kotlin.util.Logger
 import java.io.File
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
 import org.jetbrains.kotlin.konan.file.File as KFile
 
 class NativeDistributionCommonizer(
@@ -42,7 +45,8 @@ class NativeDistributionCommonizer(
     private val copyStdlib: Boolean,
     private val copyEndorsedLibs: Boolean,
     private val statsType: StatsType,
-    private val logger: Logger
+    private val logger: Logger,
+    private val cacheDirectory: File? = null
 ) {
     enum class StatsType {
         RAW, AGGREGATED, NONE
@@ -57,15 +61,53 @@ class NativeDistributionCommonizer(
         // 1. load libraries
         val librariesByTargets = loadLibraries()
 
-        // 2. run commonization
-        val result = commonize(librariesByTargets)
+        val cache = cacheDirectory
+            ?.takeIf { librariesByTargets.size >= 2 && librariesByTargets.values.none { it.platformLibs.isEmpty() } }
+            ?.let { CommonizedLibrariesCache(it, librariesByTargets) }
 
-        // 3. write new libraries
-        saveModules(librariesByTargets, result)
+        if (cache != null) {
+            runWithCache(librariesByTargets, cache)
+        } else {
+            // 2. run commonization
+            val result = commonize(librariesByTargets)
+
+            // 3. write new libraries
+            saveModules(librariesByTargets, result)
+        }
 
         logTotal()
     }
 
+    private fun runWithCache(librariesByTargets: Map<InputTarget, NativeDistributionLibraries>, cache: CommonizedLibrariesCache) {
+        // 2. commonize and write the libraries missing in the cache, restore the rest of them
+        val stats = cache.commonize(destination) { librariesToCommonizeByTargets ->
+            val result = commonize(librariesToCommonizeByTargets)
+            saveModules(librariesToCommonizeByTargets, result)
+        }
+        if (stats.commonizedLibraries.isEmpty()) copyCommonStandardLibraries()
+
+        logCacheStats(stats)
+        logProgress("Restored ${stats.cachedLibraries.size} commonized libraries from cache, commonized ${stats.commonizedLibraries.size} libraries")
+    }
+
+    private fun logCacheStats(stats: CommonizedLibrariesCache.Stats) {
+        if (statsType == NONE) return
+
+        FileStatsOutput(destination, "cache").use { output ->
+            output.writeHeader(CacheStatsHeader)
+            stats.cachedLibraries.forEach { output.writeRow(CacheStatsRow(it, isHit = true)) }
+            stats.commonizedLibraries.forEach { output.writeRow(CacheStatsRow(it, isHit = false)) }
+        }
+    }
+
+    private object CacheStatsHeader : StatsOutput.StatsHeader {
+        override fun toList() = listOf("Library", "Cache")
+    }
+
+    private class CacheStatsRow(private val libraryName: String, private val isHit: Boolean) : StatsOutput.StatsRow {
+        override fun toList() = listOf(libraryName, if (isHit) "HIT" else "MISS")
+    }
+
     private fun checkPreconditions() {
         if (!repository.isDirectory)
             logger.fatal("Repository does not exist: $repository")
@@ -84,7 +126,15 @@ class NativeDistributionCommonizer(
 
     private fun logProgress(message: String) = logger.log("* $message in ${clockMark.elapsedSinceLast()}")
 
-    private fun logTotal() = logger.log("TOTAL: ${clockMark.elapsedSinceStart()}")
+    private fun logTotal() =
+        logger.log("TOTAL: ${clockMark.elapsedSinceStart()}, peak heap usage: at most ${peakHeapUsageUpperBoundMb()} MB")
+
+    // the pools reach their peaks at different moments, so the sum of the peaks only bounds the peak of the whole heap
+    private fun peakHeapUsageUpperBoundMb(): Long =
+        ManagementFactory.getMemoryPoolMXBeans()
+            .filter { it.type == MemoryType.HEAP }
+            .map { it.peakUsage?.used ?: 0L }
+            .sum() / (1024 * 1024)
 
     private fun loadLibraries(): Map<InputTarget, NativeDistributionLibraries> {
         val stdlibPath = repository.resolve(konanCommonLibraryPath(KONAN_STDLIB_NAME))
@@ -138,8 +188,8 @@ class NativeDistributionCommonizer(
 
     private fun commonize(librariesByTargets: Map<InputTarget, NativeDistributionLibraries>): Result {
         val statsCollector = when (statsType) {
-            RAW -> RawStatsCollector(targets, FileStatsOutput(destination, "raw"))
-            AGGREGATED -> AggregatedStatsCollector(targets, FileStatsOutput(destination, "aggregated"))
+            RAW -> RawStatsCollector(targets, FileStatsOutput(destination, "raw"), FileStatsOutput(destination, "phases"))
+            AGGREGATED -> AggregatedStatsCollector(targets, FileStatsOutput(destination, "aggregated"), FileStatsOutput(destination, "phases"))
             NONE -> null
         }
         statsCollector.use {
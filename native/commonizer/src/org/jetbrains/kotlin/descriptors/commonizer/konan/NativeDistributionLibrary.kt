@@ -7,6 +7,7 @@ package org.jetbrains.kotlin.descriptors.commonizer.konan
 
 import gnu.trove.THashMap
 import org.jetbrains.kotlin.library.KotlinLibrary
+import java.io.File
 
 internal interface NativeManifestDataProvider {
     fun getManifest(libraryName: String): NativeSensitiveManifestData
@@ -19,6 +20,8 @@ internal class NativeDistributionLibrary(
     val library: KotlinLibrary
 ) {
     val manifestData = NativeSensitiveManifestData.readFrom(library)
+
+    val location: File get() = File(library.libraryFile.path)
 }
 
 /**
@@ -28,6 +31,8 @@ internal class NativeDistributionLibraries(
     val stdlib: NativeDistributionLibrary,
     val platformLibs: List<NativeDistributionLibrary>
 ) : NativeManifestDataProvider {
+    fun filter(predicate: (NativeDistributionLibrary) -> Boolean) = NativeDistributionLibraries(stdlib, platformLibs.filter(predicate))
+
     constructor(stdlib: KotlinLibrary, platformLibs: List<KotlinLibrary>) : this(
         NativeDistributionLibrary(stdlib),
         platformLibs.map(::NativeDistributionLibrary)
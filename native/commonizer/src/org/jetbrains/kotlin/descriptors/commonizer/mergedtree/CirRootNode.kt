@@ -11,14 +11,16 @@ import org.jetbrains.kotlin.descriptors.commonizer.utils.CommonizedGroup
 import org.jetbrains.kotlin.name.ClassId
 import org.jetbrains.kotlin.name.Name
 import org.jetbrains.kotlin.storage.NullableLazyValue
+import java.util.concurrent.ConcurrentHashMap
 
 class CirRootNode(
     override val targetDeclarations: CommonizedGroup<CirRoot>,
     override val commonDeclaration: NullableLazyValue<CirRoot>
 ) : CirNode<CirRoot, CirRoot> {
+    // read concurrently during commonization
     class CirClassifiersCacheImpl : CirClassifiersCache {
-        override val classes = THashMap<ClassId, CirClassNode>()
-        override val typeAliases = THashMap<ClassId, CirTypeAliasNode>()
+        override val classes = ConcurrentHashMap<ClassId, CirClassNode>()
+        override val typeAliases = ConcurrentHashMap<ClassId, CirTypeAliasNode>()
     }
 
     val modules: MutableMap<Name, CirModuleNode> = THashMap()
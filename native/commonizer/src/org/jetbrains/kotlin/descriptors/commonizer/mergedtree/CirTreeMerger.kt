@@ -19,6 +19,7 @@ import org.jetbrains.kotlin.name.ClassId
 import org.jetbrains.kotlin.name.FqName
 import org.jetbrains.kotlin.name.Name
 import org.jetbrains.kotlin.resolve.scopes.MemberScope
+import org.jetbrains.kotlin.storage.LockBasedStorageManager
 import org.jetbrains.kotlin.storage.NullableLazyValue
 import org.jetbrains.kotlin.storage.StorageManager
 
@@ -32,6 +33,10 @@ class CirTreeMerger(
     )
 
     private val size = parameters.targetProviders.size
+
+    // Only classifiers are commonized on demand from other nodes, so only they need the locking storage manager.
+    // Common declarations of all other nodes are computed by exactly one commonization task each, see [commonizeInParallel].
+    private val nonClassifiersStorageManager: StorageManager = LockBasedStorageManager.NO_LOCKS
     private lateinit var cacheRW: CirClassifiersCacheImpl
 
     fun merge(): CirTreeMergeResult {
@@ -87,7 +92,7 @@ class CirTreeMerger(
     ) {
         val moduleName: Name = moduleDescriptor.name.intern()
         val moduleNode: CirModuleNode = modules.getOrPut(moduleName) {
-            buildModuleNode(storageManager, size)
+            buildModuleNode(nonClassifiersStorageManager, size)
         }
         moduleNode.targetDeclarations[targetIndex] = CirModuleFactory.create(moduleDescriptor)
 
@@ -106,7 +111,7 @@ class CirTreeMerger(
         moduleName: Name
     ) {
         val packageNode: CirPackageNode = packages.getOrPut(packageFqName) {
-            buildPackageNode(storageManager, size, packageFqName, moduleName)
+            buildPackageNode(nonClassifiersStorageManager, size, packageFqName, moduleName)
         }
         packageNode.targetDeclarations[targetIndex] = CirPackageFactory.create(packageFqName)
 
@@ -140,7 +145,7 @@ class CirTreeMerger(
         parentCommonDeclaration: NullableLazyValue<*>?
     ) {
         val propertyNode: CirPropertyNode = properties.getOrPut(PropertyApproximationKey(propertyDescriptor)) {
-            buildPropertyNode(storageManager, size, cacheRW, parentCommonDeclaration)
+            buildPropertyNode(nonClassifiersStorageManager, size, cacheRW, parentCommonDeclaration)
         }
         propertyNode.targetDeclarations[targetIndex] = CirPropertyFactory.create(propertyDescriptor)
     }
@@ -152,7 +157,7 @@ class CirTreeMerger(
         parentCommonDeclaration: NullableLazyValue<*>?
     ) {
         val functionNode: CirFunctionNode = functions.getOrPut(FunctionApproximationKey(functionDescriptor)) {
-            buildFunctionNode(storageManager, size, cacheRW, parentCommonDeclaration)
+            buildFunctionNode(nonClassifiersStorageManager, size, cacheRW, parentCommonDeclaration)
         }
         functionNode.targetDeclarations[targetIndex] = CirFunctionFactory.create(functionDescriptor)
     }
@@ -203,7 +208,7 @@ class CirTreeMerger(
         parentCommonDeclaration: NullableLazyValue<*>?
     ) {
         val constructorNode: CirClassConstructorNode = constructors.getOrPut(ConstructorApproximationKey(constructorDescriptor)) {
-            buildClassConstructorNode(storageManager, size, cacheRW, parentCommonDeclaration)
+            buildClassConstructorNode(nonClassifiersStorageManager, size, cacheRW, parentCommonDeclaration)
         }
         constructorNode.targetDeclarations[targetIndex] = CirClassConstructorFactory.create(constructorDescriptor)
     }
@@ -12,15 +12,20 @@ import org.jetbrains.kotlin.konan.target.KonanTarget
 
 class AggregatedStatsCollector(
     targets: List<KonanTarget>,
-    private val output: StatsOutput
+    private val output: StatsOutput,
+    phaseTimesOutput: StatsOutput
 ) : StatsCollector {
     private val aggregatingOutput = AggregatingOutput()
-    private val wrappedCollector = RawStatsCollector(targets, aggregatingOutput)
+    private val wrappedCollector = RawStatsCollector(targets, aggregatingOutput, phaseTimesOutput)
 
     override fun logStats(result: List<DeclarationDescriptor?>) {
         wrappedCollector.logStats(result)
     }
 
+    override fun logPhaseTime(phase: String, millis: Long) {
+        wrappedCollector.logPhaseTime(phase, millis)
+    }
+
     override fun close() {
         output.writeHeader(AggregatedStatsHeader)
 
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.descriptors.commonizer.stats
+
+import java.io.Closeable
+
+/**
+ * Writes the durations of commonization phases reported to [StatsCollector.logPhaseTime], one row per phase.
+ *
+ * Example of output:
+
+Phase|Time, ms
+Commonized classifiers|1520
+Commonized declarations|3870
+
+ */
+class PhaseTimeStats(private val output: StatsOutput) : Closeable {
+    init {
+        output.writeHeader(PhaseTimeHeader)
+    }
+
+    fun log(phase: String, millis: Long) {
+        output.writeRow(PhaseTimeRow(phase, millis))
+    }
+
+    override fun close() {
+        output.close()
+    }
+
+    private object PhaseTimeHeader : StatsOutput.StatsHeader {
+        override fun toList() = listOf("Phase", "Time, ms")
+    }
+
+    private class PhaseTimeRow(private val phase: String, private val millis: Long) : StatsOutput.StatsRow {
+        override fun toList() = listOf(phase, millis.toString())
+    }
+}
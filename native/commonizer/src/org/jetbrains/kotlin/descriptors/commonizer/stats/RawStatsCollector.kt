@@ -56,9 +56,11 @@ platform.SystemConfiguration.SCVLANInterfaceRef||||TYPE_ALIAS|-|O|O
  */
 class RawStatsCollector(
     private val targets: List<KonanTarget>,
-    private val output: StatsOutput
+    private val output: StatsOutput,
+    phaseTimesOutput: StatsOutput
 ) : StatsCollector {
     private var headerWritten = false
+    private val phaseTimes = PhaseTimeStats(phaseTimesOutput)
 
     override fun logStats(result: List<DeclarationDescriptor?>) {
         if (!headerWritten) {
@@ -110,8 +112,13 @@ class RawStatsCollector(
         output.writeRow(statsRow)
     }
 
+    override fun logPhaseTime(phase: String, millis: Long) {
+        phaseTimes.log(phase, millis)
+    }
+
     override fun close() {
         output.close()
+        phaseTimes.close()
     }
 
     private fun writeHeader() {
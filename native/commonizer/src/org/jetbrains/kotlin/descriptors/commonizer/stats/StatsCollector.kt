@@ -10,4 +10,6 @@ import java.io.Closeable
 
 interface StatsCollector : Closeable {
     fun logStats(result: List<DeclarationDescriptor?>)
+
+    fun logPhaseTime(phase: String, millis: Long)
 }
@@ -14,6 +14,14 @@ internal fun <T> Sequence<T>.toList(expectedCapacity: Int): List<T> {
     return result
 }
 
+/** Same as [map], but doesn't allocate an array list for empty and single-element collections and doesn't leave spare capacity */
+internal inline fun <T, R> Collection<T>.compactMap(transform: (T) -> R): List<R> =
+    when (size) {
+        0 -> emptyList()
+        1 -> listOf(transform(first()))
+        else -> mapTo(ArrayList(size), transform)
+    }
+
 internal infix fun <K, V> Map<K, V>.concat(other: Map<K, V>): Map<K, V> =
     when {
         isEmpty() -> other
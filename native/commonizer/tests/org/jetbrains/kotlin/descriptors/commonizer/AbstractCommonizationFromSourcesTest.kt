@@ -93,6 +93,20 @@ abstract class AbstractCommonizationFromSourcesTest : KtUsefulTestCase() {
             assertValidModule(leafTargetModuleByCommonizer)
             assertModulesAreEqual(leafTargetModuleAsExpected, leafTargetModuleByCommonizer, "\"$leafTarget\" target")
         }
+
+        // parallel commonization (the default one) should give the same result as the sequential one
+        val sequentialParameters: Parameters = analyzedModules.toCommonizationParameters().apply { parallelCommonization = false }
+        val sequentialResult: Result = runCommonization(sequentialParameters)
+        assertCommonizationPerformed(sequentialResult)
+        assertEquals(result.modulesByTargets.keys, sequentialResult.modulesByTargets.keys)
+
+        for ((target, moduleResults) in result.modulesByTargets) {
+            val moduleInParallel: ModuleDescriptor = (moduleResults.single() as ModuleResult.Commonized).module
+            val moduleSequentially: ModuleDescriptor =
+                (sequentialResult.modulesByTargets.getValue(target).single() as ModuleResult.Commonized).module
+
+            assertModulesAreEqual(moduleSequentially, moduleInParallel, "\"$target\" target, sequential vs parallel")
+        }
     }
 }
 
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2010-2020 JetBrains s.r.o. and Kotlin Programming Language contributors.
+ * Use of this source code is governed by the Apache 2.0 license that can be found in the license/LICENSE.txt file.
+ */
+
+package org.jetbrains.kotlin.descriptors.commonizer.konan
+
+import org.jetbrains.kotlin.descriptors.commonizer.InputTarget
+import org.jetbrains.kotlin.konan.library.KONAN_DISTRIBUTION_COMMON_LIBS_DIR
+import org.jetbrains.kotlin.konan.library.KONAN_DISTRIBUTION_PLATFORM_LIBS_DIR
+import org.jetbrains.kotlin.library.KLIB_PROPERTY_DEPENDS
+import org.jetbrains.kotlin.library.KLIB_PROPERTY_UNIQUE_NAME
+import org.jetbrains.kotlin.library.ToolingSingleFileKlibResolveStrategy
+import org.jetbrains.kotlin.library.resolveSingleFileKlib
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import kotlin.test.assertEquals
+import org.jetbrains.kotlin.konan.file.File as KFile
+
+/**
+ * Checks the caching of commonized libraries. The commonization itself is replaced with [FakeCommonization], which produces
+ * an output depending on the contents of the libraries in all targets, as the real commonization does.
+ */
+class CommonizedLibrariesCacheTest {
+    @Rule
+    @JvmField
+    val tmp = TemporaryFolder()
+
+    private val target1 = InputTarget("target1")
+    private val target2 = InputTarget("target2")
+
+    // b depends on a, c depends on b, and d exists only in one target
+    private val libraries = mapOf(
+        target1 to listOf(LibrarySpec("a"), LibrarySpec("b", "a"), LibrarySpec("c", "b"), LibrarySpec("d")),
+        target2 to listOf(LibrarySpec("a"), LibrarySpec("b", "a"), LibrarySpec("c", "b"))
+    )
+
+    @Test
+    fun secondRunIsAllHits() {
+        val repository = createRepository(libraries)
+        val cacheDirectory = tmp.newFolder("cache")
+
+        val first = runCached(repository, cacheDirectory)
+        assertEquals(emptySet(), first.cachedLibraries)
+        assertEquals(setOf("a", "b", "c"), first.commonizedLibraries)
+
+        val second = runCached(repository, cacheDirectory)
+        assertEquals(setOf("a", "b", "c"), second.cachedLibraries)
+        assertEquals(emptySet(), second.commonizedLibraries)
+        assertEquals(emptySet(), second.loadedLibraries)
+
+        val expected = runUncached(repository)
+        assertEquals(expected, first.output)
+        assertEquals(expected, second.output)
+    }
+
+    @Test
+    fun changedLibraryIsRecomputedWithDependents() {
+        val cacheDirectory = tmp.newFolder("cache")
+        runCached(createRepository(libraries), cacheDirectory)
+
+        val changedLibraries = libraries + (target2 to listOf(LibrarySpec("a"), LibrarySpec("b", "a", contents = "changed"), LibrarySpec("c", "b")))
+        val changedRepository = createRepository(changedLibraries)
+
+        val run = runCached(changedRepository, cacheDirectory)
+        assertEquals(setOf("a"), run.cachedLibraries)
+        assertEquals(setOf("b", "c"), run.commonizedLibraries)
+        // the unchanged dependency is still needed to commonize its dependents
+        assertEquals(setOf("a", "b", "c"), run.loadedLibraries)
+        assertEquals(runUncached(changedRepository), run.output)
+
+        // the cache has both versions now
+        assertEquals(setOf("a", "b", "c"), runCached(changedRepository, cacheDirectory).cachedLibraries)
+        assertEquals(setOf("a", "b", "c"), runCached(createRepository(libraries), cacheDirectory).cachedLibraries)
+    }
+
+    @Test
+    fun changedStandardLibraryInvalidatesAllEntries() {
+        val cacheDirectory = tmp.newFolder("cache")
+        runCached(createRepository(libraries), cacheDirectory)
+
+        val run = runCached(createRepository(libraries, stdlibContents = "changed"), cacheDirectory)
+        assertEquals(emptySet(), run.cachedLibraries)
+        assertEquals(setOf("a", "b", "c"), run.commonizedLibraries)
+    }
+
+    private class LibrarySpec(val name: String, vararg val dependencies: String, val contents: String = "contents of $name")
+
+    private class RunResult(
+        val cachedLibraries: Set<String>,
+        val commonizedLibraries: Set<String>,
+        val loadedLibraries: Set<String>,
+        val output: Map<String, String>
+    )
+
+    private fun runCached(repository: Map<InputTarget, NativeDistributionLibraries>, cacheDirectory: File): RunResult {
+        val destination = tmp.newFolder()
+        val commonization = FakeCommonization(destination)
+        val stats = CommonizedLibrariesCache(cacheDirectory, repository).commonize(destination, commonization::run)
+        return RunResult(stats.cachedLibraries.toSet(), stats.commonizedLibraries.toSet(), commonization.loadedLibraries, destination.contents())
+    }
+
+    private fun runUncached(repository: Map<InputTarget, NativeDistributionLibraries>): Map<String, String> {
+        val destination = tmp.newFolder()
+        FakeCommonization(destination).run(repository)
+        return destination.contents()
+    }
+
+    /**
+     * Writes a common library for each library present in all targets, and copies the rest of them as is,
+     * like [NativeDistributionCommonizer] does.
+     */
+    private class FakeCommonization(private val destination: File) {
+        val loadedLibraries = HashSet<String>()
+
+        fun run(librariesByTargets: Map<InputTarget, NativeDistributionLibraries>) {
+            val librariesByNames = librariesByTargets.mapValues { (_, libraries) ->
+                libraries.platformLibs.associateBy { it.manifestData.uniqueName }
+            }
+            val names = librariesByNames.values.flatMap { it.keys }.toSet()
+            loadedLibraries += names
+
+            for (name in names) {
+                val isCommon = librariesByNames.values.all { name in it }
+                if (isCommon) {
+                    val commonContents = librariesByNames.values.joinToString(separator = "|") { it.getValue(name).contentsFile.readText() }
+                    destination.resolve(KONAN_DISTRIBUTION_COMMON_LIBS_DIR).resolve(name).resolve(CONTENTS_FILE_NAME).apply {
+                        parentFile.mkdirs()
+                        writeText(commonContents)
+                    }
+                }
+                for ((target, libraries) in librariesByNames) {
+                    val library = libraries[name] ?: continue
+                    val targetDestination = destination.resolve(KONAN_DISTRIBUTION_PLATFORM_LIBS_DIR).resolve(target.name).resolve(name)
+                    if (isCommon) {
+                        targetDestination.resolve(CONTENTS_FILE_NAME).apply {
+                            parentFile.mkdirs()
+                            writeText("actual for " + library.contentsFile.readText())
+                        }
+                    } else {
+                        library.location.copyRecursively(targetDestination)
+                    }
+                }
+            }
+        }
+
+        private val NativeDistributionLibrary.contentsFile: File get() = location.resolve(CONTENTS_FILE_NAME)
+    }
+
+    private fun createRepository(
+        libraries: Map<InputTarget, List<LibrarySpec>>,
+        stdlibContents: String = "stdlib"
+    ): Map<InputTarget, NativeDistributionLibraries> {
+        val root = tmp.newFolder()
+        val stdlib = createLibrary(root.resolve(KONAN_DISTRIBUTION_COMMON_LIBS_DIR), LibrarySpec("stdlib", contents = stdlibContents))
+        return libraries.mapValues { (target, specs) ->
+            val targetDirectory = root.resolve(KONAN_DISTRIBUTION_PLATFORM_LIBS_DIR).resolve(target.name)
+            NativeDistributionLibraries(stdlib, specs.map { createLibrary(targetDirectory, it) })
+        }
+    }
+
+    private fun createLibrary(directory: File, spec: LibrarySpec): NativeDistributionLibrary {
+        val location = directory.resolve(spec.name)
+        location.resolve("default").mkdirs()
+        location.resolve("default/manifest").writeText(
+            "$KLIB_PROPERTY_UNIQUE_NAME=${spec.name}\n$KLIB_PROPERTY_DEPENDS=${spec.dependencies.joinToString(" ")}\n"
+        )
+        location.resolve(CONTENTS_FILE_NAME).writeText(spec.contents)
+        return NativeDistributionLibrary(resolveSingleFileKlib(KFile(location.path), strategy = ToolingSingleFileKlibResolveStrategy))
+    }
+
+    private fun File.contents(): Map<String, String> =
+        walkTopDown().filter { it.isFile }.associate { it.relativeTo(this).invariantSeparatorsPath to it.readText() }
+
+    private companion object {
+        const val CONTENTS_FILE_NAME = "contents.txt"
+    }
+}
@@ -8,6 +8,10 @@ package org.jetbrains.kotlin.jvm.abi
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.io.FileUtil
 import org.jetbrains.kotlin.analyzer.AnalysisResult
+import org.jetbrains.kotlin.backend.common.output.OutputFile
+import org.jetbrains.kotlin.backend.common.phaser.PhaseConfig
+import org.jetbrains.kotlin.backend.jvm.JvmIrCodegenFactory
+import org.jetbrains.kotlin.backend.jvm.jvmPhases
 import org.jetbrains.kotlin.cli.common.CLIConfigurationKeys
 import org.jetbrains.kotlin.cli.common.messages.CompilerMessageSeverity
 import org.jetbrains.kotlin.cli.common.messages.MessageRenderer
@@ -16,8 +20,10 @@ import org.jetbrains.kotlin.cli.common.messages.PrintingMessageCollector
 import org.jetbrains.kotlin.codegen.ClassBuilder
 import org.jetbrains.kotlin.codegen.ClassBuilderFactory
 import org.jetbrains.kotlin.codegen.ClassBuilderMode
+import org.jetbrains.kotlin.codegen.DefaultCodegenFactory
 import org.jetbrains.kotlin.codegen.KotlinCodegenFacade
 import org.jetbrains.kotlin.codegen.state.GenerationState
+import org.jetbrains.kotlin.codegen.state.GenerationStateEventCallback
 import org.jetbrains.kotlin.compilerRunner.OutputItemsCollector
 import org.jetbrains.kotlin.config.CommonConfigurationKeys
 import org.jetbrains.kotlin.config.CompilerConfiguration
@@ -64,6 +70,30 @@ class JvmAbiAnalysisHandlerExtension(
             type = "java-production"
         )
 
+        val messageCollector = compilerConfiguration.get(CLIConfigurationKeys.MESSAGE_COLLECTOR_KEY)
+            ?: PrintingMessageCollector(System.err, MessageRenderer.PLAIN_FULL_PATHS, false)
+        val reportOutputFiles = compilerConfiguration.getBoolean(CommonConfigurationKeys.REPORT_OUTPUT_FILES)
+        val outputItemsCollector =
+            OutputItemsCollector { sourceFiles, outputFile ->
+                messageCollector.report(CompilerMessageSeverity.OUTPUT, OutputMessageUtil.formatOutputMessage(sourceFiles, outputFile))
+            }.takeIf { reportOutputFiles }
+        val outputDir = compilerConfiguration.get(JVMConfigurationKeys.OUTPUT_DIRECTORY)!!
+
+        // private/local/synthetic class removal is temporarily turned off, because the implementation
+        // was not correct: it was not taking into account that private/local classes could be used
+        // from inline functions.
+        // Until then, classes are written as soon as each independent part (package or multifile class) is generated,
+        // instead of keeping the whole ABI of the module in memory.
+        // todo: implement correct removal (see removeUnneededClasses), it requires all outputs at once
+        fun flushOutputs(state: GenerationState, outputs: List<OutputFile>) {
+            for (outputFile in outputs) {
+                AbiOutput(File(outputDir, outputFile.relativePath), outputFile.sourceFiles, outputFile.asByteArray())
+                    .flush(outputItemsCollector)
+            }
+            state.factory.releaseGeneratedOutput()
+        }
+
+        val isIrBackend = compilerConfiguration.getBoolean(JVMConfigurationKeys.IR)
         val generationState = GenerationState.Builder(
             project,
             AbiBinaries,
@@ -71,31 +101,20 @@ class JvmAbiAnalysisHandlerExtension(
             bindingContext,
             files.toList(),
             compilerConfiguration
-        ).targetId(targetId).build()
+        ).targetId(targetId)
+            .codegenFactory(
+                if (isIrBackend) JvmIrCodegenFactory(
+                    compilerConfiguration.get(CLIConfigurationKeys.PHASE_CONFIG) ?: PhaseConfig(jvmPhases)
+                ) else DefaultCodegenFactory
+            )
+            .isIrBackend(isIrBackend)
+            .onIndependentPartCompilationEnd(GenerationStateEventCallback { state -> flushOutputs(state, state.factory.currentOutput) })
+            .build()
         KotlinCodegenFacade.compileCorrectFiles(generationState)
 
-        val outputDir = compilerConfiguration.get(JVMConfigurationKeys.OUTPUT_DIRECTORY)!!
-        val outputs = ArrayList<AbiOutput>()
-
-        for (outputFile in generationState.factory.asList()) {
-            val file = File(outputDir, outputFile.relativePath)
-            outputs.add(AbiOutput(file, outputFile.sourceFiles, outputFile.asByteArray()))
-        }
-
-        // private/local/synthetic class removal is temporarily turned off, because the implementation
-        // was not correct: it was not taking into account that private/local classes could be used
-        // from inline functions
-        // todo: implement correct removal
-        //removeUnneededClasses(outputs)
-
-        val messageCollector = compilerConfiguration.get(CLIConfigurationKeys.MESSAGE_COLLECTOR_KEY)
-            ?: PrintingMessageCollector(System.err, MessageRenderer.PLAIN_FULL_PATHS, false)
-        val reportOutputFiles = generationState.configuration.getBoolean(CommonConfigurationKeys.REPORT_OUTPUT_FILES)
-        val outputItemsCollector =
-            OutputItemsCollector { sourceFiles, outputFile ->
-                messageCollector.report(CompilerMessageSeverity.OUTPUT, OutputMessageUtil.formatOutputMessage(sourceFiles, outputFile))
-            }.takeIf { reportOutputFiles }
-        outputs.forEach { it.flush(outputItemsCollector) }
+        // Module mappings are written only when the generation is done
+        flushOutputs(generationState, generationState.factory.asList())
+        generationState.destroy()
         return null
     }
 
@@ -25,6 +25,9 @@ abstract class BaseJvmAbiTest : TestCase() {
         super.tearDown()
     }
 
+    protected open val useIrBackend: Boolean
+        get() = false
+
     private val abiPluginJar = File("dist/kotlinc/lib/jvm-abi-gen.jar")
     private fun abiOption(option: String, value: String): String =
         "plugin:${JvmAbiCommandLineProcessor.COMPILER_PLUGIN_ID}:$option=$value"
@@ -64,6 +67,7 @@ abstract class BaseJvmAbiTest : TestCase() {
             pluginClasspaths = arrayOf(abiPluginJar.canonicalPath)
             pluginOptions = arrayOf(abiOption("outputDir", compilation.abiDir.canonicalPath))
             destination = compilation.destinationDir.canonicalPath
+            useIR = useIrBackend
         }
         val exitCode = compiler.exec(messageCollector, Services.EMPTY, args)
         if (exitCode != ExitCode.OK || messageCollector.errors.isNotEmpty()) {